@@ -4,6 +4,7 @@ import net.runelite.client.config.Config;
 import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
 import net.runelite.client.config.ConfigSection;
+import net.runelite.client.config.Range;
 
 @ConfigGroup("lendingtracker")
 public interface LendingTrackerConfig extends Config
@@ -16,6 +17,14 @@ public interface LendingTrackerConfig extends Config
 		BLOCK
 	}
 
+	/** How much of the game frame a proof screenshot keeps. */
+	enum CaptureRegion
+	{
+		FULL_FRAME,
+		TRADE_WINDOW,
+		TRADE_WINDOW_AND_CHAT
+	}
+
 	// Sections
 
 	@ConfigSection(
@@ -145,6 +154,31 @@ public interface LendingTrackerConfig extends Config
 		return true;
 	}
 
+	@ConfigItem(
+		keyName = "screenshotRegion",
+		name = "Capture Region",
+		description = "Full Frame saves the whole game view. Trade Window crops trade-screen shots to the trade interface and the post-trade shot to the chatbox; Trade Window And Chat also keeps the chatbox in the trade-screen shots. Cropped shots use less memory and save faster",
+		position = 2,
+		section = screenshotSection
+	)
+	default CaptureRegion screenshotRegion()
+	{
+		return CaptureRegion.FULL_FRAME;
+	}
+
+	@Range(min = 0, max = 9)
+	@ConfigItem(
+		keyName = "screenshotCompression",
+		name = "PNG Compression",
+		description = "PNG compression level for proof screenshots, 0 (fastest, largest files) to 9 (slowest, smallest files)",
+		position = 3,
+		section = screenshotSection
+	)
+	default int screenshotCompression()
+	{
+		return 4;
+	}
+
 	// Borrowed Item Guards
 
 	@ConfigItem(
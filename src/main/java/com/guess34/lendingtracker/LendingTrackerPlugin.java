@@ -20,9 +20,16 @@ import com.guess34.lendingtracker.ui.LendingPanel;
 import com.guess34.lendingtracker.services.DataService;
 import com.guess34.lendingtracker.services.LocalDataSyncService;
 import com.guess34.lendingtracker.services.ProofScreenshot;
+import com.guess34.lendingtracker.services.ProofEncoder;
+import com.guess34.lendingtracker.services.ProofCatalog;
 import com.guess34.lendingtracker.services.GroupService;
 import com.guess34.lendingtracker.services.RelaySyncService;
 import com.guess34.lendingtracker.services.TradeLoanTracker;
+import com.guess34.lendingtracker.services.ContainerSnapshots;
+import com.guess34.lendingtracker.services.AtRiskSet;
+import com.guess34.lendingtracker.util.IntSet;
+import com.guess34.lendingtracker.util.ItemBases;
+import com.guess34.lendingtracker.util.NameIndex;
 import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.NavigationButton;
@@ -42,6 +49,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -66,8 +74,12 @@ public class LendingTrackerPlugin extends Plugin
 	@Inject private GroupService groupService;
 	@Inject private LocalDataSyncService localDataSyncService;
 	@Inject private ProofScreenshot proofScreenshot;
+	@Inject private ProofEncoder proofEncoder;
+	@Inject private ProofCatalog proofCatalog;
 	@Inject private RelaySyncService relaySyncService;
 	@Inject private TradeLoanTracker tradeLoanTracker;
+	@Inject private ContainerSnapshots containerSnapshots;
+	@Inject private AtRiskSet atRiskSet;
 
 	private LendingPanel newPanel;
 	private NavigationButton navButton;
@@ -75,6 +87,10 @@ public class LendingTrackerPlugin extends Plugin
 	// presence join message reads this off the ws thread, where a direct
 	// client.getWorld() would be unsafe/stale.
 	private volatile int lastKnownWorld;
+	// Item-picker search index; null until the first build finishes
+	private volatile NameIndex itemNameIndex;
+	private final AtomicBoolean itemNameIndexBuilding = new AtomicBoolean();
+	private static final int NAME_INDEX_CHUNK = 4096;
 
 	@Override
 	protected void startUp() throws Exception
@@ -82,6 +98,8 @@ public class LendingTrackerPlugin extends Plugin
 		dataService.initialize();
 		groupService.initialize();
 		localDataSyncService.initialize();
+		buildItemBases();
+		buildItemNameIndex();
 
 		BufferedImage icon;
 		try
@@ -109,6 +127,10 @@ public class LendingTrackerPlugin extends Plugin
 		groupService.setOnSyncCallback(this::onGroupDataSynced);
 		groupService.setOnWildernessAlert(this::handleWildernessAlert);
 		tradeLoanTracker.setOnLoanRecorded(this::refreshPanel);
+		proofCatalog.setOnChanged(() ->
+		{
+			if (newPanel != null) { newPanel.refreshProofs(); }
+		});
 
 		// Register relay sync callbacks for cross-machine sync
 		relaySyncService.setOnEventReceived(event -> groupService.handleRelayEvent(event));
@@ -141,6 +163,15 @@ public class LendingTrackerPlugin extends Plugin
 				newPanel.refreshRoster();
 			}
 		});
+		// Join / leave / world-hop deltas between full presence broadcasts: touch only
+		// the affected roster row instead of rebuilding the whole roster.
+		relaySyncService.setOnPresenceDelta((name, world, online) ->
+		{
+			if (groupService.applyPresenceDelta(name, world, online) && newPanel != null)
+			{
+				newPanel.updateMemberPresence(name);
+			}
+		});
 		// Report our world in presence so peers can show it next to our name. Read
 		// from a value cached on the client thread — the supplier runs on the ws
 		// thread, where calling client.getWorld() directly could be stale/unsafe.
@@ -178,6 +209,7 @@ public class LendingTrackerPlugin extends Plugin
 			try { localDataSyncService.shutdown(); }
 			catch (Exception e) { log.warn("Error shutting down local data sync: {}", e.getMessage()); }
 		}
+		proofEncoder.shutdown();
 		newPanel = null;
 		navButton = null;
 		tradeLoanTracker.reset();
@@ -256,13 +288,14 @@ public class LendingTrackerPlugin extends Plugin
 		{
 			tradeLoanTracker.onTradeOfferUpdated();
 		}
-		// Bank snapshot for the fungible-duplicate guard logic: owning a spare copy
-		// of a collateral/borrowed item (safe in the bank) means carrying your own
-		// copy isn't at-risk. Only known once the bank has been opened this session.
-		if (event.getContainerId() == net.runelite.api.gameval.InventoryID.BANK
+		// Bank, inventory and worn totals for the fungible-duplicate guard logic:
+		// owning a spare copy of a collateral/borrowed item (safe in the bank)
+		// means carrying your own copy isn't at-risk. The bank is only known once
+		// it has been opened this session.
+		if (containerSnapshots.isTracked(event.getContainerId())
 			&& event.getItemContainer() != null)
 		{
-			tradeLoanTracker.onBankUpdated(event.getItemContainer().getItems());
+			containerSnapshots.onContainerChanged(event.getContainerId(), event.getItemContainer().getItems());
 		}
 	}
 
@@ -289,22 +322,23 @@ public class LendingTrackerPlugin extends Plugin
 
 		// Only offer to lend/list tradeable items — you can't lend what you can't
 		// trade. Checked here (not just on click) so the option never appears on an
-		// untradeable item in the first place.
-		if (event.getOption().equals("Examine")
-			&& event.getType() == MenuAction.EXAMINE_ITEM.getId()
+		// untradeable item in the first place. This runs for every entry of every
+		// menu build while hovering, so the cheap int compares go first and nothing
+		// on the way to "not ours" allocates.
+		String option = event.getOption();
+		if (event.getType() == MenuAction.EXAMINE_ITEM.getId()
+			&& OPTION_EXAMINE.equals(option)
 			&& isTradeable(event.getItemId()))
 		{
-			addMenuEntry("Add to Lending List", event);
+			addMenuEntry(OPTION_ADD_TO_LIST, event);
 		}
-
-		if (event.getOption().equals("Drop") && isTradeable(event.getItemId()))
+		else if (OPTION_DROP.equals(option) && isTradeable(event.getItemId()))
 		{
-			addMenuEntry("Lend to Group", event);
+			addMenuEntry(OPTION_LEND_TO_GROUP, event);
 		}
-
-		if (event.getOption().equals("Report") && canCurrentUserInvite())
+		else if (OPTION_REPORT.equals(option) && canCurrentUserInvite())
 		{
-			addMenuEntry("Invite to Lending Group", event);
+			addMenuEntry(OPTION_INVITE, event);
 		}
 	}
 
@@ -314,13 +348,22 @@ public class LendingTrackerPlugin extends Plugin
 		{
 			return true; // can't identify the item — don't hide the option
 		}
+		// An item's tradeability never changes, so each id is looked up once.
+		// BitSets keep the hit path free of the boxing a map lookup would cost.
+		if (tradeableChecked.get(itemId))
+		{
+			return tradeableItems.get(itemId);
+		}
 		try
 		{
-			return itemManager.getItemComposition(itemId).isTradeable();
+			boolean tradeable = itemManager.getItemComposition(itemId).isTradeable();
+			tradeableItems.set(itemId, tradeable);
+			tradeableChecked.set(itemId);
+			return tradeable;
 		}
 		catch (Exception e)
 		{
-			return true;
+			return true; // not cached: the lookup may succeed next time
 		}
 	}
 
@@ -336,9 +379,24 @@ public class LendingTrackerPlugin extends Plugin
 			.setDeprioritized(true);
 	}
 
+	// Vanilla options our entries attach to
+	private static final String OPTION_EXAMINE = "Examine";
+	private static final String OPTION_DROP = "Drop";
+	private static final String OPTION_REPORT = "Report";
+
+	// Options this plugin adds to item/player menus (not the trade-window ones)
+	private static final String OPTION_ADD_TO_LIST = "Add to Lending List";
+	private static final String OPTION_LEND_TO_GROUP = "Lend to Group";
+	private static final String OPTION_INVITE = "Invite to Lending Group";
+
 	/** Options this plugin adds to item/player menus (not the trade-window ones). */
 	private static final java.util.Set<String> OWN_MENU_OPTIONS = new java.util.HashSet<>(java.util.Arrays.asList(
-		"Add to Lending List", "Lend to Group", "Invite to Lending Group"));
+		OPTION_ADD_TO_LIST, OPTION_LEND_TO_GROUP, OPTION_INVITE));
+
+	// Tradeability by item id: checked says the id has been looked up, items
+	// holds the answer. Client thread only.
+	private final java.util.BitSet tradeableChecked = new java.util.BitSet();
+	private final java.util.BitSet tradeableItems = new java.util.BitSet();
 
 	@Subscribe
 	public void onPostMenuSort(PostMenuSort event)
@@ -350,6 +408,9 @@ public class LendingTrackerPlugin extends Plugin
 		// (the same reason the core Menu Entry Swapper hooks this event). Only
 		// this plugin's own entries are moved (matched by their distinctive
 		// option text); vanilla options keep their exact order.
+		// This is also the end of a menu build, so the trade-window entry may be
+		// added again on the next one.
+		tradeLoanTracker.onMenuBuilt();
 		MenuEntry[] entries = client.getMenuEntries();
 		if (entries == null || entries.length < 3)
 		{
@@ -394,9 +455,9 @@ public class LendingTrackerPlugin extends Plugin
 		if (tradeLoanTracker.onMenuOptionClicked(event)) { return; }
 
 		String option = event.getMenuOption();
-		if (option.equals("Add to Lending List")) { handleAddToAvailableList(event); }
-		else if (option.equals("Lend to Group")) { handleLendToGroup(event); }
-		else if (option.equals("Invite to Lending Group")) { handlePlayerInvite(event); }
+		if (OPTION_ADD_TO_LIST.equals(option)) { handleAddToAvailableList(event); }
+		else if (OPTION_LEND_TO_GROUP.equals(option)) { handleLendToGroup(event); }
+		else if (OPTION_INVITE.equals(option)) { handlePlayerInvite(event); }
 	}
 
 	@Subscribe
@@ -414,6 +475,88 @@ public class LendingTrackerPlugin extends Plugin
 		}
 	}
 
+	/**
+	 * Precompute the variation-base table for every item id. The count is read on
+	 * the client thread; the table itself is filled on the executor so the client
+	 * never waits on tens of thousands of mapping lookups.
+	 */
+	private void buildItemBases()
+	{
+		clientThread.invoke(() ->
+		{
+			int itemCount = client.getItemCount();
+			if (itemCount > 0 && !ItemBases.isBuilt(itemCount))
+			{
+				executor.execute(() -> ItemBases.build(itemCount));
+			}
+		});
+	}
+
+	/**
+	 * Build the item-name search index for the item pickers. Item compositions
+	 * can only be read on the client thread, so names are collected there in
+	 * chunks of {@link #NAME_INDEX_CHUNK} ids per tick; sorting and n-gram
+	 * indexing then run on the executor. Once built, a search never touches the
+	 * client. A no-op while a build is running or once one has finished.
+	 */
+	private void buildItemNameIndex()
+	{
+		if (itemNameIndex != null || !itemNameIndexBuilding.compareAndSet(false, true))
+		{
+			return;
+		}
+		final IntSet seen = new IntSet();
+		final List<Integer> ids = new ArrayList<>();
+		final List<String> names = new ArrayList<>();
+		final int[] next = {0};
+		clientThread.invoke(() ->
+		{
+			int itemCount = client.getItemCount();
+			if (itemCount <= 0)
+			{
+				// Cache not loaded yet; login retries
+				itemNameIndexBuilding.set(false);
+				return true;
+			}
+			int end = Math.min(itemCount, next[0] + NAME_INDEX_CHUNK);
+			for (int id = next[0]; id < end; id++)
+			{
+				try
+				{
+					// Canonicalize to skip noted/placeholder variants
+					int canonId = itemManager.canonicalize(id);
+					if (!seen.add(canonId))
+					{
+						continue;
+					}
+					ItemComposition comp = itemManager.getItemComposition(canonId);
+					if (comp != null && comp.isTradeable() && comp.getName() != null && !comp.getName().equals("null"))
+					{
+						ids.add(canonId);
+						names.add(comp.getName());
+					}
+				}
+				catch (Exception ignored)
+				{
+					// Skip items that can't be loaded
+				}
+			}
+			next[0] = end;
+			if (end < itemCount)
+			{
+				return false; // more next tick
+			}
+			executor.execute(() ->
+			{
+				int[] idArray = ids.stream().mapToInt(Integer::intValue).toArray();
+				itemNameIndex = NameIndex.build(idArray, names.toArray(new String[0]));
+				itemNameIndexBuilding.set(false);
+				log.debug("Item name index built: {} tradeable items", itemNameIndex.size());
+			});
+			return true;
+		});
+	}
+
 	@Subscribe
 	public void onGameStateChanged(GameStateChanged event)
 	{
@@ -426,6 +569,10 @@ public class LendingTrackerPlugin extends Plugin
 				// Cache the world on the client thread for the presence join message
 				// (fires on login AND after every world hop).
 				lastKnownWorld = client.getWorld();
+				// The item count isn't known before the cache loads; retry here
+				// if startup was too early (a no-op once the table is built)
+				buildItemBases();
+				buildItemNameIndex();
 				groupService.setOnSyncCallback(this::onGroupDataSynced);
 				triggerLoginFlow(playerName);
 				return true;
@@ -626,11 +773,15 @@ public class LendingTrackerPlugin extends Plugin
 				}
 				if (!changed.isEmpty())
 				{
-					for (LendingEntry e : changed)
+					// One persist and one publish for the whole refresh, not one per row.
+					dataService.batch(groupId, tx ->
 					{
-						dataService.updateAvailable(groupId, e.getLender(), e.getItem(), e.getItemId(), e);
-					}
-					if (newPanel != null) { SwingUtilities.invokeLater(() -> newPanel.refresh()); }
+						for (LendingEntry e : changed)
+						{
+							tx.updateAvailable(groupId, e.getLender(), e.getItem(), e.getItemId(), e);
+						}
+					});
+					if (newPanel != null) { newPanel.refresh(); }
 				}
 			});
 		}
@@ -859,7 +1010,7 @@ public class LendingTrackerPlugin extends Plugin
 
 			dataService.addAvailable(groupId, player, offer);
 			dlg.dispose();
-			if (newPanel != null) { SwingUtilities.invokeLater(() -> newPanel.refresh()); }
+			if (newPanel != null) { newPanel.refresh(); }
 			clientThread.invokeLater(() -> client.addChatMessage(ChatMessageType.GAMEMESSAGE, "",
 				"Added " + itemName + " to group marketplace", ""));
 		}
@@ -998,15 +1149,15 @@ public class LendingTrackerPlugin extends Plugin
 
 		// Only items actually being carried (inventory or equipment) are at risk —
 		// borrowed gear AND collateral held as the lender both count.
-		List<LendingEntry> borrowed = tradeLoanTracker.carriedBorrowedEntries();
-		List<LendingEntry> collateral = tradeLoanTracker.carriedCollateralEntries();
-		if (borrowed.isEmpty() && collateral.isEmpty()) { return; }
+		if (atRiskSet.isEmpty()) { return; }
+		List<LendingEntry> borrowed = atRiskSet.getBorrowed();
+		List<LendingEntry> collateral = atRiskSet.getCollateral();
 
 		lastWildernessWarnAt = System.currentTimeMillis();
 		StringBuilder summary = new StringBuilder();
 		if (!borrowed.isEmpty())
 		{
-			long total = borrowed.stream().mapToLong(LendingEntry::getValue).sum();
+			long total = atRiskSet.getBorrowedValue();
 			summary.append(borrowed.size()).append(" borrowed item(s) worth ")
 				.append(QuantityFormatter.quantityToStackSize(total)).append(" GP");
 		}
@@ -1043,12 +1194,12 @@ public class LendingTrackerPlugin extends Plugin
 			{
 				return;
 			}
-			List<LendingEntry> borrowed = tradeLoanTracker.carriedBorrowedEntries();
-			List<LendingEntry> collateral = tradeLoanTracker.carriedCollateralEntries();
-			if (borrowed.isEmpty() && collateral.isEmpty())
+			if (atRiskSet.isEmpty())
 			{
 				return;
 			}
+			List<LendingEntry> borrowed = atRiskSet.getBorrowed();
+			List<LendingEntry> collateral = atRiskSet.getCollateral();
 
 			lenderAlertSentThisEpisode = true;
 			// One event per distinct counterparty (not per item): the receiver only
@@ -1500,7 +1651,7 @@ public class LendingTrackerPlugin extends Plugin
 
 	public void refreshPanel()
 	{
-		if (newPanel != null) { SwingUtilities.invokeLater(() -> newPanel.refresh()); }
+		if (newPanel != null) { newPanel.refresh(); }
 	}
 
 	public String getCurrentPlayerName()
@@ -1514,9 +1665,13 @@ public class LendingTrackerPlugin extends Plugin
 	public ClientThread getClientThread() { return clientThread; }
 	public ConfigManager getConfigManager() { return configManager; }
 	public ItemManager getItemManager() { return itemManager; }
+	/** Item-name search index, or null while it is still being built. */
+	public NameIndex getItemNameIndex() { return itemNameIndex; }
+	public ScheduledExecutorService getExecutor() { return executor; }
 	public DataService getDataService() { return dataService; }
 	public GroupService getGroupService() { return groupService; }
 	public ProofScreenshot getProofScreenshot() { return proofScreenshot; }
+	public ProofCatalog getProofCatalog() { return proofCatalog; }
 	public boolean isRelaySyncConnected() { return relaySyncService != null && relaySyncService.isConnected(); }
 	public boolean isRelaySyncConnecting() { return relaySyncService != null && relaySyncService.isConnecting(); }
 	public LendingTrackerConfig getConfig() { return config; }
@@ -63,6 +63,13 @@ public class LendingEntry {
     // item is never (re)listed on the marketplace when it comes home.
     private Boolean oneTime;
 
+    // Set loan: every piece of an ItemSet lent in one trade carries the same
+    // setLoanId, which groups them; there is no separate set record. Each piece
+    // keeps its own running tally above, and the first piece holds the trade's
+    // collateral. Null for ordinary single-item loans.
+    private String setLoanId;
+    private String setName;
+
     // Misc
     private String notes;
 
@@ -117,6 +124,8 @@ public class LendingEntry {
 
     public boolean isOneTimeLoan() { return Boolean.TRUE.equals(oneTime); }
 
+    public boolean isSetLoanPiece() { return setLoanId != null && !setLoanId.isEmpty(); }
+
     public boolean isOverdue() {
         return returnedAt == 0 && dueTime > 0 && System.currentTimeMillis() > dueTime;
     }
@@ -144,6 +153,8 @@ public class LendingEntry {
         this.collateralOutstandingIds = other.collateralOutstandingIds;
         this.collateralGpOutstanding = other.collateralGpOutstanding;
         this.oneTime = other.oneTime;
+        this.setLoanId = other.setLoanId;
+        this.setName = other.setName;
         this.notes = other.notes;
     }
 
@@ -0,0 +1,121 @@
+package com.guess34.lendingtracker.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A "Looking For" post: a member asking the group for one or more items to
+ * borrow.
+ *
+ * Posts are stored in the per-group data snapshot alongside direct requests,
+ * so they persist in the group's one config write and sync across machines
+ * through the relay. Removing a post leaves a tombstone ({@link #removed})
+ * that syncs like any other change, so peers drop it too instead of
+ * re-publishing it.
+ */
+@Data
+@NoArgsConstructor
+public class LookingForRequest
+{
+	/** One item asked for. */
+	@Data
+	@NoArgsConstructor
+	public static class Item
+	{
+		private int itemId;
+		private String itemName;
+		private int quantity;
+		private long value;       // GE price per item when posted
+	}
+
+	private String id;
+	private String groupId;
+	private String requesterName;
+	private String itemName;     // primary item name (for display) or request title
+	private int quantity;        // quantity of the primary item, or the item count
+	private int durationDays;
+	private String notes;
+	private long postedTime;
+	private long updatedAt;
+	private boolean removed;
+	private List<Item> items = new ArrayList<>();
+
+	public long getTotalValue()
+	{
+		long total = 0;
+		for (Item item : items)
+		{
+			total += item.getValue() * item.getQuantity();
+		}
+		return total;
+	}
+
+	public int getItemCount()
+	{
+		return items.isEmpty() ? 1 : items.size();
+	}
+
+	public boolean isMultiItem()
+	{
+		return items.size() > 1;
+	}
+
+	public String getPostedTimeFormatted()
+	{
+		if (postedTime == 0) return "Unknown";
+		long d = System.currentTimeMillis() - postedTime;
+		if (d < 60000) return "Just now";
+		if (d < 3600000) return (d / 60000) + "m ago";
+		if (d < 86400000) return (d / 3600000) + "h ago";
+		return (d / 86400000) + "d ago";
+	}
+
+	/**
+	 * Parse the pipe-separated form posts were kept in before they moved into
+	 * the group snapshot: {@code requester|name|qty|days|notes|id:name:qty:value,...}.
+	 * Null if unreadable.
+	 */
+	public static LookingForRequest parseLegacy(String id, String data)
+	{
+		try
+		{
+			String[] parts = data.split("\\|", 6);
+			if (parts.length < 4) return null;
+			LookingForRequest r = new LookingForRequest();
+			r.id = id;
+			r.requesterName = parts[0];
+			r.itemName = parts[1];
+			r.quantity = Integer.parseInt(parts[2]);
+			r.durationDays = Integer.parseInt(parts[3]);
+			r.notes = parts.length > 4 ? parts[4] : "";
+			if (parts.length > 5 && !parts[5].isEmpty())
+			{
+				for (String itemPart : parts[5].split(","))
+				{
+					String[] d = itemPart.split(":");
+					if (d.length >= 3)
+					{
+						try
+						{
+							Item item = new Item();
+							item.itemId = Integer.parseInt(d[0]);
+							item.itemName = d[1];
+							item.quantity = Integer.parseInt(d[2]);
+							item.value = d.length > 3 ? Long.parseLong(d[3]) : 0;
+							r.items.add(item);
+						}
+						catch (NumberFormatException ignored) {}
+					}
+				}
+			}
+			// Old ids were the posting time; newer ones are UUIDs with no time in them
+			try { r.postedTime = Long.parseLong(id); }
+			catch (NumberFormatException e) { r.postedTime = System.currentTimeMillis(); }
+			r.updatedAt = r.postedTime;
+			return r;
+		}
+		catch (Exception e) { return null; }
+	}
+}
@@ -0,0 +1,213 @@
+package com.guess34.lendingtracker.services;
+
+import com.guess34.lendingtracker.model.LendingEntry;
+import com.guess34.lendingtracker.util.IntSet;
+import com.guess34.lendingtracker.util.ItemBases;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import net.runelite.api.Client;
+
+/**
+ * AtRiskSet - the loaned property the local player is carrying right now, kept
+ * current instead of recomputed by every wilderness check.
+ *
+ * The set of at-risk variation bases is maintained from two sources:
+ *   - container changes: only the bases ContainerSnapshots reports as moved are
+ *     re-evaluated;
+ *   - loan changes (DataService's entries version) and wholesale container
+ *     changes (logout, bank first seen): everything is re-derived.
+ * The borrowed / collateral entry lists the guards and alerts report are only
+ * rebuilt when the set's membership changes, so a ditch click or a wilderness
+ * varbit flip with nothing new to report reads cached lists and allocates
+ * nothing.
+ *
+ * Client thread only.
+ */
+@Singleton
+public class AtRiskSet
+{
+	@Inject private Client client;
+	@Inject private DataService dataService;
+	@Inject private ContainerSnapshots containers;
+
+	// Variation-base ids currently at risk
+	private final IntSet riskyBases = new IntSet();
+	private List<LendingEntry> borrowed = Collections.emptyList();
+	private List<LendingEntry> collateral = Collections.emptyList();
+	private long borrowedValue;
+
+	// What the cached state was derived from
+	private String player;
+	private int entriesVersion;
+	private int containerGeneration;
+	private boolean derived;
+	private boolean listsStale;
+
+	// Bound once: a method reference created per drain would allocate every time
+	private final IntConsumer reevaluate = this::reevaluate;
+
+	/** Borrowed loans whose item I'm carrying at risk. Unmodifiable. */
+	public List<LendingEntry> getBorrowed()
+	{
+		refresh();
+		return borrowed;
+	}
+
+	/** Loans I lent whose item-collateral I'm carrying at risk. Unmodifiable. */
+	public List<LendingEntry> getCollateral()
+	{
+		refresh();
+		return collateral;
+	}
+
+	/** Total value of {@link #getBorrowed()}. */
+	public long getBorrowedValue()
+	{
+		refresh();
+		return borrowedValue;
+	}
+
+	/** Nothing loaned is being carried at risk. */
+	public boolean isEmpty()
+	{
+		refresh();
+		return borrowed.isEmpty() && collateral.isEmpty();
+	}
+
+	// --- Internals ---
+
+	private void refresh()
+	{
+		String me = client.getLocalPlayer() != null ? client.getLocalPlayer().getName() : null;
+		if (me == null)
+		{
+			if (derived)
+			{
+				clear();
+			}
+			return;
+		}
+
+		containers.seedCarried();
+		int version = dataService.getEntriesVersion();
+		int generation = containers.getGeneration();
+		if (!derived || !me.equals(player) || version != entriesVersion || generation != containerGeneration)
+		{
+			player = me;
+			entriesVersion = version;
+			containerGeneration = generation;
+			derived = true;
+			// Everything is re-derived below, so the pending per-base changes are moot
+			containers.drainChangedBases(base -> { });
+			riskyBases.clear();
+			dataService.getObligations().forEachOwed(me, (base, owed) ->
+			{
+				if (atRisk(base, owed))
+				{
+					riskyBases.add(base);
+				}
+			});
+			listsStale = true;
+		}
+		else
+		{
+			containers.drainChangedBases(reevaluate);
+		}
+
+		if (listsStale)
+		{
+			rebuildLists(me);
+			listsStale = false;
+		}
+	}
+
+	/** One base's carried or banked total moved: does it still belong in the set? */
+	private void reevaluate(int base)
+	{
+		boolean now = atRisk(base, dataService.getObligations().owed(player, base));
+		if (now != riskyBases.contains(base))
+		{
+			if (now)
+			{
+				riskyBases.add(base);
+			}
+			else
+			{
+				riskyBases.remove(base);
+			}
+			listsStale = true;
+		}
+	}
+
+	/**
+	 * Items are fungible: what matters is never WHICH copy you hold, only that
+	 * you can still cover what you owe. Carrying a base item is AT RISK only when
+	 * the bank no longer covers the TOTAL owed of that base across ALL open
+	 * obligations (items I borrowed plus collateral I hold) — so someone with a
+	 * spare in the bank can freely carry their own copy, but one banked spare can
+	 * never vouch for two debts at once. Bank contents are only known after the
+	 * bank has been opened this session; until then banked counts as 0.
+	 */
+	private boolean atRisk(int base, int owed)
+	{
+		if (owed <= 0 || containers.carriedQty(base) <= 0)
+		{
+			return false;
+		}
+		int banked = containers.isBankKnown() ? containers.bankQty(base) : 0;
+		return banked < owed;
+	}
+
+	private void rebuildLists(String me)
+	{
+		if (riskyBases.isEmpty())
+		{
+			borrowed = Collections.emptyList();
+			collateral = Collections.emptyList();
+			borrowedValue = 0;
+			return;
+		}
+
+		List<LendingEntry> nextBorrowed = new ArrayList<>();
+		List<LendingEntry> nextCollateral = new ArrayList<>();
+		long value = 0;
+		ObligationsLedger obligations = dataService.getObligations();
+		for (LendingEntry e : dataService.getActiveEntries())
+		{
+			if (me.equalsIgnoreCase(e.getBorrower()) && e.outstandingLentQty() > 0
+				&& riskyBases.contains(ItemBases.base(e.getItemId())))
+			{
+				nextBorrowed.add(e);
+				value += e.getValue();
+			}
+			if (me.equalsIgnoreCase(e.getLender()))
+			{
+				for (int base : obligations.heldCollateralBases(e.getId()))
+				{
+					if (riskyBases.contains(base))
+					{
+						nextCollateral.add(e);
+						break;
+					}
+				}
+			}
+		}
+		borrowed = Collections.unmodifiableList(nextBorrowed);
+		collateral = Collections.unmodifiableList(nextCollateral);
+		borrowedValue = value;
+	}
+
+	private void clear()
+	{
+		riskyBases.clear();
+		borrowed = Collections.emptyList();
+		collateral = Collections.emptyList();
+		borrowedValue = 0;
+		player = null;
+		derived = false;
+	}
+}
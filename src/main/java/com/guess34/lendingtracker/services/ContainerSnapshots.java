@@ -0,0 +1,241 @@
+package com.guess34.lendingtracker.services;
+
+import com.guess34.lendingtracker.util.IntIntMap;
+import com.guess34.lendingtracker.util.IntSet;
+import com.guess34.lendingtracker.util.ItemBases;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import net.runelite.api.Client;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.gameval.InventoryID;
+
+/**
+ * ContainerSnapshots - per-variation-base quantity totals for the bank and for
+ * what the player carries (inventory + worn), kept current from
+ * ItemContainerChanged.
+ *
+ * The last item array of each container is kept as plain id/qty arrays. On a
+ * change only the slots that differ touch the totals, so depositing one item
+ * into a full bank is a single subtract/add rather than a rebuild, and guard
+ * checks read the totals instead of walking containers.
+ *
+ * Bases whose totals moved are collected until a reader drains them (see
+ * AtRiskSet), so anything derived from the totals can be updated per base.
+ *
+ * Client thread only, like the events that feed it.
+ */
+@Singleton
+public class ContainerSnapshots
+{
+	private static final int[] NO_SLOTS = new int[0];
+
+	/** Last-seen contents of one container. */
+	private static final class Snapshot
+	{
+		final int containerId;
+		final IntIntMap totals;
+		int[] ids = NO_SLOTS;
+		int[] qtys = NO_SLOTS;
+		boolean known;
+
+		Snapshot(int containerId, IntIntMap totals)
+		{
+			this.containerId = containerId;
+			this.totals = totals;
+		}
+	}
+
+	@Inject private Client client;
+
+	private final IntIntMap bankByBase = new IntIntMap();
+	// Inventory and worn share one total: the guards only ask "am I carrying it"
+	private final IntIntMap carriedByBase = new IntIntMap();
+
+	private final Snapshot bank = new Snapshot(InventoryID.BANK, bankByBase);
+	private final Snapshot inventory = new Snapshot(InventoryID.INV, carriedByBase);
+	private final Snapshot worn = new Snapshot(InventoryID.WORN, carriedByBase);
+
+	// Bases whose bank or carried total changed since the last drain
+	private final IntSet changedBases = new IntSet();
+	// Bumped when the totals change wholesale (reset, or the bank first seen),
+	// telling readers to re-derive everything rather than drain
+	private int generation;
+
+	/** Is this one of the containers tracked here? */
+	public boolean isTracked(int containerId)
+	{
+		return snapshotFor(containerId) != null;
+	}
+
+	/** A tracked container changed: fold the slots that differ into the totals. */
+	public void onContainerChanged(int containerId, Item[] items)
+	{
+		Snapshot snap = snapshotFor(containerId);
+		if (snap != null)
+		{
+			apply(snap, items);
+		}
+	}
+
+	/**
+	 * Bank contents are only known after the bank has been opened this session;
+	 * until then callers should treat banked quantities as 0.
+	 */
+	public boolean isBankKnown()
+	{
+		return bank.known;
+	}
+
+	/** Banked quantity of this variation base (0 until the bank has been seen). */
+	public int bankQty(int baseId)
+	{
+		return bankByBase.get(baseId);
+	}
+
+	/** Carried (inventory + worn) quantity of this variation base. */
+	public int carriedQty(int baseId)
+	{
+		seedCarried();
+		return carriedByBase.get(baseId);
+	}
+
+	/**
+	 * Inventory and equipment only fire ItemContainerChanged when they change,
+	 * so a plugin started mid-session seeds them from the live containers.
+	 */
+	public void seedCarried()
+	{
+		seed(inventory);
+		seed(worn);
+	}
+
+	/** Changes whenever per-base draining isn't enough: a reset, or the bank first seen. */
+	public int getGeneration()
+	{
+		return generation;
+	}
+
+	/** Hand every base whose totals changed since the last drain to action, then forget them. */
+	public void drainChangedBases(IntConsumer action)
+	{
+		if (!changedBases.isEmpty())
+		{
+			changedBases.forEach(action);
+			changedBases.clear();
+		}
+	}
+
+	/**
+	 * Forget everything. Called on logout so one account's bank can never vouch
+	 * for another's collateral; guards fall back to cautious until this
+	 * (possibly different) account opens its own bank.
+	 */
+	public void reset()
+	{
+		for (Snapshot snap : new Snapshot[] { bank, inventory, worn })
+		{
+			snap.ids = NO_SLOTS;
+			snap.qtys = NO_SLOTS;
+			snap.known = false;
+		}
+		bankByBase.clear();
+		carriedByBase.clear();
+		changedBases.clear();
+		generation++;
+	}
+
+	// --- Internals ---
+
+	private Snapshot snapshotFor(int containerId)
+	{
+		if (containerId == InventoryID.BANK)
+		{
+			return bank;
+		}
+		if (containerId == InventoryID.INV)
+		{
+			return inventory;
+		}
+		if (containerId == InventoryID.WORN)
+		{
+			return worn;
+		}
+		return null;
+	}
+
+	private void seed(Snapshot snap)
+	{
+		if (!snap.known)
+		{
+			ItemContainer container = client.getItemContainer(snap.containerId);
+			apply(snap, container != null ? container.getItems() : null);
+		}
+	}
+
+	/**
+	 * Diff the new item array against the snapshot slot by slot. A slot that
+	 * changed takes its old item out of the totals and puts its new one in; a
+	 * slot that didn't is skipped. Arrays of a different length (the bank grows
+	 * and shrinks) treat the missing slots as empty.
+	 */
+	private void apply(Snapshot snap, Item[] items)
+	{
+		if (snap == bank && !bank.known)
+		{
+			generation++;
+		}
+		int[] oldIds = snap.ids;
+		int[] oldQtys = snap.qtys;
+		int n = items != null ? items.length : 0;
+		int[] ids = oldIds;
+		int[] qtys = oldQtys;
+		if (n != oldIds.length)
+		{
+			ids = Arrays.copyOf(oldIds, n);
+			qtys = Arrays.copyOf(oldQtys, n);
+			if (n > oldIds.length)
+			{
+				Arrays.fill(ids, oldIds.length, n, -1);
+			}
+		}
+
+		IntIntMap totals = snap.totals;
+		int slots = Math.max(n, oldIds.length);
+		for (int i = 0; i < slots; i++)
+		{
+			int oldId = i < oldIds.length ? oldIds[i] : -1;
+			int oldQty = i < oldQtys.length ? oldQtys[i] : 0;
+			Item item = i < n ? items[i] : null;
+			int newId = item != null ? item.getId() : -1;
+			int newQty = item != null ? item.getQuantity() : 0;
+			if (oldId == newId && oldQty == newQty)
+			{
+				continue;
+			}
+			if (oldId > 0)
+			{
+				int base = ItemBases.base(oldId);
+				totals.add(base, -oldQty);
+				changedBases.add(base);
+			}
+			if (newId > 0)
+			{
+				int base = ItemBases.base(newId);
+				totals.add(base, newQty);
+				changedBases.add(base);
+			}
+			if (i < n)
+			{
+				ids[i] = newId;
+				qtys[i] = newQty;
+			}
+		}
+
+		snap.ids = ids;
+		snap.qtys = qtys;
+		snap.known = true;
+	}
+}
@@ -7,6 +7,7 @@ import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.inject.Inject;
@@ -16,6 +17,7 @@ import net.runelite.client.config.ConfigManager;
 import com.guess34.lendingtracker.model.ItemSet;
 import com.guess34.lendingtracker.model.LendingEntry;
 import com.guess34.lendingtracker.model.LendingRequest;
+import com.guess34.lendingtracker.model.LookingForRequest;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -46,11 +48,36 @@ public class DataService
 
 	// Global entries storage (all entries regardless of group)
 	private final Map<String, LendingEntry> allEntries = new ConcurrentHashMap<>();
+	// Per-player owed totals over allEntries. Every write to allEntries goes
+	// through putEntry/removeEntry (or reindexEntries) so they never drift apart.
+	private final ObligationsLedger obligations = new ObligationsLedger();
+	// Active entries by the two players on them (see pairKey), so a trade with
+	// one partner reads just their loans instead of filtering every entry.
+	// Guarded by its own monitor; pairOfEntry remembers each entry's bucket.
+	private final Map<String, Map<String, LendingEntry>> entriesByPair = new HashMap<>();
+	private final Map<String, String> pairOfEntry = new HashMap<>();
+	// Bumped on every change to the active entries, for readers that cache
+	// something derived from them (see getEntriesVersion). Bumped from the
+	// client thread, the EDT and the executor alike, so the increment is atomic.
+	private final AtomicInteger entriesVersion = new AtomicInteger();
 	private final List<LendingEntry> historyEntries = new CopyOnWriteArrayList<>();
+	// historyEntries in display order, with filter lookups. Every write to
+	// historyEntries goes through archive() or is followed by reindexHistory().
+	private final HistoryIndex historyIndex = new HistoryIndex();
 
 	// Direct lending requests (borrow requests / lend offers): groupId -> requests
 	private final Map<String, List<LendingRequest>> groupRequests = new ConcurrentHashMap<>();
 
+	// "Looking For" posts: groupId -> post id -> post, removal tombstones included.
+	// Each group's live posts in posting order are cached in lookingForViews and
+	// dropped on any change to that group's posts, local or synced. A view is
+	// built, published and dropped only under its group's post map monitor, so a
+	// view built from the old posts can't be published over a change.
+	private final Map<String, Map<String, LookingForRequest>> groupLookingFor = new ConcurrentHashMap<>();
+	private final Map<String, List<LookingForRequest>> lookingForViews = new ConcurrentHashMap<>();
+	// Groups already checked this session for posts in the old per-post config keys
+	private final Set<String> lookingForMigrated = ConcurrentHashMap.newKeySet();
+
 	// Delisting tombstones: groupId -> "lender:itemId" -> when it was removed.
 	//
 	// A removal used to be communicated only by ABSENCE from the snapshot, and
@@ -94,6 +121,23 @@ public class DataService
 
 	private boolean initialized = false;
 
+	// The batch open on this thread, if any. While one is open, persist(),
+	// saveEntries() and publish() only record what they would have done; the
+	// outermost batch() call then does each of them once.
+	private final ThreadLocal<Batch> activeBatch = new ThreadLocal<>();
+
+	/** Deferred writes and events collected while a batch is open. */
+	private static final class Batch
+	{
+		int depth;
+		final Set<String> dirtyGroups = new LinkedHashSet<>();
+		boolean entriesDirty;
+		// Returns are published one per entry: receivers apply them by id.
+		final List<GroupService.SyncEvent> returned = new ArrayList<>();
+		// Everything else just tells receivers to reload, so one per type does.
+		final Map<GroupService.SyncEventType, String> coalesced = new LinkedHashMap<>();
+	}
+
 	public DataService()
 	{
 		// For @Inject usage
@@ -112,6 +156,94 @@ public class DataService
 		initialized = true;
 	}
 
+	/**
+	 * Apply several mutations as one change. Every DataService call made inside tx
+	 * (on this thread) runs as usual against memory, but the config writes and
+	 * relay publishes they would each trigger are deferred: when tx returns, each
+	 * dirtied group is persisted once, entries are saved once, and the collected
+	 * events go out in one publish with one state push. Nested batches join the
+	 * outermost one.
+	 *
+	 * There is no rollback. If tx throws, the changes it already made are still
+	 * flushed, since they are already live in memory.
+	 */
+	public void batch(String groupId, java.util.function.Consumer<DataService> tx)
+	{
+		Batch b = activeBatch.get();
+		if (b == null)
+		{
+			b = new Batch();
+			activeBatch.set(b);
+		}
+		if (b.depth == 0 && groupId != null && !hydratedGroups.contains(groupId))
+		{
+			// Same guard persist() applies, taken up front so reads inside tx see
+			// what's on disk.
+			loadGroupData(groupId);
+		}
+		b.depth++;
+		try
+		{
+			tx.accept(this);
+		}
+		finally
+		{
+			if (--b.depth == 0)
+			{
+				activeBatch.remove();
+				flushBatch(b);
+			}
+		}
+	}
+
+	private void flushBatch(Batch b)
+	{
+		for (String groupId : b.dirtyGroups)
+		{
+			persist(groupId, "batch");
+		}
+		if (b.entriesDirty)
+		{
+			saveEntries();
+		}
+		if (groupService == null || (b.returned.isEmpty() && b.coalesced.isEmpty()))
+		{
+			return;
+		}
+		List<GroupService.SyncEvent> events = new ArrayList<>(b.returned);
+		for (Map.Entry<GroupService.SyncEventType, String> e : b.coalesced.entrySet())
+		{
+			GroupService.SyncEvent event = new GroupService.SyncEvent();
+			event.setType(e.getKey());
+			event.setDataId(e.getValue());
+			events.add(event);
+		}
+		groupService.publishEvents(events);
+	}
+
+	/** Publish a change now, or record it for the open batch. */
+	private void publish(GroupService.SyncEventType type, String dataId, Object data)
+	{
+		if (groupService == null) return;
+		Batch b = activeBatch.get();
+		if (b == null)
+		{
+			groupService.publishEvent(type, dataId, data);
+			return;
+		}
+		if (type == GroupService.SyncEventType.ITEM_RETURNED)
+		{
+			GroupService.SyncEvent event = new GroupService.SyncEvent();
+			event.setType(type);
+			event.setDataId(dataId);
+			b.returned.add(event);
+		}
+		else
+		{
+			b.coalesced.put(type, dataId);
+		}
+	}
+
 	/**
 	 * Flatten a group's nested map (owner -> entries) into a single list.
 	 * Returns an empty list if the group has no data.
@@ -168,7 +300,7 @@ public class DataService
 
 		if (groupService != null)
 		{
-			groupService.publishEvent(
+			publish(
 				alreadyExists ? GroupService.SyncEventType.ITEM_UPDATED : GroupService.SyncEventType.ITEM_ADDED,
 				entry.getId() != null ? entry.getId() : String.valueOf(entry.getItemId()),
 				entry
@@ -220,7 +352,7 @@ public class DataService
 
 				if (groupService != null)
 				{
-					groupService.publishEvent(
+					publish(
 						GroupService.SyncEventType.ITEM_REMOVED,
 						itemName + "_" + itemId,
 						null
@@ -251,7 +383,7 @@ public class DataService
 
 						if (groupService != null)
 						{
-							groupService.publishEvent(
+							publish(
 								GroupService.SyncEventType.ITEM_UPDATED,
 								updatedEntry.getId() != null ? updatedEntry.getId() : String.valueOf(itemId),
 								updatedEntry
@@ -348,7 +480,7 @@ public class DataService
 				persist(groupId, "available");
 				if (groupService != null)
 				{
-					groupService.publishEvent(
+					publish(
 						GroupService.SyncEventType.ITEM_REMOVED,
 						groupId + ":" + lenderName,
 						null
@@ -434,7 +566,7 @@ public class DataService
 		entry.setReturnedAt(0);
 		entry.setUpdatedAt(System.currentTimeMillis());
 
-		allEntries.put(entry.getId(), entry);
+		putEntry(entry);
 
 		groupLent.computeIfAbsent(groupId, k -> new ConcurrentHashMap<>())
 			.computeIfAbsent(lender, k -> new CopyOnWriteArrayList<>())
@@ -451,7 +583,7 @@ public class DataService
 
 		if (groupService != null)
 		{
-			groupService.publishEvent(
+			publish(
 				GroupService.SyncEventType.ITEM_ADDED,
 				entry.getId(),
 				entry
@@ -479,7 +611,7 @@ public class DataService
 
 		if (groupService != null)
 		{
-			groupService.publishEvent(
+			publish(
 				GroupService.SyncEventType.REQUEST_CREATED,
 				request.getId(),
 				request
@@ -510,7 +642,7 @@ public class DataService
 
 				if (groupService != null)
 				{
-					groupService.publishEvent(
+					publish(
 						GroupService.SyncEventType.REQUEST_UPDATED,
 						requestId,
 						r
@@ -585,6 +717,204 @@ public class DataService
 		return removed;
 	}
 
+	// "Looking For" posts
+
+	/**
+	 * A group's live "Looking For" posts, oldest first. Served from a cache that
+	 * any change to the group's posts drops, so repeated reads cost nothing.
+	 * Unmodifiable; treat the posts as read-only and save a copy to edit.
+	 */
+	public List<LookingForRequest> getLookingForRequests(String groupId)
+	{
+		if (groupId == null || groupId.isEmpty())
+		{
+			return Collections.emptyList();
+		}
+		List<LookingForRequest> view = lookingForViews.get(groupId);
+		if (view != null)
+		{
+			return view;
+		}
+		Map<String, LookingForRequest> posts = groupLookingFor.get(groupId);
+		if (posts == null)
+		{
+			return Collections.emptyList();
+		}
+		synchronized (posts)
+		{
+			view = lookingForViews.get(groupId);
+			if (view != null)
+			{
+				return view;
+			}
+			List<LookingForRequest> live = new ArrayList<>();
+			for (LookingForRequest post : posts.values())
+			{
+				if (!post.isRemoved())
+				{
+					live.add(post);
+				}
+			}
+			live.sort(Comparator.comparingLong(LookingForRequest::getPostedTime)
+				.thenComparing(LookingForRequest::getId));
+			view = Collections.unmodifiableList(live);
+			// Not if the group was deleted meanwhile; its view would outlive it
+			if (groupLookingFor.get(groupId) == posts)
+			{
+				lookingForViews.put(groupId, view);
+			}
+			return view;
+		}
+	}
+
+	/** Add or replace (same id) a post and sync it to the group. */
+	public void saveLookingForRequest(String groupId, LookingForRequest request)
+	{
+		if (groupId == null || request == null || request.getId() == null)
+		{
+			return;
+		}
+		request.setGroupId(groupId);
+		if (request.getPostedTime() == 0)
+		{
+			request.setPostedTime(System.currentTimeMillis());
+		}
+		request.setUpdatedAt(System.currentTimeMillis());
+		Map<String, LookingForRequest> posts = groupLookingFor.computeIfAbsent(groupId, k -> new LinkedHashMap<>());
+		synchronized (posts)
+		{
+			posts.put(request.getId(), request);
+			lookingForViews.remove(groupId);
+		}
+		lookingForChanged(groupId, request.getId());
+	}
+
+	/** Remove a post, leaving a tombstone so peers drop it too. */
+	public void removeLookingForRequest(String groupId, String requestId)
+	{
+		Map<String, LookingForRequest> posts = groupId != null ? groupLookingFor.get(groupId) : null;
+		if (posts == null || requestId == null)
+		{
+			return;
+		}
+		synchronized (posts)
+		{
+			LookingForRequest post = posts.get(requestId);
+			if (post == null || post.isRemoved())
+			{
+				return;
+			}
+			LookingForRequest tombstone = new LookingForRequest();
+			tombstone.setId(requestId);
+			tombstone.setGroupId(groupId);
+			tombstone.setRequesterName(post.getRequesterName());
+			tombstone.setPostedTime(post.getPostedTime());
+			tombstone.setRemoved(true);
+			tombstone.setUpdatedAt(System.currentTimeMillis());
+			posts.put(requestId, tombstone);
+			lookingForViews.remove(groupId);
+		}
+		lookingForChanged(groupId, requestId);
+	}
+
+	/** Posts changed and their view dropped (under the posts monitor): save and sync. */
+	private void lookingForChanged(String groupId, String requestId)
+	{
+		persist(groupId, "lookingfor");
+		// Peers treat any request event as "reload the group", which picks the
+		// post up from the pushed snapshot
+		publish(GroupService.SyncEventType.REQUEST_UPDATED, requestId, null);
+	}
+
+	/** Merge posts from a snapshot (union by id, newest update wins, tombstones included). */
+	private void mergeLookingFor(String groupId, Object rawPosts)
+	{
+		if (!(rawPosts instanceof List))
+		{
+			return;
+		}
+		Map<String, LookingForRequest> posts = groupLookingFor.computeIfAbsent(groupId, k -> new LinkedHashMap<>());
+		boolean changed = false;
+		synchronized (posts)
+		{
+			for (Object raw : (List<?>) rawPosts)
+			{
+				LookingForRequest remote = gson.fromJson(gson.toJson(raw), LookingForRequest.class);
+				if (remote == null || remote.getId() == null)
+				{
+					continue;
+				}
+				if (remote.getItems() == null)
+				{
+					remote.setItems(new ArrayList<>());
+				}
+				LookingForRequest local = posts.get(remote.getId());
+				if (local == null || remote.getUpdatedAt() > local.getUpdatedAt())
+				{
+					remote.setGroupId(groupId);
+					posts.put(remote.getId(), remote);
+					changed = true;
+				}
+			}
+			if (changed)
+			{
+				lookingForViews.remove(groupId);
+			}
+		}
+	}
+
+	/**
+	 * One-time import of posts kept the old way: an id list under
+	 * lookingForIds.{group} and one config key per post. Moved into the group
+	 * snapshot and the old keys removed, so this reads them at most once.
+	 */
+	private void migrateLegacyLookingFor(String groupId)
+	{
+		if (!lookingForMigrated.add(groupId))
+		{
+			return;
+		}
+		String idsKey = "lookingForIds." + groupId;
+		String ids = configManager.getConfiguration(CONFIG_GROUP, idsKey);
+		if (ids == null)
+		{
+			return;
+		}
+		Map<String, LookingForRequest> posts = groupLookingFor.computeIfAbsent(groupId, k -> new LinkedHashMap<>());
+		int imported = 0;
+		// A set: configs from before the upsert fix hold repeated ids
+		for (String rawId : new LinkedHashSet<>(Arrays.asList(ids.split(","))))
+		{
+			String id = rawId.trim();
+			if (id.isEmpty())
+			{
+				continue;
+			}
+			String postKey = "lookingFor." + groupId + "." + id;
+			String data = configManager.getConfiguration(CONFIG_GROUP, postKey);
+			LookingForRequest post = data != null && !data.isEmpty() ? LookingForRequest.parseLegacy(id, data) : null;
+			if (post != null)
+			{
+				post.setGroupId(groupId);
+				synchronized (posts)
+				{
+					if (posts.putIfAbsent(id, post) == null)
+					{
+						imported++;
+						lookingForViews.remove(groupId);
+					}
+				}
+			}
+			configManager.unsetConfiguration(CONFIG_GROUP, postKey);
+		}
+		configManager.unsetConfiguration(CONFIG_GROUP, idsKey);
+		if (imported > 0)
+		{
+			log.debug("Moved {} Looking For posts for group {} into the group snapshot", imported, groupId);
+			persist(groupId, "lookingfor");
+		}
+	}
+
 	// Getters for lent/borrowed/available lists
 
 	public List<LendingEntry> getLent(String groupId)
@@ -607,11 +937,11 @@ public class DataService
 		}
 
 		entry.setUpdatedAt(System.currentTimeMillis());
-		allEntries.put(entry.getId(), new LendingEntry(entry));
+		putEntry(new LendingEntry(entry));
 		saveEntries();
 		if (groupService != null && entry.getGroupId() != null)
 		{
-			groupService.publishEvent(
+			publish(
 				GroupService.SyncEventType.ITEM_ADDED,
 				entry.getId(),
 				entry
@@ -632,10 +962,122 @@ public class DataService
 		{
 			return;
 		}
-		allEntries.put(entry.getId(), new LendingEntry(entry));
+		putEntry(new LendingEntry(entry));
 		saveEntries();
 	}
 
+	/** Write an active entry and bring the obligations ledger and pair index up to date with it. */
+	private void putEntry(LendingEntry entry)
+	{
+		allEntries.put(entry.getId(), entry);
+		obligations.upsert(entry);
+		entriesVersion.incrementAndGet();
+		synchronized (entriesByPair)
+		{
+			indexPair(entry);
+		}
+	}
+
+	/** Drop an active entry and everything indexed from it. Returns the removed entry, or null. */
+	private LendingEntry removeEntry(String entryId)
+	{
+		LendingEntry removed = allEntries.remove(entryId);
+		obligations.remove(entryId);
+		entriesVersion.incrementAndGet();
+		synchronized (entriesByPair)
+		{
+			unindexPair(entryId);
+		}
+		return removed;
+	}
+
+	/** Rebuild the ledger and pair index from allEntries, after a bulk load or purge. */
+	private void reindexEntries()
+	{
+		obligations.rebuild(allEntries.values());
+		entriesVersion.incrementAndGet();
+		synchronized (entriesByPair)
+		{
+			entriesByPair.clear();
+			pairOfEntry.clear();
+			for (LendingEntry entry : allEntries.values())
+			{
+				indexPair(entry);
+			}
+		}
+	}
+
+	/** Order-independent key for the two players on a loan. */
+	private static String pairKey(String a, String b)
+	{
+		String x = a == null ? "" : a.toLowerCase();
+		String y = b == null ? "" : b.toLowerCase();
+		return x.compareTo(y) <= 0 ? x + '\n' + y : y + '\n' + x;
+	}
+
+	// indexPair/unindexPair: caller holds the entriesByPair monitor
+	private void indexPair(LendingEntry entry)
+	{
+		unindexPair(entry.getId());
+		String key = pairKey(entry.getLender(), entry.getBorrower());
+		pairOfEntry.put(entry.getId(), key);
+		entriesByPair.computeIfAbsent(key, k -> new HashMap<>()).put(entry.getId(), entry);
+	}
+
+	private void unindexPair(String entryId)
+	{
+		String key = pairOfEntry.remove(entryId);
+		Map<String, LendingEntry> bucket = key != null ? entriesByPair.get(key) : null;
+		if (bucket != null)
+		{
+			bucket.remove(entryId);
+			if (bucket.isEmpty())
+			{
+				entriesByPair.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Active loans between these two players, in either direction. Reads one
+	 * bucket of the pair index, so the cost follows how many loans the two of
+	 * them share rather than how many are open across the group.
+	 */
+	public List<LendingEntry> getActiveEntriesBetween(String a, String b)
+	{
+		List<LendingEntry> result = new ArrayList<>();
+		synchronized (entriesByPair)
+		{
+			Map<String, LendingEntry> bucket = entriesByPair.get(pairKey(a, b));
+			if (bucket != null)
+			{
+				for (LendingEntry e : bucket.values())
+				{
+					if (!e.isReturned())
+					{
+						result.add(e);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Changes whenever an active entry is added, replaced, removed or settled in
+	 * place, so a cache built from the entries knows when to rebuild.
+	 */
+	public int getEntriesVersion()
+	{
+		return entriesVersion.get();
+	}
+
+	/** Running owed-by-base totals over the active entries. */
+	public ObligationsLedger getObligations()
+	{
+		return obligations;
+	}
+
 	public List<LendingEntry> getActiveEntries()
 	{
 		return allEntries.values().stream()
@@ -648,6 +1090,25 @@ public class DataService
 		return new ArrayList<>(historyEntries);
 	}
 
+	/** The archived entries sorted newest first, for paged and filtered reads. */
+	public HistoryIndex getHistoryIndex()
+	{
+		return historyIndex;
+	}
+
+	/** Add an entry to history, keeping the index in step. */
+	private void archive(LendingEntry entry)
+	{
+		historyEntries.add(entry);
+		historyIndex.add(entry);
+	}
+
+	/** Re-sort the history index after a bulk change to historyEntries. */
+	private void reindexHistory()
+	{
+		historyIndex.reset(historyEntries);
+	}
+
 	/**
 	 * Loans in this group that still owe something in either direction and that
 	 * the named player is a party to — as lender or borrower.
@@ -717,7 +1178,7 @@ public class DataService
 			saveEntries();
 			if (groupService != null)
 			{
-				groupService.publishEvent(GroupService.SyncEventType.ITEM_UPDATED,
+				publish(GroupService.SyncEventType.ITEM_UPDATED,
 					groupId + ":requests", null);
 			}
 		}
@@ -804,6 +1265,7 @@ public class DataService
 		int removed = sizeBefore - historyEntries.size();
 		if (removed > 0)
 		{
+			reindexHistory();
 			saveEntries();
 		}
 		return removed;
@@ -830,7 +1292,7 @@ public class DataService
 			return;
 		}
 		entry.setUpdatedAt(System.currentTimeMillis());
-		allEntries.put(entry.getId(), entry);
+		putEntry(entry);
 		saveEntries();
 		if (entry.getGroupId() != null)
 		{
@@ -838,7 +1300,7 @@ public class DataService
 		}
 		if (groupService != null && entry.getGroupId() != null)
 		{
-			groupService.publishEvent(
+			publish(
 				GroupService.SyncEventType.ITEM_UPDATED,
 				entry.getId(),
 				entry
@@ -857,10 +1319,10 @@ public class DataService
 			}
 			entry.setUpdatedAt(System.currentTimeMillis());
 			entry.markSettled();
-		historyEntries.add(new LendingEntry(entry));
+		archive(new LendingEntry(entry));
 			if (returned)
 			{
-				allEntries.remove(entryId);
+				removeEntry(entryId);
 				// Drop it from the group lists too, the way forgiveLoan and the staff
 				// removal path already do. Left behind, the row kept being published
 				// as an active loan, and after a restart it no longer shared an object
@@ -876,10 +1338,16 @@ public class DataService
 					persist(entry.getGroupId(), "returned");
 				}
 			}
+			else
+			{
+				// Settled but kept: it no longer owes anything
+				obligations.upsert(entry);
+				entriesVersion.incrementAndGet();
+			}
 			saveEntries();
 			if (groupService != null && entry.getGroupId() != null)
 			{
-				groupService.publishEvent(
+				publish(
 					GroupService.SyncEventType.ITEM_RETURNED,
 					entryId,
 					entry
@@ -918,8 +1386,8 @@ public class DataService
 			? stamp : entry.getNotes() + " " + stamp);
 
 		entry.markSettled();
-		historyEntries.add(new LendingEntry(entry));
-		allEntries.remove(entryId);
+		archive(new LendingEntry(entry));
+		removeEntry(entryId);
 		removeEntryFromCategory(groupLent, entryId);
 		removeEntryFromCategory(groupBorrowed, entryId);
 		// The group lists only reach config via persist() — saveEntries() covers
@@ -933,7 +1401,7 @@ public class DataService
 
 		if (groupService != null && entry.getGroupId() != null)
 		{
-			groupService.publishEvent(GroupService.SyncEventType.ITEM_RETURNED, entryId, entry);
+			publish(GroupService.SyncEventType.ITEM_RETURNED, entryId, entry);
 		}
 		return true;
 	}
@@ -971,8 +1439,8 @@ public class DataService
 			? auditStamp : entry.getNotes() + " " + auditStamp);
 
 		entry.markSettled();
-		historyEntries.add(new LendingEntry(entry));
-		allEntries.remove(entryId);
+		archive(new LendingEntry(entry));
+		removeEntry(entryId);
 		removeEntryFromCategory(groupLent, entryId);
 		removeEntryFromCategory(groupBorrowed, entryId);
 		// The group lists only reach config via persist() — saveEntries() covers
@@ -986,7 +1454,7 @@ public class DataService
 
 		if (groupService != null && entry.getGroupId() != null)
 		{
-			groupService.publishEvent(GroupService.SyncEventType.ITEM_RETURNED, entryId, entry);
+			publish(GroupService.SyncEventType.ITEM_RETURNED, entryId, entry);
 		}
 		return true;
 	}
@@ -1142,6 +1610,10 @@ public class DataService
 		historyEntries.removeIf(entry ->
 			entry.isReturned() && entry.getReturnedAt() < cutoffTime
 		);
+		if (historyEntries.size() != histSizeBefore)
+		{
+			reindexHistory();
+		}
 		deletedCount += histSizeBefore - historyEntries.size();
 
 		if (deletedCount > 0)
@@ -1174,8 +1646,18 @@ public class DataService
 		// borrowed-item guards keep firing and overdue alerts keep arriving for a group
 		// that no longer exists anywhere in the UI.
 		allEntries.values().removeIf(e -> e != null && groupId.equals(e.getGroupId()));
+		reindexEntries();
 		historyEntries.removeIf(e -> e != null && groupId.equals(e.getGroupId()));
+		reindexHistory();
 		groupRequests.remove(groupId);
+		Map<String, LookingForRequest> posts = groupLookingFor.remove(groupId);
+		if (posts != null)
+		{
+			synchronized (posts)
+			{
+				lookingForViews.remove(groupId);
+			}
+		}
 		removedListings.remove(groupId);
 		// Forget that we read this group's file, so rejoining reads it fresh
 		// instead of writing our now-empty maps over whatever is there.
@@ -1184,7 +1666,7 @@ public class DataService
 		configManager.unsetConfiguration(CONFIG_GROUP, KEY_PREFIX + groupId);
 		if (groupService != null)
 		{
-			groupService.publishEvent(
+			publish(
 				GroupService.SyncEventType.ITEM_REMOVED,
 				groupId,
 				null
@@ -1192,7 +1674,43 @@ public class DataService
 		}
 	}
 
-	// Item Sets (minimal -- load and clear only)
+	// Item Sets
+
+	/** The group's item sets, as loaded from config. Empty if none. */
+	public List<ItemSet> getItemSets(String groupId)
+	{
+		Map<String, ItemSet> sets = groupId != null ? groupItemSets.get(groupId) : null;
+		return sets != null ? new ArrayList<>(sets.values()) : Collections.emptyList();
+	}
+
+	/**
+	 * Record the pieces of an ItemSet lent in one trade as a grouped set loan.
+	 * This is not a separate aggregate record: each piece is an ordinary entry
+	 * with its own running tally (so partial returns work as for any loan),
+	 * stamped with a shared setLoanId and the set name. Whatever holds the
+	 * trade's collateral should be the first piece.
+	 *
+	 * Callers recording a whole trade should do so inside {@link #batch}, so the
+	 * pieces cost one persist and one publish like the rest of the trade.
+	 *
+	 * @return the set loan id shared by the pieces
+	 */
+	public String addSetLoan(String groupId, String lender, String borrower, ItemSet set,
+		List<LendingEntry> pieces, long dueTime)
+	{
+		if (set == null || pieces == null || pieces.isEmpty())
+		{
+			throw new IllegalArgumentException("Invalid set loan parameters");
+		}
+		String setLoanId = UUID.randomUUID().toString();
+		for (LendingEntry piece : pieces)
+		{
+			piece.setSetLoanId(setLoanId);
+			piece.setSetName(set.getName());
+			addLoan(groupId, lender, borrower, piece, dueTime);
+		}
+		return setLoanId;
+	}
 
 	private void loadItemSetsForGroup(String groupId)
 	{
@@ -1237,7 +1755,7 @@ public class DataService
 
 		if (groupService != null)
 		{
-			groupService.publishEvent(
+			publish(
 				GroupService.SyncEventType.ITEM_SET_DELETED,
 				groupId,
 				null
@@ -1262,6 +1780,12 @@ public class DataService
 	private void persist(String groupId, String kind)
 	{
 		if (groupId == null || groupId.isEmpty()) return;
+		Batch b = activeBatch.get();
+		if (b != null)
+		{
+			b.dirtyGroups.add(groupId);
+			return;
+		}
 		if (!hydratedGroups.contains(groupId))
 		{
 			// Read what's on disk before writing over it. loadGroupData marks the
@@ -1281,8 +1805,9 @@ public class DataService
 	private static final long RETURNED_TOMBSTONE_MS = 30L * 86400000L;
 
 	// Snapshot format version. 1 = the original keys; 2 adds removedListings and
-	// cancelled-request tombstones. Bump when the SHAPE changes, not the contents.
-	private static final int SNAPSHOT_VERSION = 2;
+	// cancelled-request tombstones; 3 adds lookingFor. Bump when the SHAPE
+	// changes, not the contents.
+	private static final int SNAPSHOT_VERSION = 3;
 
 	private String buildGroupSnapshotJson(String groupId)
 	{
@@ -1325,6 +1850,19 @@ public class DataService
 		}
 		snapshot.put("removedListings", live);
 
+		// "Looking For" posts, with removal tombstones for the same 30-day window
+		List<LookingForRequest> lookingFor = new ArrayList<>();
+		Map<String, LookingForRequest> posts = groupLookingFor.get(groupId);
+		if (posts != null)
+		{
+			synchronized (posts)
+			{
+				posts.values().removeIf(p -> p.isRemoved() && p.getUpdatedAt() <= cutoff);
+				lookingFor.addAll(posts.values());
+			}
+		}
+		snapshot.put("lookingFor", lookingFor);
+
 		// Snapshot format version. Old clients ignore it; from here on a reader can
 		// tell what a payload is expected to contain instead of guessing.
 		snapshot.put("v", SNAPSHOT_VERSION);
@@ -1413,6 +1951,7 @@ public class DataService
 			// members who were offline when the loan came back.
 			applyReturnedTombstones(snapshot.get("returnedIds"));
 			applyRemovedListings(groupId, snapshot.get("removedListings"));
+			mergeLookingFor(groupId, snapshot.get("lookingFor"));
 
 			// Persist the reconciled state locally so it survives a restart.
 			persist(groupId, "sync");
@@ -1635,10 +2174,10 @@ public class DataService
 				// returned loan reintroduces the never-settles condition on a client
 				// that already migrated.
 				remote.markSettled();
-				historyEntries.add(remote);
+				archive(remote);
 				changed = true;
 			}
-			if (allEntries.remove(remote.getId()) != null)
+			if (removeEntry(remote.getId()) != null)
 			{
 				changed = true;
 			}
@@ -1653,7 +2192,7 @@ public class DataService
 		LendingEntry local = allEntries.get(remote.getId());
 		if (local == null || remote.getUpdatedAt() > local.getUpdatedAt())
 		{
-			allEntries.put(remote.getId(), remote);
+			putEntry(remote);
 			return true;
 		}
 		return false;
@@ -1797,7 +2336,7 @@ public class DataService
 			return false;
 		}
 
-		LendingEntry entry = allEntries.remove(entryId);
+		LendingEntry entry = removeEntry(entryId);
 		removeEntryFromCategory(groupLent, entryId);
 		removeEntryFromCategory(groupBorrowed, entryId);
 
@@ -1814,7 +2353,7 @@ public class DataService
 				entry.setReturnedAt(Instant.now().toEpochMilli());
 			}
 			entry.markSettled();
-		historyEntries.add(new LendingEntry(entry));
+		archive(new LendingEntry(entry));
 		}
 		return true;
 	}
@@ -1859,6 +2398,7 @@ public class DataService
 				loadGroupEntries(getCategory(snapshot, "borrowed"), groupId, groupBorrowed);
 				mergeRequests(groupId, snapshot.get("requests"), false);
 				mergeActiveEntries(groupId, snapshot.get("entries"));
+				mergeLookingFor(groupId, snapshot.get("lookingFor"));
 				// Tombstones have to come back with everything else. Held only in
 				// memory they died on every logout, which made the 30-day window
 				// really "until you next close the client" - and a client that has
@@ -1879,6 +2419,7 @@ public class DataService
 			}
 		}
 
+		migrateLegacyLookingFor(groupId);
 		loadItemSetsForGroup(groupId);
 	}
 
@@ -1966,6 +2507,7 @@ public class DataService
 				if (loaded != null)
 				{
 					allEntries.putAll(loaded);
+					reindexEntries();
 				}
 			}
 
@@ -1977,6 +2519,7 @@ public class DataService
 				if (loaded != null)
 				{
 					historyEntries.addAll(loaded);
+					reindexHistory();
 					// One-time migration. Builds before markSettled archived partially
 					// returned loans with their tallies intact, so isFullySettled() stayed
 					// false forever - and getUnsettledFor would refuse to let those members
@@ -2012,6 +2555,12 @@ public class DataService
 
 	private void saveEntries()
 	{
+		Batch b = activeBatch.get();
+		if (b != null)
+		{
+			b.entriesDirty = true;
+			return;
+		}
 		try
 		{
 			configManager.setConfiguration(CONFIG_GROUP, ENTRIES_KEY, gson.toJson(allEntries));
@@ -86,14 +86,18 @@ public class GroupService
 
 	// One catch-up retry chain at a time. pollForUpdates ticks every 5 seconds
 	// and would otherwise start a fresh 6-attempt chain on each tick whenever we
-	// aren't caught up — hundreds of overlapping blocking REST calls piling onto
-	// the single sync thread during a relay outage. Ownership is a token, not a
+	// aren't caught up — hundreds of overlapping REST calls piling onto
+	// the relay during an outage. Ownership is a token, not a
 	// boolean: a stale chain waking from a 90-second fetch may only release its
 	// OWN claim, never one a newer chain holds.
 	private final java.util.concurrent.atomic.AtomicLong catchUpOwner =
 		new java.util.concurrent.atomic.AtomicLong(0);
 	private final java.util.concurrent.atomic.AtomicLong catchUpTokens =
 		new java.util.concurrent.atomic.AtomicLong(0);
+	// The catch-up fetch currently on the wire, if any. Cancelled whenever the
+	// connection epoch moves (or sync stops), so a request that started on a dead
+	// connection is torn down instead of running out its 90-second timeout.
+	private volatile CompletableFuture<Boolean> catchUpFetch;
 
 	// Bumped every time the relay connection drops. A catch-up whose fetch began
 	// on an older connection must not mark us reconciled: peers can have changed
@@ -106,10 +110,11 @@ public class GroupService
 	// The relay knows exactly which members hold an open websocket to the group's
 	// room and broadcasts that list; a member is online iff they are in it, with no
 	// friends-list relationship required. Keyed by lower-cased name -> world (0 if
-	// unknown). Held as a single volatile reference to an immutable map and swapped
-	// WHOLESALE, so the Swing EDT (which reads it while building the roster) always
-	// sees a complete map — never a half-updated one mid clear()/putAll().
-	private volatile Map<String, Integer> relayPresence = java.util.Collections.emptyMap();
+	// unknown). A concurrent index rather than a swapped immutable map: join, leave
+	// and world-hop deltas update one key in O(1), and the Swing EDT reads single
+	// keys (or a weakly consistent iteration) without locking. The periodic full
+	// presence list reconciles it key by key, never via clear()/putAll().
+	private final Map<String, Integer> relayPresence = new ConcurrentHashMap<>();
 
 	// --- Initialization & Account Lifecycle ---
 
@@ -256,8 +261,11 @@ public class GroupService
 		if (doomed != null && self != null && doomed.hasMember(self))
 		{
 			if (!canPublishRemoval(id)) return false;
-			dataService.removeItemsForLender(id, self);
-			dataService.removeRequestsInvolving(id, self);
+			dataService.batch(id, tx ->
+			{
+				tx.removeItemsForLender(id, self);
+				tx.removeRequestsInvolving(id, self);
+			});
 			doomed.getMembers().removeIf(m -> m.getName().equalsIgnoreCase(self));
 			doomed.recordRemoval(self);
 			touchRoster(doomed);
@@ -1675,7 +1683,7 @@ public class GroupService
 			relaySyncService.joinRoom(groupId, playerName, syncSecret);
 
 			// Pull the authoritative catch-up snapshot off the caller's thread
-			// (blocking REST call). Retries with backoff so a Render cold-start
+			// (async REST call). Retries with backoff so a Render cold-start
 			// (30-60s wake) or a transient failure doesn't mean "no catch-up until
 			// relog" — offline deletions/returns would otherwise never arrive.
 			scheduleCatchUpFetch(groupId);
@@ -1694,7 +1702,7 @@ public class GroupService
 		{
 			// A chain is already in flight; it (or the 5-second poll rescue after
 			// it releases) will get us caught up. Starting another would stack
-			// blocking fetches on the single sync thread.
+			// overlapping fetches against a relay that is already struggling.
 			return;
 		}
 		scheduleCatchUpAttempt(groupId, 0, 0, token, connectionEpoch.get());
@@ -1712,75 +1720,30 @@ public class GroupService
 		{
 			exec.schedule(() ->
 			{
-				// The finally releases our claim on every exit — including an
-				// unexpected throw, which would otherwise wedge the flag and leave
-				// the publish gate closed for the rest of the session. The one path
-				// that must NOT release is a scheduled retry: the chain lives on.
-				boolean chainContinues = false;
+				// The sync target may have changed while we waited (group switch),
+				// or the connection may have cycled — a chain sleeping through a
+				// backoff wakes up obsolete. Check before spending a fetch.
+				if (!groupId.equals(currentSyncGroupId) || epoch != connectionEpoch.get())
+				{
+					catchUpOwner.compareAndSet(token, 0L);
+					return;
+				}
+				// The fetch is enqueued, not executed: the sync thread goes straight
+				// back to polling while a cold-start relay takes its 30-60s to answer.
+				// Only the apply step and the continuation below come back onto it.
+				CompletableFuture<Boolean> fetch;
 				try
 				{
-					// The sync target may have changed while we waited (group switch),
-					// or the connection may have cycled — a chain sleeping through a
-					// backoff wakes up obsolete. Check before spending a fetch.
-					if (!groupId.equals(currentSyncGroupId) || epoch != connectionEpoch.get()) return;
-					boolean done = relaySyncService.fetchStateSnapshot(groupId);
-					// Re-check AFTER the fetch too: it blocks for up to 90s (Render
-					// cold start) — ample time for a group switch, a stopSync, or a
-					// connection drop. A stale task must not mark the old group caught
-					// up, and a fetch that started before a drop must not vouch for
-					// the record after the reconnect: peers may have changed it during
-					// the outage.
-					if (exec != syncExecutor || !groupId.equals(currentSyncGroupId)
-						|| epoch != connectionEpoch.get())
-					{
-						return;
-					}
-					if (done)
-					{
-						// Reconciled with the stored record — or the relay definitively
-						// has nothing usable for this group (no record, or one whose
-						// signature we reject). Both make publishing safe: overwriting a
-						// record we refused to APPLY isn't a rollback, it replaces
-						// unusable data with our signed state.
-						caughtUpGroupId = groupId;
-						// The check above and this write aren't atomic against a drop on
-						// the ws thread. Re-read the epoch and take the marker back if it
-						// moved, so a snapshot read before the drop can't vouch for the
-						// record after it.
-						if (epoch != connectionEpoch.get())
-						{
-							caughtUpGroupId = null;
-							return;
-						}
-						// Now push our own view, which the gate suppressed until this
-						// point. This is what carries changes made while we were offline
-						// up to the relay, and it replaces the unconditional push that
-						// used to run on reconnect before we knew what we were
-						// overwriting.
-						pushStateToRelay(groupId);
-					}
-					else if (attempt + 1 < CATCH_UP_RETRY_DELAYS_MS.length)
-					{
-						chainContinues = true;
-						scheduleCatchUpAttempt(groupId, attempt + 1,
-							CATCH_UP_RETRY_DELAYS_MS[attempt + 1], token, epoch);
-					}
-					else
-					{
-						// Still not reconciled. We stay silent rather than publish
-						// blind — pollForUpdates starts a fresh chain, so a relay that
-						// comes back later heals without needing a relog.
-						log.warn("Catch-up fetch for group {} failed after {} attempts; "
-							+ "not publishing until reconciled", groupId, attempt + 1);
-					}
+					fetch = relaySyncService.fetchStateSnapshotAsync(groupId, exec);
 				}
-				finally
+				catch (RuntimeException e)
 				{
-					if (!chainContinues)
-					{
-						catchUpOwner.compareAndSet(token, 0L);
-					}
+					catchUpOwner.compareAndSet(token, 0L);
+					throw e;
 				}
+				catchUpFetch = fetch;
+				fetch.whenComplete((done, err) ->
+					onCatchUpFetched(groupId, attempt, token, epoch, exec, fetch, done, err));
 			}, delayMs, TimeUnit.MILLISECONDS);
 		}
 		catch (java.util.concurrent.RejectedExecutionException ignored)
@@ -1790,18 +1753,112 @@ public class GroupService
 		}
 	}
 
+	/**
+	 * Continuation of one catch-up attempt. Runs on the sync executor once the
+	 * snapshot has been applied, or on whichever thread cancelled the fetch.
+	 */
+	private void onCatchUpFetched(String groupId, int attempt, long token, long epoch,
+		ScheduledExecutorService exec, CompletableFuture<Boolean> fetch, Boolean done, Throwable err)
+	{
+		if (catchUpFetch == fetch)
+		{
+			catchUpFetch = null;
+		}
+		// The finally releases our claim on every exit — including an unexpected
+		// throw, which would otherwise wedge the flag and leave the publish gate
+		// closed for the rest of the session. The one path that must NOT release
+		// is a scheduled retry: the chain lives on.
+		boolean chainContinues = false;
+		try
+		{
+			if (err != null)
+			{
+				// Cancelled by an epoch change or stopSync, or the apply was
+				// rejected by a shut-down executor. Whoever cancelled us starts
+				// the next chain.
+				return;
+			}
+			// Re-check AFTER the fetch too: it can take up to 90s (Render cold
+			// start) — ample time for a group switch, a stopSync, or a connection
+			// drop. A stale attempt must not mark the old group caught up, and a
+			// fetch that started before a drop must not vouch for the record after
+			// the reconnect: peers may have changed it during the outage.
+			if (exec != syncExecutor || !groupId.equals(currentSyncGroupId)
+				|| epoch != connectionEpoch.get())
+			{
+				return;
+			}
+			if (Boolean.TRUE.equals(done))
+			{
+				// Reconciled with the stored record — or the relay definitively
+				// has nothing usable for this group (no record, or one whose
+				// signature we reject). Both make publishing safe: overwriting a
+				// record we refused to APPLY isn't a rollback, it replaces
+				// unusable data with our signed state.
+				caughtUpGroupId = groupId;
+				// The check above and this write aren't atomic against a drop on
+				// the ws thread. Re-read the epoch and take the marker back if it
+				// moved, so a snapshot read before the drop can't vouch for the
+				// record after it.
+				if (epoch != connectionEpoch.get())
+				{
+					caughtUpGroupId = null;
+					return;
+				}
+				// Now push our own view, which the gate suppressed until this
+				// point. This is what carries changes made while we were offline
+				// up to the relay, and it replaces the unconditional push that
+				// used to run on reconnect before we knew what we were
+				// overwriting.
+				pushStateToRelay(groupId);
+			}
+			else if (attempt + 1 < CATCH_UP_RETRY_DELAYS_MS.length)
+			{
+				chainContinues = true;
+				scheduleCatchUpAttempt(groupId, attempt + 1,
+					CATCH_UP_RETRY_DELAYS_MS[attempt + 1], token, epoch);
+			}
+			else
+			{
+				// Still not reconciled. We stay silent rather than publish
+				// blind — pollForUpdates starts a fresh chain, so a relay that
+				// comes back later heals without needing a relog.
+				log.warn("Catch-up fetch for group {} failed after {} attempts; "
+					+ "not publishing until reconciled", groupId, attempt + 1);
+			}
+		}
+		finally
+		{
+			if (!chainContinues)
+			{
+				catchUpOwner.compareAndSet(token, 0L);
+			}
+		}
+	}
+
+	/** Tear down the in-flight catch-up request, if any. Its chain releases its claim. */
+	private void cancelCatchUpFetch()
+	{
+		CompletableFuture<Boolean> fetch = catchUpFetch;
+		if (fetch != null)
+		{
+			fetch.cancel(true);
+		}
+	}
+
 	public void stopSync()
 	{
 		if (syncExecutor != null && !syncExecutor.isShutdown())
 		{
 			// shutdownNow() only — never wait here. stopSync runs from the plugin's
 			// shutDown(), and blocking there stalls the client's whole plugin
-			// teardown. A catch-up fetch can hold a socket read for up to 90s, so
-			// awaiting it was a real stall, not a theoretical one. Tasks that
+			// teardown. The in-flight catch-up fetch is cancelled below rather than
+			// awaited. Tasks that
 			// survive the interrupt are harmless: each re-checks the sync target,
 			// the connection epoch and the executor identity before acting.
 			syncExecutor.shutdownNow();
 		}
+		cancelCatchUpFetch();
 		// Disconnect relay
 		if (relaySyncService != null)
 		{
@@ -1829,6 +1886,7 @@ public class GroupService
 	{
 		caughtUpGroupId = null;
 		connectionEpoch.incrementAndGet();
+		cancelCatchUpFetch();
 	}
 
 	/**
@@ -1849,6 +1907,7 @@ public class GroupService
 		// must not vouch for the record either. Chains started below capture the
 		// new epoch and are unaffected.
 		connectionEpoch.incrementAndGet();
+		cancelCatchUpFetch();
 		// Hand the claim to the fresh chain. A chain from the old connection may be
 		// asleep in a backoff of up to 160s, and waiting for it to wake and notice
 		// would hold every publish back that whole time. It can't corrupt anything
@@ -1883,22 +1942,44 @@ public class GroupService
 
 	/**
 	 * Apply an authoritative presence snapshot from the relay: the exact set of
-	 * members currently connected to the room (lower-cased name -> world). Replaces
-	 * the previous set wholesale, so a member who logged off drops out immediately.
-	 * Returns true if the online set actually changed (so the caller can skip a
-	 * needless roster repaint on an identical snapshot).
+	 * members currently connected to the room (lower-cased name -> world). Members
+	 * missing from it are dropped, so a logoff whose delta was lost still clears on
+	 * the next full sync. Returns true if the online set actually changed (so the
+	 * caller can skip a needless roster repaint on an identical snapshot).
 	 */
 	public boolean handlePresence(java.util.Map<String, Integer> present)
 	{
-		java.util.Map<String, Integer> next = (present == null || present.isEmpty())
-			? java.util.Collections.emptyMap()
-			: java.util.Collections.unmodifiableMap(new java.util.HashMap<>(present));
-		if (relayPresence.equals(next))
+		java.util.Map<String, Integer> next = present != null ? present : java.util.Collections.emptyMap();
+		boolean changed = relayPresence.keySet().retainAll(next.keySet());
+		for (java.util.Map.Entry<String, Integer> e : next.entrySet())
+		{
+			int world = e.getValue() != null ? e.getValue() : 0;
+			Integer prev = relayPresence.put(e.getKey(), world);
+			if (prev == null || prev != world)
+			{
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Apply a single presence delta from the relay: one member joining, leaving or
+	 * hopping worlds. O(1) regardless of group size. Returns true if the index
+	 * changed, so the caller only repaints that member's roster row when it did.
+	 */
+	public boolean applyPresenceDelta(String nameLower, int world, boolean online)
+	{
+		if (nameLower == null || nameLower.isEmpty())
 		{
 			return false;
 		}
-		relayPresence = next; // single volatile reference swap — readers see old or new, never torn
-		return true;
+		if (!online)
+		{
+			return relayPresence.remove(nameLower) != null;
+		}
+		Integer prev = relayPresence.put(nameLower, world);
+		return prev == null || prev != world;
 	}
 
 	/**
@@ -1911,17 +1992,24 @@ public class GroupService
 		{
 			return false;
 		}
-		relayPresence = java.util.Collections.emptyMap();
+		relayPresence.clear();
 		return true;
 	}
 
 	/**
 	 * Members the relay reports as online right now, lower-cased name -> world
 	 * (0 = world unknown). The roster shows everyone here with a green dot.
+	 * Read-only live view of the presence index.
 	 */
 	public java.util.Map<String, Integer> getOnlineMembers()
 	{
-		return relayPresence; // already an immutable snapshot reference
+		return java.util.Collections.unmodifiableMap(relayPresence);
+	}
+
+	/** Relay-reported world for one member, 0 if world unknown, null if not online. */
+	public Integer getPresenceWorld(String nameLower)
+	{
+		return nameLower != null ? relayPresence.get(nameLower) : null;
 	}
 
 	/**
@@ -1991,6 +2079,56 @@ public class GroupService
 		}
 	}
 
+	/**
+	 * Publish several data changes as one. Every event is appended to the local
+	 * queue in a single config write and sent over the relay, followed by ONE
+	 * full-state push, so a multi-row change costs one snapshot build instead of
+	 * one per row. Callers set type and dataId; timestamp and publisher are
+	 * stamped here. Used by DataService.batch.
+	 */
+	public void publishEvents(List<SyncEvent> events)
+	{
+		if (currentSyncGroupId == null || currentSyncPlayerName == null
+			|| events == null || events.isEmpty())
+		{
+			return;
+		}
+
+		long now = System.currentTimeMillis();
+		boolean groupStateChanged = false;
+		for (SyncEvent event : events)
+		{
+			event.setTimestamp(now);
+			event.setPublisher(currentSyncPlayerName);
+			groupStateChanged |= event.getType() == SyncEventType.MEMBER_JOINED
+				|| event.getType() == SyncEventType.MEMBER_LEFT
+				|| event.getType() == SyncEventType.SETTINGS_CHANGED;
+		}
+
+		String key = SYNC_KEY_PREFIX + currentSyncGroupId + SYNC_EVENTS_SUFFIX;
+		List<SyncEvent> queue = loadEventsFromQueue();
+		queue.addAll(events);
+		while (queue.size() > MAX_SYNC_EVENTS)
+		{
+			queue.remove(0);
+		}
+		configManager.setConfiguration(CFG_GROUP, key, gson.toJson(queue));
+
+		if (relaySyncService != null && relaySyncService.isConnected())
+		{
+			for (SyncEvent event : events)
+			{
+				relaySyncService.sendEvent(currentSyncGroupId, event);
+			}
+			pushStateToRelay(currentSyncGroupId);
+		}
+
+		if (groupStateChanged)
+		{
+			publishGroupState(currentSyncGroupId);
+		}
+	}
+
 	/**
 	 * Write the full group state to a shared config key so other accounts can read it.
 	 */
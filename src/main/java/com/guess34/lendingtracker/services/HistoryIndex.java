@@ -0,0 +1,358 @@
+package com.guess34.lendingtracker.services;
+
+import com.guess34.lendingtracker.model.LendingEntry;
+import com.guess34.lendingtracker.util.IntList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * The archived loans in display order (newest lend date first), with the
+ * lookups the History tab's quick filters need.
+ *
+ * The History tab used to copy every archived entry and sort the copy on each
+ * refresh, then build a card per entry. DataService now tells the index about
+ * each archived entry as it is added (a binary insertion), so the order is
+ * always current and a refresh reads just the page it shows.
+ *
+ * Partner, item and status filters go through posting lists of positions in
+ * the sorted order, built once per change on the first filtered read: a
+ * filtered page walks the shortest list that applies instead of every entry.
+ * Status depends on the clock for loans archived unreturned (forgiven or
+ * removed), so the status lists only split returned from unreturned; the rest
+ * of the distinction is made per candidate at read time.
+ *
+ * Bulk changes (loading, pruning, clearing a group) re-sort from scratch.
+ */
+public final class HistoryIndex
+{
+	/** How an archived loan ended, as the History tab badges it. */
+	public enum Status
+	{
+		RETURNED("Returned"),
+		ACTIVE("Active"),
+		OVERDUE("Overdue"),
+		DEFAULTED("Defaulted");
+
+		private final String label;
+
+		Status(String label)
+		{
+			this.label = label;
+		}
+
+		public String getLabel()
+		{
+			return label;
+		}
+
+		@Override
+		public String toString()
+		{
+			return label;
+		}
+	}
+
+	/** Overdue by more than this many whole days and an unreturned loan counts as defaulted. */
+	public static final int DEFAULTED_AFTER_DAYS = 30;
+
+	/** Quick-filter criteria. A null field matches everything. */
+	public static final class Filter
+	{
+		public static final Filter NONE = new Filter(null, null, null);
+
+		private final String partner;
+		private final String item;
+		private final Status status;
+
+		/** Partner and item are matched whole and case-insensitively. */
+		public Filter(String partner, String item, Status status)
+		{
+			this.partner = lower(partner);
+			this.item = lower(item);
+			this.status = status;
+		}
+
+		public boolean isEmpty()
+		{
+			return partner == null && item == null && status == null;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (!(o instanceof Filter))
+			{
+				return false;
+			}
+			Filter other = (Filter) o;
+			return Objects.equals(partner, other.partner)
+				&& Objects.equals(item, other.item)
+				&& status == other.status;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(partner, item, status);
+		}
+	}
+
+	/** One page of matches, plus how many match in all. */
+	public static final class Page
+	{
+		private final List<LendingEntry> entries;
+		private final int total;
+
+		Page(List<LendingEntry> entries, int total)
+		{
+			this.entries = entries;
+			this.total = total;
+		}
+
+		/** The page's entries, newest lend date first. Unmodifiable. */
+		public List<LendingEntry> getEntries() { return entries; }
+		public int getTotal() { return total; }
+	}
+
+	// Newest lend date first, then by id so the order is total
+	private static final Comparator<LendingEntry> ORDER = Comparator
+		.comparingLong(LendingEntry::getLendDate).reversed()
+		.thenComparing(e -> e.getId() != null ? e.getId() : "");
+
+	private final List<LendingEntry> sorted = new ArrayList<>();
+	private int generation;
+
+	// Postings over positions in sorted, built lazily; null when stale
+	private Map<String, int[]> byPartner;
+	private Map<String, int[]> byItem;
+	private Map<Boolean, int[]> byReturned;
+	private List<String> partners;
+	private List<String> items;
+
+	// --- Updates (DataService only) ---
+
+	/** Insert one newly archived entry in order. */
+	synchronized void add(LendingEntry entry)
+	{
+		if (entry == null)
+		{
+			return;
+		}
+		int slot = Collections.binarySearch(sorted, entry, ORDER);
+		sorted.add(slot < 0 ? -slot - 1 : slot, entry);
+		changed();
+	}
+
+	/** Replace the contents, after a load or a bulk removal. */
+	synchronized void reset(Collection<LendingEntry> entries)
+	{
+		sorted.clear();
+		for (LendingEntry entry : entries)
+		{
+			if (entry != null)
+			{
+				sorted.add(entry);
+			}
+		}
+		sorted.sort(ORDER);
+		changed();
+	}
+
+	private void changed()
+	{
+		generation++;
+		byPartner = null;
+		byItem = null;
+		byReturned = null;
+		partners = null;
+		items = null;
+	}
+
+	// --- Reads ---
+
+	/** Changes whenever the contents do. */
+	public synchronized int getGeneration()
+	{
+		return generation;
+	}
+
+	public synchronized int size()
+	{
+		return sorted.size();
+	}
+
+	/**
+	 * Up to limit entries matching the filter, skipping the first offset
+	 * matches, newest lend date first.
+	 */
+	public synchronized Page page(Filter filter, int offset, int limit)
+	{
+		offset = Math.max(0, offset);
+		limit = Math.max(0, limit);
+		if (filter == null || filter.isEmpty())
+		{
+			int from = Math.min(offset, sorted.size());
+			int to = Math.min(sorted.size(), from + limit);
+			return new Page(Collections.unmodifiableList(new ArrayList<>(sorted.subList(from, to))), sorted.size());
+		}
+
+		ensurePostings();
+		int[] candidates = null;
+		if (filter.partner != null)
+		{
+			candidates = shorter(candidates, byPartner.getOrDefault(filter.partner, NO_POSITIONS));
+		}
+		if (filter.item != null)
+		{
+			candidates = shorter(candidates, byItem.getOrDefault(filter.item, NO_POSITIONS));
+		}
+		if (filter.status != null)
+		{
+			candidates = shorter(candidates, byReturned.get(filter.status == Status.RETURNED));
+		}
+
+		long now = System.currentTimeMillis();
+		List<LendingEntry> out = new ArrayList<>(Math.min(limit, candidates.length));
+		int total = 0;
+		for (int pos : candidates)
+		{
+			LendingEntry entry = sorted.get(pos);
+			if (!matches(entry, filter, now))
+			{
+				continue;
+			}
+			if (total >= offset && out.size() < limit)
+			{
+				out.add(entry);
+			}
+			total++;
+		}
+		return new Page(Collections.unmodifiableList(out), total);
+	}
+
+	/** Everyone named on an archived loan, in display case, sorted. */
+	public synchronized List<String> getPartners()
+	{
+		ensurePostings();
+		return partners;
+	}
+
+	/** Every item name on an archived loan, sorted. */
+	public synchronized List<String> getItems()
+	{
+		ensurePostings();
+		return items;
+	}
+
+	/** The badge status of an archived loan at the given time. */
+	public static Status statusOf(LendingEntry entry, long now)
+	{
+		if (entry.getReturnedAt() > 0)
+		{
+			return Status.RETURNED;
+		}
+		if (entry.isOverdue())
+		{
+			long daysSinceDue = (now - entry.getDueDate()) / (24 * 60 * 60 * 1000);
+			return daysSinceDue > DEFAULTED_AFTER_DAYS ? Status.DEFAULTED : Status.OVERDUE;
+		}
+		return Status.ACTIVE;
+	}
+
+	private static boolean matches(LendingEntry entry, Filter filter, long now)
+	{
+		return (filter.partner == null
+				|| filter.partner.equals(lower(entry.getLender()))
+				|| filter.partner.equals(lower(entry.getBorrower())))
+			&& (filter.item == null || filter.item.equals(lower(entry.getItem())))
+			&& (filter.status == null || filter.status == statusOf(entry, now));
+	}
+
+	private static final int[] NO_POSITIONS = new int[0];
+
+	private static int[] shorter(int[] current, int[] next)
+	{
+		return current == null || next.length < current.length ? next : current;
+	}
+
+	/** Build the postings for the current contents, if a change dropped them. */
+	private void ensurePostings()
+	{
+		if (byPartner != null)
+		{
+			return;
+		}
+		Map<String, IntList> partnerLists = new HashMap<>();
+		Map<String, IntList> itemLists = new HashMap<>();
+		IntList returned = new IntList();
+		IntList unreturned = new IntList();
+		// First spelling seen wins for display
+		Map<String, String> partnerNames = new HashMap<>();
+		Map<String, String> itemNames = new HashMap<>();
+
+		for (int pos = 0; pos < sorted.size(); pos++)
+		{
+			LendingEntry entry = sorted.get(pos);
+			for (String name : new String[]{entry.getLender(), entry.getBorrower()})
+			{
+				String key = lower(name);
+				if (key != null)
+				{
+					partnerLists.computeIfAbsent(key, k -> new IntList()).addIfNotLast(pos);
+					partnerNames.putIfAbsent(key, name.trim());
+				}
+			}
+			String itemKey = lower(entry.getItem());
+			if (itemKey != null)
+			{
+				itemLists.computeIfAbsent(itemKey, k -> new IntList()).addIfNotLast(pos);
+				itemNames.putIfAbsent(itemKey, entry.getItem().trim());
+			}
+			(entry.getReturnedAt() > 0 ? returned : unreturned).addIfNotLast(pos);
+		}
+
+		byPartner = toArrays(partnerLists);
+		byItem = toArrays(itemLists);
+		byReturned = new HashMap<>();
+		byReturned.put(true, returned.toArray());
+		byReturned.put(false, unreturned.toArray());
+		partners = sortedNames(partnerNames.values());
+		items = sortedNames(itemNames.values());
+	}
+
+	private static Map<String, int[]> toArrays(Map<String, IntList> lists)
+	{
+		Map<String, int[]> out = new HashMap<>(lists.size() * 2);
+		for (Map.Entry<String, IntList> e : lists.entrySet())
+		{
+			out.put(e.getKey(), e.getValue().toArray());
+		}
+		return out;
+	}
+
+	private static List<String> sortedNames(Collection<String> names)
+	{
+		TreeSet<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		set.addAll(names);
+		return Collections.unmodifiableList(new ArrayList<>(set));
+	}
+
+	private static String lower(String s)
+	{
+		if (s == null)
+		{
+			return null;
+		}
+		String t = s.trim();
+		return t.isEmpty() ? null : t.toLowerCase(Locale.ROOT);
+	}
+}
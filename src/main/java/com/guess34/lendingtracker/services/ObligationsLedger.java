@@ -0,0 +1,259 @@
+package com.guess34.lendingtracker.services;
+
+import com.guess34.lendingtracker.model.LendingEntry;
+import com.guess34.lendingtracker.util.IntIntMap;
+import com.guess34.lendingtracker.util.ItemBases;
+import com.guess34.lendingtracker.util.IntSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running totals of what every player owes, by variation-base item id.
+ *
+ * The wilderness guards and the trade-away check used to rebuild these totals
+ * from every active entry (re-parsing each collateral string) on every click.
+ * DataService now tells the ledger about each change to its active entries, so
+ * a guard check is a couple of array lookups however many loans are open.
+ *
+ * Two kinds of debt are counted, matching the guards' rules:
+ *   - a borrower owes the lender the outstanding lent quantity;
+ *   - a lender owes the borrower the outstanding item-collateral.
+ * {@link #owed} sums both. {@link #borrowedBasesFrom} covers only the first,
+ * per lender, because that is what marks an offered item as a return.
+ *
+ * Each entry's last contribution is kept as plain arrays, so an update or
+ * removal subtracts exactly what was added even when the LendingEntry object
+ * itself was changed in place beforehand.
+ */
+public final class ObligationsLedger
+{
+	/** One entry's debt: debtor owes creditor qtys[i] of bases[i]. */
+	private static final class Share
+	{
+		final String debtor;
+		final String creditor;
+		final boolean borrowed;
+		final int[] bases;
+		final int[] qtys;
+
+		Share(String debtor, String creditor, boolean borrowed, int[] bases, int[] qtys)
+		{
+			this.debtor = debtor;
+			this.creditor = creditor;
+			this.borrowed = borrowed;
+			this.bases = bases;
+			this.qtys = qtys;
+		}
+	}
+
+	private static final Share[] NO_SHARES = new Share[0];
+
+	// entry id -> what it currently adds to the totals below
+	private final Map<String, Share[]> sharesByEntry = new HashMap<>();
+	// debtor -> base id -> total owed, both kinds
+	private final Map<String, IntIntMap> owedByPlayer = new HashMap<>();
+	// borrower -> lender -> base id -> lent quantity still held
+	private final Map<String, Map<String, IntIntMap>> borrowedByPartner = new HashMap<>();
+
+	// --- Updates (DataService only) ---
+
+	/** Record the entry's current state, replacing whatever it contributed before. */
+	synchronized void upsert(LendingEntry entry)
+	{
+		if (entry == null || entry.getId() == null)
+		{
+			return;
+		}
+		Share[] next = sharesOf(entry);
+		Share[] prev = next.length == 0
+			? sharesByEntry.remove(entry.getId())
+			: sharesByEntry.put(entry.getId(), next);
+		apply(prev, -1);
+		apply(next, 1);
+	}
+
+	/** Forget the entry. */
+	synchronized void remove(String entryId)
+	{
+		if (entryId != null)
+		{
+			apply(sharesByEntry.remove(entryId), -1);
+		}
+	}
+
+	/** Start over from a full set of entries. Used after bulk loads and purges. */
+	synchronized void rebuild(Collection<LendingEntry> entries)
+	{
+		sharesByEntry.clear();
+		owedByPlayer.clear();
+		borrowedByPartner.clear();
+		for (LendingEntry e : entries)
+		{
+			upsert(e);
+		}
+	}
+
+	// --- Queries ---
+
+	/** Total of this base the player owes across all open loans, both kinds. */
+	public synchronized int owed(String player, int baseId)
+	{
+		IntIntMap owed = owedByPlayer.get(key(player));
+		return owed == null ? 0 : owed.get(baseId);
+	}
+
+	/** Visit every base the player owes anything of, with the total owed. */
+	public synchronized void forEachOwed(String player, IntIntMap.IntIntConsumer action)
+	{
+		IntIntMap owed = owedByPlayer.get(key(player));
+		if (owed != null)
+		{
+			owed.forEach(action);
+		}
+	}
+
+	/** Base ids the borrower still holds from this lender. Empty when none. */
+	public synchronized IntSet borrowedBasesFrom(String borrower, String lender)
+	{
+		IntSet bases = new IntSet();
+		Map<String, IntIntMap> byLender = borrowedByPartner.get(key(borrower));
+		IntIntMap held = byLender == null ? null : byLender.get(key(lender));
+		if (held != null)
+		{
+			held.forEach((base, qty) -> bases.add(base));
+		}
+		return bases;
+	}
+
+	/**
+	 * Base ids of the item-collateral still held on this entry, deduplicated.
+	 * Empty once the collateral has gone home or the entry is closed.
+	 */
+	public synchronized int[] heldCollateralBases(String entryId)
+	{
+		Share[] shares = sharesByEntry.get(entryId);
+		if (shares != null)
+		{
+			for (Share s : shares)
+			{
+				if (!s.borrowed)
+				{
+					return s.bases;
+				}
+			}
+		}
+		return new int[0];
+	}
+
+	// --- Internals ---
+
+	private static String key(String name)
+	{
+		return name == null ? "" : name.toLowerCase();
+	}
+
+	private static Share[] sharesOf(LendingEntry e)
+	{
+		if (e.isReturned() || e.getLender() == null || e.getBorrower() == null)
+		{
+			return NO_SHARES;
+		}
+		String lender = key(e.getLender());
+		String borrower = key(e.getBorrower());
+
+		Share lent = null;
+		int lentQty = e.outstandingLentQty();
+		if (lentQty > 0)
+		{
+			lent = new Share(borrower, lender, true,
+				new int[] { ItemBases.base(e.getItemId()) }, new int[] { lentQty });
+		}
+
+		Share collateral = collateralShare(lender, borrower, e.outstandingCollateralIds());
+
+		if (lent == null && collateral == null)
+		{
+			return NO_SHARES;
+		}
+		if (lent == null || collateral == null)
+		{
+			return new Share[] { lent != null ? lent : collateral };
+		}
+		return new Share[] { lent, collateral };
+	}
+
+	/** Parse "itemId:qty,..." into one share, merging pairs that map to the same base. */
+	private static Share collateralShare(String lender, String borrower, String raw)
+	{
+		if (raw == null || raw.isEmpty())
+		{
+			return null;
+		}
+		IntIntMap byBase = new IntIntMap();
+		for (String pair : raw.split(","))
+		{
+			try
+			{
+				int idx = pair.indexOf(':');
+				int id = Integer.parseInt(idx > 0 ? pair.substring(0, idx) : pair);
+				int qty = idx > 0 ? Integer.parseInt(pair.substring(idx + 1)) : 1;
+				byBase.add(ItemBases.base(id), Math.max(1, qty));
+			}
+			catch (NumberFormatException ignored)
+			{
+			}
+		}
+		if (byBase.isEmpty())
+		{
+			return null;
+		}
+		int[] bases = new int[byBase.size()];
+		int[] qtys = new int[byBase.size()];
+		int[] n = { 0 };
+		byBase.forEach((base, qty) ->
+		{
+			bases[n[0]] = base;
+			qtys[n[0]] = qty;
+			n[0]++;
+		});
+		return new Share(lender, borrower, false, bases, qtys);
+	}
+
+	private void apply(Share[] shares, int sign)
+	{
+		if (shares == null)
+		{
+			return;
+		}
+		for (Share s : shares)
+		{
+			IntIntMap owed = owedByPlayer.computeIfAbsent(s.debtor, k -> new IntIntMap());
+			IntIntMap byPartner = s.borrowed
+				? borrowedByPartner.computeIfAbsent(s.debtor, k -> new HashMap<>())
+					.computeIfAbsent(s.creditor, k -> new IntIntMap())
+				: null;
+			for (int i = 0; i < s.bases.length; i++)
+			{
+				owed.add(s.bases[i], sign * s.qtys[i]);
+				if (byPartner != null)
+				{
+					byPartner.add(s.bases[i], sign * s.qtys[i]);
+				}
+			}
+			if (owed.isEmpty())
+			{
+				owedByPlayer.remove(s.debtor);
+			}
+			if (byPartner != null && byPartner.isEmpty())
+			{
+				Map<String, IntIntMap> byLender = borrowedByPartner.get(s.debtor);
+				byLender.remove(s.creditor);
+				if (byLender.isEmpty())
+				{
+					borrowedByPartner.remove(s.debtor);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,636 @@
+package com.guess34.lendingtracker.services;
+
+import com.guess34.lendingtracker.model.LendingEntry;
+import com.guess34.lendingtracker.model.LendingGroup;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ProofCatalog - an index of the proof screenshots saved for each user and
+ * group, so a loan's proof can be shown without listing the folder.
+ *
+ * Each proof folder gets an append-only catalog.tsv, one line per saved image:
+ * timestamp, loan id, partner, event, phase, item id, file name and a small
+ * PNG thumbnail (base64). A line is appended as each image is written; a
+ * later line for the same file replaces the earlier one. A folder's catalog is
+ * read once, the first time a card asks about it or before the first append to
+ * it. If the file is missing (an install from before the catalog) it is
+ * rebuilt from the image names alone; those proofs get their thumbnail the
+ * first time one is shown, appended as a new line. A torn last line (crash
+ * mid-append) is skipped.
+ *
+ * All of the catalog's disk work (reads, rebuilds, appends, thumbnails for
+ * rebuilt proof) runs in order on a thread of its own, never on the shared
+ * executor or the encode thread, so a large folder holds up nothing else and
+ * an append can't land between a load reading the file and publishing it.
+ *
+ * Proof taken before a loan's record existed (the popup was still unanswered)
+ * carries no loan id, as does rebuilt proof; it is matched to a loan by
+ * partner, item and time instead, through per-partner lists kept in time order,
+ * so a lookup reads only the proofs near the loan's lend and return times.
+ *
+ * The panels cache what they show; {@link #setOnChanged} tells them when a
+ * folder has loaded or gained a proof, and {@link #getGeneration} lets them
+ * tell whether a cached lookup is still current.
+ */
+@Slf4j
+@Singleton
+public class ProofCatalog
+{
+	static final String CATALOG_FILE = "catalog.tsv";
+	private static final int THUMB_WIDTH = 96;
+	// How far a proof's timestamp may be from the loan's lend or return time
+	// for it to count as that loan's proof when it carries no loan id
+	private static final long MATCH_WINDOW_MS = 5 * 60_000L;
+	// The timestamp ProofScreenshot puts at the end of each file name
+	private static final String NAME_DATE_PATTERN = "yyyy-MM-dd_HH-mm-ss";
+
+	/** One saved proof image. */
+	public static final class Proof
+	{
+		private final long timestamp;
+		private final String loanId;
+		private final String partner;
+		private final String eventType;
+		private final String phase;
+		private final int itemId;
+		private final Path file;
+		// Null for proof rebuilt from a file name, until it is first shown
+		private volatile byte[] thumbnailPng;
+		private volatile BufferedImage thumbnail;
+		private final AtomicBoolean thumbnailRequested = new AtomicBoolean();
+
+		Proof(long timestamp, String loanId, String partner, String eventType, String phase,
+			int itemId, Path file, byte[] thumbnailPng)
+		{
+			this.timestamp = timestamp;
+			this.loanId = loanId;
+			this.partner = partner;
+			this.eventType = eventType;
+			this.phase = phase;
+			this.itemId = itemId;
+			this.file = file;
+			this.thumbnailPng = thumbnailPng;
+		}
+
+		public long getTimestamp() { return timestamp; }
+		public String getEventType() { return eventType; }
+		public String getPhase() { return phase; }
+		public Path getFile() { return file; }
+
+		/** The catalog's thumbnail, decoded on first use; null when there is none (yet). */
+		public BufferedImage getThumbnail()
+		{
+			BufferedImage img = thumbnail;
+			byte[] png = thumbnailPng;
+			if (img == null && png != null && png.length > 0)
+			{
+				try
+				{
+					img = ImageIO.read(new ByteArrayInputStream(png));
+					thumbnail = img;
+				}
+				catch (IOException e)
+				{
+					log.debug("Unreadable proof thumbnail for {}", file.getFileName());
+				}
+			}
+			return img;
+		}
+	}
+
+	/** A folder's catalog in memory. */
+	private static final class FolderIndex
+	{
+		final Map<String, List<Proof>> byLoan = new HashMap<>();
+		// Proof with no loan id, by lower-cased partner, oldest first
+		final Map<String, List<Proof>> unlinkedByPartner = new HashMap<>();
+		final Map<Path, Proof> byFile = new HashMap<>();
+
+		void add(Proof p)
+		{
+			Proof old = byFile.put(p.file, p);
+			if (old != null)
+			{
+				// Recorded again (rebuilt, then appended by its writer): the later one wins
+				listOf(old).remove(old);
+			}
+			if (p.loanId != null && !p.loanId.isEmpty())
+			{
+				byLoan.computeIfAbsent(p.loanId, k -> new ArrayList<>()).add(p);
+				return;
+			}
+			List<Proof> list = listOf(p);
+			// Appends are almost always the newest, so this rarely steps back
+			int at = list.size();
+			while (at > 0 && list.get(at - 1).timestamp > p.timestamp)
+			{
+				at--;
+			}
+			list.add(at, p);
+		}
+
+		private List<Proof> listOf(Proof p)
+		{
+			return p.loanId != null && !p.loanId.isEmpty()
+				? byLoan.computeIfAbsent(p.loanId, k -> new ArrayList<>())
+				: unlinkedByPartner.computeIfAbsent(partnerKey(p.partner), k -> new ArrayList<>());
+		}
+	}
+
+	@Inject
+	private GroupService groupService;
+
+	private final Map<Path, FolderIndex> indexes = new ConcurrentHashMap<>();
+	private final Set<Path> loading = ConcurrentHashMap.newKeySet();
+	// Runs all of the catalog's disk work, one task at a time. Its thread exits
+	// when idle, so shots still encoding at shutdown are catalogued all the same.
+	private ExecutorService worker;
+	// Bumped whenever a folder loads or gains a proof
+	private final AtomicInteger generation = new AtomicInteger();
+	private volatile Runnable onChanged;
+
+	/** Runnable the plugin sets to refresh the panels once proof changes. */
+	public void setOnChanged(Runnable callback)
+	{
+		this.onChanged = callback;
+	}
+
+	/** Changes whenever any lookup's answer may have. */
+	public int getGeneration()
+	{
+		return generation.get();
+	}
+
+	// --- Recording (encode thread) ---
+
+	/**
+	 * An image was written: append it to its folder's catalog. The thumbnail is
+	 * made here, from the image in hand; the append is left to the catalog's
+	 * thread.
+	 */
+	void record(Path file, long timestamp, String loanId, String partner, String eventType,
+		String phase, int itemId, BufferedImage image)
+	{
+		Proof proof = new Proof(timestamp, loanId, partner, eventType, phase, itemId, file, thumbnail(image));
+		submit(() -> append(proof));
+	}
+
+	// Catalog thread
+	private void append(Proof proof)
+	{
+		Path dir = proof.file.getParent();
+		FolderIndex index = indexes.get(dir);
+		if (index == null)
+		{
+			// First write here since startup. Read (or rebuild) what's already in
+			// the folder before appending, or a missing catalog would be started
+			// over with this one line and the older images never rebuilt.
+			index = load(dir);
+			if (index == null)
+			{
+				return; // unreadable: a later load rebuilds it, this image included
+			}
+		}
+		appendLine(dir, proof);
+		synchronized (index)
+		{
+			index.add(proof);
+		}
+		changed();
+	}
+
+	// --- Lookup (any thread; never touches disk) ---
+
+	/**
+	 * Proof saved by the local player in the active group for this loan, newest
+	 * first. Empty while the folder's catalog is still being read.
+	 */
+	public List<Proof> proofFor(LendingEntry entry, String me)
+	{
+		if (entry == null || me == null)
+		{
+			return Collections.emptyList();
+		}
+		LendingGroup group = groupService.getActiveGroup();
+		FolderIndex index = indexFor(ProofScreenshot.screenshotDirectory(me, group != null ? group.getName() : null));
+		if (index == null)
+		{
+			return Collections.emptyList();
+		}
+
+		List<Proof> found = new ArrayList<>();
+		synchronized (index)
+		{
+			List<Proof> byId = entry.getId() != null ? index.byLoan.get(entry.getId()) : null;
+			if (byId != null)
+			{
+				found.addAll(byId);
+			}
+			String counterparty = me.equalsIgnoreCase(entry.getLender()) ? entry.getBorrower() : entry.getLender();
+			List<Proof> unlinked = index.unlinkedByPartner.get(
+				partnerKey(ProofScreenshot.sanitizeFilename(counterparty)));
+			if (unlinked != null)
+			{
+				collectNear(unlinked, entry.getLendDate(), 0, entry.getItemId(), found);
+				// Skipping what the lend window already took
+				collectNear(unlinked, entry.getReturnedAt(), entry.getLendDate(), entry.getItemId(), found);
+			}
+		}
+		found.sort((a, b) -> Long.compare(b.timestamp, a.timestamp));
+		return found;
+	}
+
+	/**
+	 * Newest proof for this loan, or null. A proof rebuilt from its file name
+	 * has no thumbnail yet; asking for it here queues one, and the panels are
+	 * told once it is ready.
+	 */
+	public Proof latestFor(LendingEntry entry, String me)
+	{
+		List<Proof> proofs = proofFor(entry, me);
+		Proof latest = proofs.isEmpty() ? null : proofs.get(0);
+		if (latest != null && latest.thumbnailPng == null && latest.thumbnailRequested.compareAndSet(false, true))
+		{
+			submit(() -> makeThumbnail(latest));
+		}
+		return latest;
+	}
+
+	// --- Internals ---
+
+	/**
+	 * Add the proofs in a time-ordered list taken within the match window of t
+	 * and for this item (or none), except those also near skipNear.
+	 */
+	private static void collectNear(List<Proof> sorted, long t, long skipNear, int itemId, List<Proof> out)
+	{
+		if (t <= 0)
+		{
+			return;
+		}
+		long from = t - MATCH_WINDOW_MS;
+		int lo = 0;
+		int hi = sorted.size();
+		while (lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if (sorted.get(mid).timestamp < from)
+			{
+				lo = mid + 1;
+			}
+			else
+			{
+				hi = mid;
+			}
+		}
+		for (int i = lo; i < sorted.size(); i++)
+		{
+			Proof p = sorted.get(i);
+			if (p.timestamp > t + MATCH_WINDOW_MS)
+			{
+				break;
+			}
+			if ((p.itemId <= 0 || p.itemId == itemId) && !near(p.timestamp, skipNear))
+			{
+				out.add(p);
+			}
+		}
+	}
+
+	private FolderIndex indexFor(Path dir)
+	{
+		FolderIndex index = indexes.get(dir);
+		if (index == null && loading.add(dir))
+		{
+			submit(() ->
+			{
+				try
+				{
+					// An append may have loaded it while this waited
+					if (!indexes.containsKey(dir) && load(dir) != null)
+					{
+						changed();
+					}
+				}
+				finally
+				{
+					loading.remove(dir);
+				}
+			});
+		}
+		return index;
+	}
+
+	private void submit(Runnable task)
+	{
+		try
+		{
+			worker().execute(task);
+		}
+		catch (RejectedExecutionException e)
+		{
+			log.debug("Proof catalog is shut down; task dropped");
+		}
+	}
+
+	private synchronized ExecutorService worker()
+	{
+		if (worker == null)
+		{
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+				r ->
+				{
+					Thread t = new Thread(r, "lending-tracker-proof-catalog");
+					t.setDaemon(true);
+					return t;
+				});
+			pool.allowCoreThreadTimeOut(true);
+			worker = pool;
+		}
+		return worker;
+	}
+
+	/**
+	 * Read a folder's catalog, or rebuild it from the image names, and publish
+	 * the index. Null if it couldn't be read. Catalog thread.
+	 */
+	private FolderIndex load(Path dir)
+	{
+		try
+		{
+			Path catalog = dir.resolve(CATALOG_FILE);
+			FolderIndex index = new FolderIndex();
+			if (Files.exists(catalog))
+			{
+				for (String line : Files.readAllLines(catalog, StandardCharsets.UTF_8))
+				{
+					Proof p = parse(dir, line);
+					if (p != null)
+					{
+						index.add(p);
+					}
+				}
+			}
+			else if (Files.isDirectory(dir))
+			{
+				rebuild(dir, index);
+			}
+			indexes.put(dir, index);
+			return index;
+		}
+		catch (Exception e)
+		{
+			log.warn("Failed to read proof catalog in {}: {}", dir, e.getMessage());
+			return null;
+		}
+	}
+
+	private void changed()
+	{
+		generation.incrementAndGet();
+		Runnable callback = onChanged;
+		if (callback != null)
+		{
+			callback.run();
+		}
+	}
+
+	/**
+	 * Catalog lost or never written: re-derive it from the image names, then
+	 * write it back whole. Only names are read; a thumbnail is made when its
+	 * proof is first shown (see latestFor), so a folder of thousands of images
+	 * costs a directory listing, not thousands of PNG decodes.
+	 */
+	private void rebuild(Path dir, FolderIndex index) throws IOException
+	{
+		SimpleDateFormat format = new SimpleDateFormat(NAME_DATE_PATTERN);
+		List<Proof> found = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.png"))
+		{
+			for (Path file : files)
+			{
+				Proof p = fromFileName(file, format);
+				if (p != null)
+				{
+					found.add(p);
+				}
+			}
+		}
+		found.sort((a, b) -> Long.compare(a.timestamp, b.timestamp));
+
+		StringBuilder sb = new StringBuilder();
+		for (Proof p : found)
+		{
+			index.add(p);
+			sb.append(line(p)).append(System.lineSeparator());
+		}
+		Path tmp = dir.resolve(CATALOG_FILE + ".tmp");
+		Files.write(tmp, sb.toString().getBytes(StandardCharsets.UTF_8));
+		Files.move(tmp, dir.resolve(CATALOG_FILE), StandardCopyOption.REPLACE_EXISTING);
+		log.debug("Rebuilt proof catalog in {} from {} images", dir, found.size());
+	}
+
+	// Catalog thread
+	private void makeThumbnail(Proof proof)
+	{
+		Path dir = proof.file.getParent();
+		FolderIndex index = indexes.get(dir);
+		if (index == null)
+		{
+			return;
+		}
+		synchronized (index)
+		{
+			if (index.byFile.get(proof.file) != proof)
+			{
+				return; // since re-recorded by its writer, thumbnail included
+			}
+		}
+		byte[] png = thumbnail(proof.file);
+		if (png == null)
+		{
+			return; // unreadable or gone; the card keeps its text label
+		}
+		proof.thumbnailPng = png;
+		// Re-appended with its thumbnail; the later line wins on the next load
+		appendLine(dir, proof);
+		changed();
+	}
+
+	private static void appendLine(Path dir, Proof proof)
+	{
+		try (BufferedWriter w = Files.newBufferedWriter(dir.resolve(CATALOG_FILE), StandardCharsets.UTF_8,
+			StandardOpenOption.CREATE, StandardOpenOption.APPEND))
+		{
+			w.write(line(proof));
+			w.newLine();
+		}
+		catch (IOException e)
+		{
+			log.warn("Failed to append to proof catalog: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Parse "event_phase_partner_yyyy-MM-dd_HH-mm-ss.png". The phase may itself
+	 * contain underscores, so it is matched against the known phases.
+	 */
+	private Proof fromFileName(Path file, SimpleDateFormat format)
+	{
+		String name = file.getFileName().toString();
+		int stampLen = NAME_DATE_PATTERN.length();
+		if (!name.endsWith(".png") || name.length() < stampLen + 6)
+		{
+			return null;
+		}
+		String stem = name.substring(0, name.length() - 4);
+		long timestamp;
+		try
+		{
+			timestamp = format.parse(stem.substring(stem.length() - stampLen)).getTime();
+		}
+		catch (ParseException e)
+		{
+			return null;
+		}
+		String rest = stem.substring(0, stem.length() - stampLen - 1);
+		int sep = rest.indexOf('_');
+		if (sep <= 0)
+		{
+			return null;
+		}
+		String eventType = rest.substring(0, sep).toUpperCase();
+		String afterEvent = rest.substring(sep + 1);
+		for (String phase : new String[] {
+			ProofScreenshot.PHASE_FIRST_SCREEN, ProofScreenshot.PHASE_CONFIRM_SCREEN, ProofScreenshot.PHASE_COMPLETED })
+		{
+			if (afterEvent.startsWith(phase + "_"))
+			{
+				String partner = afterEvent.substring(phase.length() + 1);
+				return new Proof(timestamp, "", partner, eventType, phase, -1, file, null);
+			}
+		}
+		return null;
+	}
+
+	private static String line(Proof p)
+	{
+		return p.timestamp
+			+ "\t" + nz(p.loanId)
+			+ "\t" + nz(p.partner)
+			+ "\t" + nz(p.eventType)
+			+ "\t" + nz(p.phase)
+			+ "\t" + p.itemId
+			+ "\t" + p.file.getFileName()
+			+ "\t" + (p.thumbnailPng != null ? Base64.getEncoder().encodeToString(p.thumbnailPng) : "");
+	}
+
+	private static Proof parse(Path dir, String line)
+	{
+		String[] f = line.split("\t", -1);
+		if (f.length != 8)
+		{
+			return null;
+		}
+		try
+		{
+			byte[] thumb = f[7].isEmpty() ? null : Base64.getDecoder().decode(f[7]);
+			return new Proof(Long.parseLong(f[0]), f[1], f[2], f[3], f[4], Integer.parseInt(f[5]),
+				dir.resolve(f[6]), thumb);
+		}
+		catch (IllegalArgumentException e)
+		{
+			return null; // torn or hand-edited line
+		}
+	}
+
+	private static byte[] thumbnail(Path file)
+	{
+		try
+		{
+			BufferedImage image = ImageIO.read(file.toFile());
+			return image != null ? thumbnail(image) : null;
+		}
+		catch (IOException e)
+		{
+			return null;
+		}
+	}
+
+	private static byte[] thumbnail(BufferedImage image)
+	{
+		if (image == null || image.getWidth() <= 0)
+		{
+			return null;
+		}
+		int w = Math.min(THUMB_WIDTH, image.getWidth());
+		int h = Math.max(1, image.getHeight() * w / image.getWidth());
+		BufferedImage thumb = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = thumb.createGraphics();
+		try
+		{
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(image, 0, 0, w, h, null);
+		}
+		finally
+		{
+			g.dispose();
+		}
+		try
+		{
+			return ProofFrameCache.compress(thumb);
+		}
+		catch (IOException e)
+		{
+			return null;
+		}
+	}
+
+	private static String partnerKey(String partner)
+	{
+		return partner == null ? "" : partner.toLowerCase(Locale.ROOT);
+	}
+
+	private static boolean near(long a, long b)
+	{
+		return b > 0 && Math.abs(a - b) <= MATCH_WINDOW_MS;
+	}
+
+	private static String nz(String s)
+	{
+		return s == null ? "" : s.replace('\t', ' ');
+	}
+}
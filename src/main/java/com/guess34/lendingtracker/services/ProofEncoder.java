@@ -0,0 +1,245 @@
+package com.guess34.lendingtracker.services;
+
+import com.guess34.lendingtracker.LendingTrackerConfig;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ProofEncoder - writes proof screenshots to disk on a thread of its own.
+ *
+ * PNG compression is slow enough that a burst of trades used to hold up the
+ * shared RuneLite executor (overdue checks, sync, backups, price updates) for
+ * seconds. Encoding now runs on one dedicated thread behind a bounded queue:
+ *   - the compression level comes from config, applied through ImageWriteParam;
+ *   - when the queue backs up, shots are halved in size before encoding, and
+ *     quartered once it is deep, so the backlog drains faster;
+ *   - if the queue is full anyway, the shot is dropped and logged.
+ * Dropping is deliberate. A full queue means dozens of shots pending, far past
+ * any real trade burst (three shots a trade). The alternatives are worse:
+ * encoding on the submitting thread can stall the client thread (a trade
+ * completing), and handing the shot to the shared executor puts PNG work back
+ * on the thread that overdue checks and sync wait on.
+ * Latency and queue depth are kept as running counters and logged at debug.
+ */
+@Slf4j
+@Singleton
+public class ProofEncoder
+{
+	private static final int QUEUE_CAPACITY = 32;
+	// Queue depth (behind the job about to run) from which shots are halved,
+	// and from which they are quartered
+	private static final int DOWNSCALE_AT_DEPTH = 3;
+	private static final int QUARTER_AT_DEPTH = 12;
+
+	@Inject
+	private LendingTrackerConfig config;
+
+	private ThreadPoolExecutor encodeExecutor;
+
+	// Metrics
+	private final AtomicLong encoded = new AtomicLong();
+	private final AtomicLong downscaled = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong totalEncodeNanos = new AtomicLong();
+	private final AtomicLong maxEncodeNanos = new AtomicLong();
+	private final AtomicLong maxQueueDepth = new AtomicLong();
+
+	/**
+	 * Queue a shot for encoding. The source is loaded on the encode thread (a
+	 * cached frame is decoded there, not by the caller); the finisher (overlay
+	 * drawing) runs after any downscale, so its text stays full size. The
+	 * callback, when given, receives the image exactly as written.
+	 */
+	public void submit(Callable<BufferedImage> source, UnaryOperator<BufferedImage> finisher, Path outFile,
+		Consumer<BufferedImage> onWritten)
+	{
+		if (source == null || outFile == null)
+		{
+			return;
+		}
+		final long queuedAt = System.nanoTime();
+		ThreadPoolExecutor exec = encodeExecutor();
+		try
+		{
+			exec.execute(() -> encode(source, finisher, outFile, onWritten, queuedAt, exec));
+			maxQueueDepth.accumulateAndGet(exec.getQueue().size(), Math::max);
+		}
+		catch (RejectedExecutionException e)
+		{
+			dropped.incrementAndGet();
+			log.warn("Proof screenshot not saved, {}: {}",
+				exec.isShutdown() ? "encoder is shut down" : "encode queue is full", outFile.getFileName());
+		}
+	}
+
+	/**
+	 * Run other PNG work (compressing a trade frame for the cache) on the encode
+	 * thread, in order with the shots. False if the queue is full or shut down.
+	 */
+	public boolean execute(Runnable task)
+	{
+		try
+		{
+			encodeExecutor().execute(task);
+			return true;
+		}
+		catch (RejectedExecutionException e)
+		{
+			return false;
+		}
+	}
+
+	/** Let queued shots finish writing, then stop the encode thread. */
+	public synchronized void shutdown()
+	{
+		if (encodeExecutor != null)
+		{
+			encodeExecutor.shutdown();
+			encodeExecutor = null;
+		}
+	}
+
+	// --- Internals ---
+
+	private synchronized ThreadPoolExecutor encodeExecutor()
+	{
+		if (encodeExecutor == null)
+		{
+			encodeExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+				r ->
+				{
+					Thread t = new Thread(r, "lending-tracker-proof-encoder");
+					t.setDaemon(true);
+					return t;
+				});
+		}
+		return encodeExecutor;
+	}
+
+	private void encode(Callable<BufferedImage> source, UnaryOperator<BufferedImage> finisher, Path outFile,
+		Consumer<BufferedImage> onWritten, long queuedAt, ThreadPoolExecutor exec)
+	{
+		int depthBehind = exec.getQueue().size();
+		try
+		{
+			BufferedImage out = source.call();
+			if (out == null)
+			{
+				throw new java.io.IOException("no image to encode");
+			}
+			if (depthBehind >= DOWNSCALE_AT_DEPTH)
+			{
+				out = halve(out);
+				if (depthBehind >= QUARTER_AT_DEPTH)
+				{
+					out = halve(out);
+				}
+				downscaled.incrementAndGet();
+			}
+			if (finisher != null)
+			{
+				out = finisher.apply(out);
+			}
+
+			Files.createDirectories(outFile.getParent());
+			writePng(out, outFile);
+
+			long nanos = System.nanoTime() - queuedAt;
+			long n = encoded.incrementAndGet();
+			long total = totalEncodeNanos.addAndGet(nanos);
+			maxEncodeNanos.accumulateAndGet(nanos, Math::max);
+			if (log.isDebugEnabled())
+			{
+				log.debug("Proof screenshot written in {} ms (queue depth {}): {}",
+					TimeUnit.NANOSECONDS.toMillis(nanos), depthBehind, outFile.getFileName());
+				log.debug("Proof encoder: {} written, avg {} ms, max {} ms, peak queue {}, {} downscaled, {} dropped, {} failed",
+					n, TimeUnit.NANOSECONDS.toMillis(total / n), TimeUnit.NANOSECONDS.toMillis(maxEncodeNanos.get()),
+					maxQueueDepth.get(), downscaled.get(), dropped.get(), failed.get());
+			}
+			if (onWritten != null)
+			{
+				onWritten.accept(out);
+			}
+		}
+		catch (Exception e)
+		{
+			failed.incrementAndGet();
+			log.error("Failed to save proof screenshot: {}", e.getMessage());
+		}
+	}
+
+	private void writePng(BufferedImage image, Path outFile) throws java.io.IOException
+	{
+		try (ImageOutputStream stream = ImageIO.createImageOutputStream(outFile.toFile()))
+		{
+			writePng(image, stream, config.screenshotCompression());
+		}
+	}
+
+	/** PNG-encode to a stream at deflate level 0 (fastest) to 9 (smallest). */
+	static void writePng(BufferedImage image, ImageOutputStream stream, int level) throws java.io.IOException
+	{
+		Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("png");
+		if (!writers.hasNext() || stream == null)
+		{
+			throw new java.io.IOException("no PNG writer available");
+		}
+		ImageWriter writer = writers.next();
+		try
+		{
+			writer.setOutput(stream);
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			if (param.canWriteCompressed())
+			{
+				// The PNG writer maps quality 1.0 to no compression and 0.0 to deflate level 9
+				param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+				param.setCompressionQuality(1f - Math.max(0, Math.min(9, level)) / 9f);
+			}
+			writer.write(null, new IIOImage(image, null, null), param);
+		}
+		finally
+		{
+			writer.dispose();
+		}
+	}
+
+	private static BufferedImage halve(BufferedImage src)
+	{
+		int w = Math.max(1, src.getWidth() / 2);
+		int h = Math.max(1, src.getHeight() / 2);
+		BufferedImage scaled = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = scaled.createGraphics();
+		try
+		{
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(src, 0, 0, w, h, null);
+		}
+		finally
+		{
+			g.dispose();
+		}
+		return scaled;
+	}
+}
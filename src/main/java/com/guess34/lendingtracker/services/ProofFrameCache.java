@@ -0,0 +1,149 @@
+package com.guess34.lendingtracker.services;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+/**
+ * ProofFrameCache - trade-screen frames waiting for their trade to complete,
+ * held PNG-compressed under a byte budget.
+ *
+ * An uncompressed ARGB frame of a 4K or stretched client is tens of MB; the
+ * same frame as a fast (deflate level 1) PNG is a small fraction of that, and
+ * the game UI compresses well. Frames are decoded only when a trade commits.
+ * Anything older than {@link #MAX_AGE_MS} is dropped (a commit that never
+ * came), on the next put or take or when ProofScreenshot's expiry timer calls
+ * {@link #evictExpired}; when a new frame would exceed the budget the oldest go
+ * first.
+ *
+ * Not thread-safe: ProofScreenshot guards it with its cache lock.
+ */
+final class ProofFrameCache
+{
+	// A trade that hasn't completed in this long isn't going to
+	static final long MAX_AGE_MS = 10 * 60_000L;
+	static final long BUDGET_BYTES = 16L * 1024 * 1024;
+	// Fast rather than small: compression runs as each frame is captured
+	private static final int CACHE_PNG_LEVEL = 1;
+
+	/** One cached frame, compressed. */
+	static final class Frame
+	{
+		final byte[] png;
+		final boolean cropped;
+		final long storedAt;
+
+		Frame(byte[] png, boolean cropped, long storedAt)
+		{
+			this.png = png;
+			this.cropped = cropped;
+			this.storedAt = storedAt;
+		}
+
+		BufferedImage decode() throws IOException
+		{
+			return ImageIO.read(new ByteArrayInputStream(png));
+		}
+	}
+
+	// Phase -> frame, oldest first (a re-cached phase moves to the end)
+	private final Map<String, Frame> frames = new LinkedHashMap<>();
+	private long residentBytes;
+
+	/** Compress a frame for caching. The slow part: call on the encode thread, outside the cache lock. */
+	static byte[] compress(BufferedImage image) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		// Memory-cached: ImageIO's default stream may spill to a temp file
+		try (ImageOutputStream stream = new MemoryCacheImageOutputStream(bytes))
+		{
+			ProofEncoder.writePng(image, stream, CACHE_PNG_LEVEL);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Cache a compressed frame under its phase, replacing any earlier one, and
+	 * evict by age and then by size to stay within budget. False when the frame
+	 * alone is over budget and was not kept.
+	 */
+	boolean put(String phase, byte[] png, boolean cropped)
+	{
+		long now = System.currentTimeMillis();
+		drop(phase);
+		evictOlderThan(now - MAX_AGE_MS);
+		if (png.length > BUDGET_BYTES)
+		{
+			return false;
+		}
+		Iterator<Frame> oldest = frames.values().iterator();
+		while (residentBytes + png.length > BUDGET_BYTES && oldest.hasNext())
+		{
+			residentBytes -= oldest.next().png.length;
+			oldest.remove();
+		}
+		frames.put(phase, new Frame(png, cropped, now));
+		residentBytes += png.length;
+		return true;
+	}
+
+	/** Every unexpired frame, by phase; the cache is left empty. */
+	Map<String, Frame> takeAll()
+	{
+		evictOlderThan(System.currentTimeMillis() - MAX_AGE_MS);
+		Map<String, Frame> taken = new LinkedHashMap<>(frames);
+		clear();
+		return taken;
+	}
+
+	/** Drop frames past their age limit. True if any were dropped. */
+	boolean evictExpired()
+	{
+		long before = residentBytes;
+		evictOlderThan(System.currentTimeMillis() - MAX_AGE_MS);
+		return residentBytes != before;
+	}
+
+	void clear()
+	{
+		frames.clear();
+		residentBytes = 0;
+	}
+
+	/** Compressed bytes currently held. */
+	long getResidentBytes()
+	{
+		return residentBytes;
+	}
+
+	private void drop(String phase)
+	{
+		Frame prev = frames.remove(phase);
+		if (prev != null)
+		{
+			residentBytes -= prev.png.length;
+		}
+	}
+
+	private void evictOlderThan(long cutoff)
+	{
+		Iterator<Frame> it = frames.values().iterator();
+		while (it.hasNext())
+		{
+			Frame f = it.next();
+			if (f.storedAt >= cutoff)
+			{
+				break; // insertion order is age order
+			}
+			residentBytes -= f.png.length;
+			it.remove();
+		}
+	}
+}
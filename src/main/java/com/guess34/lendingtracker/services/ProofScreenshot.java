@@ -2,18 +2,20 @@ package com.guess34.lendingtracker.services;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.text.SimpleDateFormat;
 import java.time.Instant;
-import java.util.Date;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import javax.imageio.ImageIO;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.gameval.InterfaceID;
+import net.runelite.api.widgets.Widget;
 import net.runelite.client.ui.DrawManager;
 import net.runelite.client.util.LinkBrowser;
 import com.guess34.lendingtracker.LendingTrackerConfig;
@@ -30,14 +32,24 @@ public class ProofScreenshot
 	@Inject
 	private LendingTrackerConfig config;
 
+	@Inject
+	private Client client;
+
 	@Inject
 	private DrawManager drawManager;
 
 	@Inject
 	private ScheduledExecutorService executor;
 
-	private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
-	private static final SimpleDateFormat DISPLAY_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+	@Inject
+	private ProofEncoder encoder;
+
+	@Inject
+	private ProofCatalog catalog;
+
+	// Thread-safe: file names are built on the executor, overlays drawn on the encode thread
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+	private static final DateTimeFormatter DISPLAY_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
 	// Base directory for all screenshots (inside .runelite per Plugin Hub rules)
 	private static final Path BASE_DIR = Paths.get(System.getProperty("user.home"), ".runelite", "lending-tracker", "proof");
@@ -45,7 +57,7 @@ public class ProofScreenshot
 	/**
 	 * Get the screenshot directory for a specific user and group
 	 */
-	private Path getScreenshotDirectory(String username, String groupName)
+	static Path screenshotDirectory(String username, String groupName)
 	{
 		// Clean up names for file system safety
 		String safeUsername = sanitizeFilename(username != null ? username : "unknown");
@@ -61,7 +73,7 @@ public class ProofScreenshot
 	{
 		try
 		{
-			Path dir = getScreenshotDirectory(username, groupName);
+			Path dir = screenshotDirectory(username, groupName);
 			Files.createDirectories(dir);
 
 			LinkBrowser.open(dir.toString());
@@ -81,19 +93,48 @@ public class ProofScreenshot
 	// waiting for the trade to complete. Written to disk only when the trade is
 	// accepted, so a declined trade never leaves files behind. Re-caching a phase
 	// overwrites it, so the saved first-screen shot reflects the FINAL offers.
+	// Frames are held compressed under a byte budget (see ProofFrameCache).
 	// The generation counter is bumped by commit/discard so an in-flight capture
 	// from an already-ended trade can't store its frame late and get committed as
 	// "proof" of a DIFFERENT trade; all access goes through cacheLock so the
 	// generation check and the store/take are atomic.
 	private final Object cacheLock = new Object();
-	private final java.util.Map<String, BufferedImage> cachedFrames = new java.util.HashMap<>();
+	private final ProofFrameCache cachedFrames = new ProofFrameCache();
 	private int cacheGeneration;
 
+	// Room left around a cropped widget so its border isn't clipped
+	private static final int CROP_MARGIN = 4;
+	// The info overlay's box, inset from the top-left corner by the margin
+	private static final int OVERLAY_BOX_WIDTH = 450;
+	private static final int OVERLAY_BOX_HEIGHT = 180;
+	private static final int OVERLAY_MARGIN = 10;
+	// Strip added above a cropped shot for the overlay, which would otherwise
+	// cover most of a trade window; sized to hold the box and its margins
+	private static final int OVERLAY_STRIP_WIDTH = OVERLAY_BOX_WIDTH + 2 * OVERLAY_MARGIN;
+	private static final int OVERLAY_STRIP_HEIGHT = OVERLAY_BOX_HEIGHT + 2 * OVERLAY_MARGIN;
+
+	/** A captured frame, and whether it was cropped to an interface region. */
+	private static final class CapturedFrame
+	{
+		final BufferedImage image;
+		final boolean cropped;
+
+		CapturedFrame(BufferedImage image, boolean cropped)
+		{
+			this.image = image;
+			this.cropped = cropped;
+		}
+	}
+
 	/**
 	 * Capture the next rendered frame and hold it in memory under the given
 	 * phase. Call while the relevant trade screen is open — the "Accepted trade."
 	 * message only arrives after the windows close, so capturing at that point
 	 * would miss the evidence.
+	 *
+	 * Client thread: the crop region is read from the trade widgets now, while
+	 * they are still open. The frame is compressed on the encode thread, like
+	 * the rest of the PNG work.
 	 */
 	public void cacheTradeFrame(String phase)
 	{
@@ -102,20 +143,62 @@ public class ProofScreenshot
 		{
 			generation = cacheGeneration;
 		}
+		final Rectangle crop = captureRegion(phase);
 		drawManager.requestNextFrameListener(image ->
 			executor.submit(() ->
 			{
-				BufferedImage frame = toBufferedImage(image);
-				synchronized (cacheLock)
+				CapturedFrame frame = capture(image, crop);
+				if (frame != null && !encoder.execute(() -> compressAndCache(phase, generation, frame)))
 				{
-					if (cacheGeneration == generation)
-					{
-						cachedFrames.put(phase, frame);
-					}
+					log.warn("Trade frame for {} not cached, encode queue is full", phase);
 				}
 			}));
 	}
 
+	// Encode thread
+	private void compressAndCache(String phase, int generation, CapturedFrame frame)
+	{
+		byte[] png;
+		try
+		{
+			png = ProofFrameCache.compress(frame.image);
+		}
+		catch (Exception e)
+		{
+			log.warn("Failed to compress trade frame: {}", e.getMessage());
+			return;
+		}
+		synchronized (cacheLock)
+		{
+			if (cacheGeneration != generation)
+			{
+				return;
+			}
+			if (!cachedFrames.put(phase, png, frame.cropped))
+			{
+				log.warn("Trade frame of {} bytes exceeds the cache budget; not kept", png.length);
+				return;
+			}
+			log.debug("Cached {} trade frame of {} bytes; {} bytes held", phase, png.length,
+				cachedFrames.getResidentBytes());
+		}
+		// A trade that never commits or cancels mustn't leave its frame
+		// in memory until the next one: expire it on time
+		executor.schedule(this::evictExpiredFrames,
+			ProofFrameCache.MAX_AGE_MS + 1000, TimeUnit.MILLISECONDS);
+	}
+
+	private void evictExpiredFrames()
+	{
+		synchronized (cacheLock)
+		{
+			if (cachedFrames.evictExpired())
+			{
+				log.debug("Expired cached trade frames; {} bytes still held", cachedFrames.getResidentBytes());
+			}
+		}
+	}
+
 	/**
 	 * Save every cached trade frame (first screen, confirm screen) as proof
 	 * screenshots for a completed trade, plus a fresh post-completion frame that
@@ -125,23 +208,35 @@ public class ProofScreenshot
 	public void commitCachedTrade(String username, String groupName, String tradePartner,
 		String eventType, LendingEntry entry)
 	{
-		java.util.Map<String, BufferedImage> frames;
+		// Taken on the encode thread, so a frame of this trade still being
+		// compressed there is cached first
+		Runnable saveCached = () -> saveCachedFrames(username, groupName, tradePartner, eventType, entry);
+		if (!encoder.execute(saveCached))
+		{
+			saveCached.run();
+		}
+		// Fresh frame after completion — the chat now shows the acceptance and the
+		// recorded items in text
+		captureTradeScreenshot(username, groupName, tradePartner, eventType, PHASE_COMPLETED, entry);
+	}
+
+	private void saveCachedFrames(String username, String groupName, String tradePartner,
+		String eventType, LendingEntry entry)
+	{
+		java.util.Map<String, ProofFrameCache.Frame> frames;
 		synchronized (cacheLock)
 		{
 			cacheGeneration++;
-			frames = new java.util.HashMap<>(cachedFrames);
-			cachedFrames.clear();
+			log.debug("Taking cached trade frames; {} bytes held", cachedFrames.getResidentBytes());
+			frames = cachedFrames.takeAll();
 		}
-		for (java.util.Map.Entry<String, BufferedImage> cached : frames.entrySet())
+		for (java.util.Map.Entry<String, ProofFrameCache.Frame> cached : frames.entrySet())
 		{
-			final String phase = cached.getKey();
-			final BufferedImage toSave = cached.getValue();
-			executor.submit(() ->
-				saveScreenshot(toSave, username, groupName, tradePartner, eventType, phase, entry));
+			final ProofFrameCache.Frame frame = cached.getValue();
+			// Decoded on the encode thread, only now that the trade has committed
+			saveScreenshot(frame::decode, frame.cropped, username, groupName, tradePartner,
+				eventType, cached.getKey(), entry);
 		}
-		// Fresh frame after completion — the chat now shows the acceptance and the
-		// recorded items in text
-		captureTradeScreenshot(username, groupName, tradePartner, eventType, PHASE_COMPLETED, entry);
 	}
 
 	/** Drop all cached frames (trade declined or cancelled). */
@@ -158,64 +253,169 @@ public class ProofScreenshot
 	private void captureTradeScreenshot(String username, String groupName, String tradePartner,
 										 String eventType, String phase, LendingEntry entry)
 	{
+		final Rectangle crop = captureRegion(phase);
 		drawManager.requestNextFrameListener(image ->
 			executor.submit(() ->
-				saveScreenshot(image, username, groupName, tradePartner, eventType, phase, entry)));
+			{
+				CapturedFrame frame = capture(image, crop);
+				if (frame == null)
+				{
+					log.warn("Failed to capture game frame");
+					return;
+				}
+				saveScreenshot(() -> frame.image, frame.cropped, username, groupName, tradePartner,
+					eventType, phase, entry);
+			}));
 	}
 
-	// Overlay + write the PNG, off the client thread
-	private void saveScreenshot(Image image, String username, String groupName, String tradePartner,
+	// Hand the frame to the encoder, which draws the overlay and writes the PNG
+	// on its own thread
+	private void saveScreenshot(java.util.concurrent.Callable<BufferedImage> source, boolean cropped,
+								 String username, String groupName, String tradePartner,
 								 String eventType, String phase, LendingEntry entry)
 	{
-		try
+		java.util.function.UnaryOperator<BufferedImage> overlay = null;
+		if (config != null && config.screenshotIncludeOverlay())
 		{
-			BufferedImage screenshot = toBufferedImage(image);
-			if (screenshot == null)
-			{
-				log.warn("Failed to capture game frame");
-				return;
-			}
+			overlay = img -> addOverlayText(cropped ? withOverlayStrip(img) : img,
+				eventType, phase, tradePartner, entry);
+		}
 
-			// Add overlay if enabled
-			if (config != null && config.screenshotIncludeOverlay())
-			{
-				screenshot = addOverlayText(screenshot, eventType, phase, tradePartner, entry);
-			}
+		// Build filename: eventType_phase_partner_timestamp.png
+		final long now = System.currentTimeMillis();
+		String timestamp = DATE_FORMAT.format(Instant.ofEpochMilli(now).atZone(ZoneId.systemDefault()));
+		String safePartner = sanitizeFilename(tradePartner != null ? tradePartner : "unknown");
+		String filename = String.format("%s_%s_%s_%s.png",
+			eventType.toLowerCase(),
+			phase,
+			safePartner,
+			timestamp);
+
+		// Save to user/group specific directory, and catalog it once written
+		Path outFile = screenshotDirectory(username, groupName).resolve(filename);
+		String loanId = entry != null ? entry.getId() : null;
+		int itemId = entry != null ? entry.getItemId() : -1;
+		encoder.submit(source, overlay, outFile, written ->
+			catalog.record(outFile, now, loanId, safePartner, eventType, phase, itemId, written));
+	}
+
+	/**
+	 * Region of the frame to keep for this phase under the configured policy, or
+	 * null for the full frame. Trade-screen phases keep the trade window (plus the
+	 * chatbox when asked); the post-completion shot, taken after the window has
+	 * closed, keeps the chatbox with the "Accepted trade." line. Falls back to the
+	 * full frame whenever the widgets needed aren't visible.
+	 */
+	private Rectangle captureRegion(String phase)
+	{
+		LendingTrackerConfig.CaptureRegion policy = config.screenshotRegion();
+		if (policy == null || policy == LendingTrackerConfig.CaptureRegion.FULL_FRAME)
+		{
+			return null;
+		}
 
-			// Build filename: eventType_phase_partner_timestamp.png
-			String timestamp = DATE_FORMAT.format(Date.from(Instant.now()));
-			String safePartner = sanitizeFilename(tradePartner != null ? tradePartner : "unknown");
-			String filename = String.format("%s_%s_%s_%s.png",
-				eventType.toLowerCase(),
-				phase,
-				safePartner,
-				timestamp);
-
-			// Save to user/group specific directory
-			Path outDir = getScreenshotDirectory(username, groupName);
-			Files.createDirectories(outDir);
-
-			File outFile = outDir.resolve(filename).toFile();
-			ImageIO.write(screenshot, "png", outFile);
+		Rectangle chat = widgetBounds(InterfaceID.CHATBOX);
+		if (PHASE_COMPLETED.equals(phase))
+		{
+			return toFrameSpace(chat);
 		}
-		catch (Exception e)
+
+		Rectangle trade = widgetBounds(PHASE_CONFIRM_SCREEN.equals(phase)
+			? InterfaceID.TRADECONFIRM : InterfaceID.TRADEMAIN);
+		if (trade == null)
+		{
+			return null;
+		}
+		if (policy == LendingTrackerConfig.CaptureRegion.TRADE_WINDOW_AND_CHAT && chat != null)
 		{
-			log.error("Failed to save proof screenshot: {}", e.getMessage());
+			trade = trade.union(chat);
 		}
+		return toFrameSpace(trade);
 	}
 
-	private BufferedImage toBufferedImage(Image image)
+	/** Canvas bounds of an interface's root widget, or null when it isn't showing. */
+	private Rectangle widgetBounds(int groupId)
+	{
+		Widget root = client.getWidget(groupId, 0);
+		if (root == null || root.isHidden())
+		{
+			return null;
+		}
+		Rectangle bounds = root.getBounds();
+		return bounds == null || bounds.isEmpty() ? null : bounds;
+	}
+
+	/**
+	 * Widget bounds are in game-canvas coordinates; with stretched mode on the
+	 * rendered frame is scaled, so the region has to be too.
+	 */
+	private Rectangle toFrameSpace(Rectangle bounds)
+	{
+		if (bounds == null)
+		{
+			return null;
+		}
+		Rectangle r = new Rectangle(bounds);
+		if (client.isStretchedEnabled())
+		{
+			Dimension real = client.getRealDimensions();
+			Dimension stretched = client.getStretchedDimensions();
+			if (real != null && stretched != null && real.width > 0 && real.height > 0)
+			{
+				double sx = (double) stretched.width / real.width;
+				double sy = (double) stretched.height / real.height;
+				r = new Rectangle((int) Math.floor(r.x * sx), (int) Math.floor(r.y * sy),
+					(int) Math.ceil(r.width * sx), (int) Math.ceil(r.height * sy));
+			}
+		}
+		r.grow(CROP_MARGIN, CROP_MARGIN);
+		return r;
+	}
+
+	/**
+	 * Copy the frame, or only the crop region of it, into an image we own — the
+	 * frame handed to the listener is reused by the renderer. Copying just the
+	 * region keeps the cached frame (and the PNG encoded from it) small.
+	 */
+	private CapturedFrame capture(Image image, Rectangle crop)
 	{
 		if (image == null)
 		{
 			return null;
 		}
-		BufferedImage buffered = new BufferedImage(
-			image.getWidth(null), image.getHeight(null), BufferedImage.TYPE_INT_ARGB);
+		int width = image.getWidth(null);
+		int height = image.getHeight(null);
+		Rectangle region = crop != null ? crop.intersection(new Rectangle(0, 0, width, height)) : null;
+		boolean cropped = region != null && !region.isEmpty();
+		if (!cropped)
+		{
+			region = new Rectangle(0, 0, width, height);
+		}
+
+		BufferedImage buffered = new BufferedImage(region.width, region.height, BufferedImage.TYPE_INT_ARGB);
 		Graphics graphics = buffered.getGraphics();
-		graphics.drawImage(image, 0, 0, null);
+		graphics.drawImage(image, -region.x, -region.y, null);
 		graphics.dispose();
-		return buffered;
+		return new CapturedFrame(buffered, cropped);
+	}
+
+	/** Put a blank strip above a cropped shot for the overlay to sit in. */
+	private BufferedImage withOverlayStrip(BufferedImage img)
+	{
+		BufferedImage padded = new BufferedImage(Math.max(img.getWidth(), OVERLAY_STRIP_WIDTH),
+			img.getHeight() + OVERLAY_STRIP_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = padded.createGraphics();
+		try
+		{
+			g.setColor(Color.BLACK);
+			g.fillRect(0, 0, padded.getWidth(), padded.getHeight());
+			g.drawImage(img, 0, OVERLAY_STRIP_HEIGHT, null);
+		}
+		finally
+		{
+			g.dispose();
+		}
+		return padded;
 	}
 
 	/**
@@ -229,10 +429,10 @@ public class ProofScreenshot
 		{
 			g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
-			int boxWidth = Math.min(img.getWidth() - 20, 450);
-			int boxHeight = 180;
-			int boxX = 10;
-			int boxY = 10;
+			int boxWidth = Math.min(img.getWidth() - 2 * OVERLAY_MARGIN, OVERLAY_BOX_WIDTH);
+			int boxHeight = OVERLAY_BOX_HEIGHT;
+			int boxX = OVERLAY_MARGIN;
+			int boxY = OVERLAY_MARGIN;
 
 			// Semi-transparent background
 			g.setColor(new Color(0, 0, 0, 200));
@@ -256,7 +456,7 @@ public class ProofScreenshot
 			g.setColor(Color.WHITE);
 			g.setFont(new Font("Dialog", Font.PLAIN, 13));
 
-			String timestamp = DISPLAY_DATE_FORMAT.format(new Date());
+			String timestamp = DISPLAY_DATE_FORMAT.format(Instant.now().atZone(ZoneId.systemDefault()));
 			g.drawString("Time: " + timestamp, x, y);
 			y += 18;
 
@@ -350,7 +550,7 @@ public class ProofScreenshot
 	/**
 	 * Sanitize filename for file system safety
 	 */
-	private String sanitizeFilename(String name)
+	static String sanitizeFilename(String name)
 	{
 		if (name == null) return "unknown";
 		// Replace invalid characters with underscore
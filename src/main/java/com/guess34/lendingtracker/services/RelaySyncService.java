@@ -52,6 +52,15 @@ public class RelaySyncService
 	// failed apply doesn't permanently dedup the publisher's retry.
 	private final java.util.concurrent.ConcurrentHashMap<String, Integer> lastStateHash =
 		new java.util.concurrent.ConcurrentHashMap<>();
+	// What the last successfully applied catch-up snapshot looked like, per group:
+	// the relay's ETag (sent back as If-None-Match so it can answer 304) and a
+	// SHA-256 of its body (for a relay that ignores conditional requests). A reconnect
+	// storm then costs one small request per reconnect instead of a full
+	// download, verify and merge of an unchanged record.
+	private final java.util.concurrent.ConcurrentHashMap<String, String> catchUpEtags =
+		new java.util.concurrent.ConcurrentHashMap<>();
+	private final java.util.concurrent.ConcurrentHashMap<String, String> catchUpDigests =
+		new java.util.concurrent.ConcurrentHashMap<>();
 	// Keepalive cadence: ping ~every 12 min, never sooner than 2 min apart
 	private static final long KEEPALIVE_INTERVAL_MS = 12 * 60 * 1000;
 	private static final long KEEPALIVE_MIN_DELAY_MS = 2 * 60 * 1000;
@@ -63,6 +72,11 @@ public class RelaySyncService
 	// REST client used for relay calls needs its own longer timeouts.
 	private static final long REST_CONNECT_TIMEOUT_S = 30;
 	private static final long REST_READ_TIMEOUT_S = 60;
+	// Backoff between REST attempts. Scheduled on CompletableFuture's delayed
+	// executor, so a retry waits without holding any thread (and without the
+	// Thread.sleep Plugin Hub forbids). The first entry is the initial attempt.
+	private static final long[] PUBLISH_INVITE_RETRY_DELAYS_MS = { 0, 5_000, 15_000 };
+	private static final long[] LOOKUP_INVITE_RETRY_DELAYS_MS = { 0, 5_000, 15_000, 30_000 };
 
 	@Inject private OkHttpClient httpClient;
 	@Inject private Gson gson;
@@ -99,6 +113,7 @@ public class RelaySyncService
 	private StateHandler onStateReceived;
 	private volatile Runnable onConnected;
 	private volatile Consumer<java.util.Map<String, Integer>> onPresenceReceived;
+	private volatile PresenceDeltaHandler onPresenceDelta;
 	// Supplies the local player's current world so the relay can report it to peers
 	// as part of presence. Read lazily at each join so a world hop (which triggers a
 	// reconnect + rejoin) reports the fresh world.
@@ -111,6 +126,16 @@ public class RelaySyncService
 		void accept(String groupJson, String dataJson, String publisher);
 	}
 
+	/**
+	 * Callback for a single-member presence change (presence_join, presence_leave,
+	 * presence_world). world is 0 when unknown; online is false for a leave.
+	 */
+	@FunctionalInterface
+	public interface PresenceDeltaHandler
+	{
+		void accept(String nameLower, int world, boolean online);
+	}
+
 	// --- Connection Lifecycle ---
 
 	/**
@@ -220,6 +245,8 @@ public class RelaySyncService
 		// so a mid-session reconnect keeps its replay floors.)
 		lastStateTs.clear();
 		lastStateHash.clear();
+		catchUpEtags.clear();
+		catchUpDigests.clear();
 
 		if (ws != null)
 		{
@@ -529,24 +556,24 @@ public class RelaySyncService
 	}
 
 	/**
-	 * Publish an invite code to the relay SYNCHRONOUSLY, retrying through a Render cold-start.
-	 * Returns true only once the relay confirms it stored the code (HTTP 2xx).
+	 * Publish an invite code to the relay and confirm it landed, retrying through a Render
+	 * cold-start. Completes with true only once the relay confirms it stored the code (HTTP 2xx).
 	 *
 	 * The fire-and-forget {@link #publishInviteCode} could silently fail against a sleeping
 	 * server, leaving the owner sharing a code that was never stored - which is exactly why
 	 * a freshly generated code could come back "invalid/expired" for a joiner seconds later.
 	 * Code generation now uses this and warns the owner if the code did not land.
-	 * Blocking - callers must run it off the EDT.
+	 * Never blocks: requests are enqueued and retries are scheduled, not slept.
 	 */
-	public boolean publishInviteBlocking(String code, String groupId, String groupJson)
+	public CompletableFuture<Boolean> publishInviteAsync(String code, String groupId, String groupJson)
 	{
-		if (config == null || !config.enableRelaySync()) return false;
+		if (config == null || !config.enableRelaySync()) return CompletableFuture.completedFuture(false);
 
 		String baseUrl = getRestBaseUrl();
 		if (baseUrl == null)
 		{
 			log.warn("Cannot publish invite code: relay URL is not configured");
-			return false;
+			return CompletableFuture.completedFuture(false);
 		}
 
 		JsonObject body = new JsonObject();
@@ -559,27 +586,32 @@ public class RelaySyncService
 			.post(requestBody)
 			.build();
 
-		int maxAttempts = 3;
-		for (int attempt = 1; attempt <= maxAttempts; attempt++)
+		return retryAsync(() -> callAsync(request, response ->
 		{
-			try (Response response = getRestClient().newCall(request).execute())
+			if (response.isSuccessful())
 			{
-				if (response.isSuccessful())
-				{
-					log.debug("Invite code {} published to relay (attempt {})", code, attempt);
-					return true;
-				}
-				log.warn("Publish attempt {} for code {} got HTTP {}", attempt, code, response.code());
-			}
-			catch (Exception e)
-			{
-				log.warn("Publish attempt {} for code {} failed: {}", attempt, code, e.getMessage());
+				log.debug("Invite code {} published to relay", code);
+				return true;
 			}
-			// No delay between attempts: Thread.sleep is not permitted in Plugin Hub plugins, and
-			// the REST client's long read timeout already holds the request open through a Render
-			// cold-start, so the server's eventual 200 is normally received on the first attempt.
+			log.warn("Publish attempt for code {} got HTTP {}", code, response.code());
+			return false;
+		}, false), published -> !published, PUBLISH_INVITE_RETRY_DELAYS_MS);
+	}
+
+	/**
+	 * Blocking form of {@link #publishInviteAsync} for callers already on a background
+	 * worker (the Settings panel's SwingWorker). Never call from the sync executor.
+	 */
+	public boolean publishInviteBlocking(String code, String groupId, String groupJson)
+	{
+		try
+		{
+			return publishInviteAsync(code, groupId, groupJson).join();
+		}
+		catch (CancellationException | CompletionException e)
+		{
+			return false;
 		}
-		return false;
 	}
 
 	/**
@@ -607,40 +639,43 @@ public class RelaySyncService
 	 * Look up an invite code on the relay, distinguishing "not found" from "couldn't reach
 	 * the server". The old String-returning lookupInviteCode collapsed both into null, so a
 	 * cold-start timeout looked identical to a genuinely invalid code.
+	 *
+	 * The relay sleeps after 15 minutes idle, so the first person to touch it waits out a
+	 * 30-60s cold start. An UNREACHABLE answer is retried on a backoff schedule; only a
+	 * genuinely unreachable relay should read as unreachable. Never blocks.
 	 */
+	public CompletableFuture<InviteLookupResult> lookupInviteAsync(String code)
+	{
+		return retryAsync(() -> lookupInviteOnce(code),
+			result -> result.status == InviteStatus.UNREACHABLE, LOOKUP_INVITE_RETRY_DELAYS_MS);
+	}
+
 	/**
-	 * Joining hits a single blocking call, and the relay sleeps after 15 minutes
-	 * idle - so the first person to touch it waits out a 30-60s cold start. One
-	 * attempt meant a join simply failed while the server was waking up. Retry a
-	 * few times before giving up; only a genuinely unreachable relay should read
-	 * as unreachable.
+	 * Blocking form of {@link #lookupInviteAsync} for callers already on a background
+	 * worker (the join dialog's SwingWorker). Never call from the sync executor.
 	 */
 	public InviteLookupResult lookupInvite(String code)
 	{
-		// No sleep between attempts: Thread.sleep is not permitted in Plugin Hub
-		// plugins, and the REST client already carries a 30s connect / 60s read
-		// timeout which holds the request open right through a Render cold start.
-		// Retrying immediately covers the case where the first call fails outright
-		// (socket refused while the instance is still spinning up) rather than
-		// waiting - the same pattern publishInviteBlocking already uses.
-		InviteLookupResult result = lookupInviteOnce(code);
-		for (int attempt = 1; attempt < 4 && result.status == InviteStatus.UNREACHABLE; attempt++)
+		try
 		{
-			log.debug("Invite lookup retry {} (relay may be cold-starting)", attempt);
-			result = lookupInviteOnce(code);
+			return lookupInviteAsync(code).join();
+		}
+		catch (CancellationException | CompletionException e)
+		{
+			return new InviteLookupResult(InviteStatus.UNREACHABLE, null);
 		}
-		return result;
 	}
 
-	private InviteLookupResult lookupInviteOnce(String code)
+	private CompletableFuture<InviteLookupResult> lookupInviteOnce(String code)
 	{
-		if (config == null || !config.enableRelaySync()) return new InviteLookupResult(InviteStatus.UNREACHABLE, null);
+		InviteLookupResult unreachable = new InviteLookupResult(InviteStatus.UNREACHABLE, null);
+		if (config == null || !config.enableRelaySync()) return CompletableFuture.completedFuture(unreachable);
 
 		String baseUrl = getRestBaseUrl();
 		if (baseUrl == null)
 		{
 			log.warn("Cannot lookup invite code: relay URL is not configured");
-			return new InviteLookupResult(InviteStatus.UNREACHABLE, null);
+			return CompletableFuture.completedFuture(unreachable);
 		}
 
 		log.debug("Looking up invite code {} from relay at {}", code, baseUrl);
@@ -650,7 +685,7 @@ public class RelaySyncService
 			.get()
 			.build();
 
-		try (Response response = getRestClient().newCall(request).execute())
+		return callAsync(request, response ->
 		{
 			log.debug("Relay returned {} for invite code lookup {}", response.code(), code);
 			if (response.isSuccessful() && response.body() != null)
@@ -668,13 +703,8 @@ public class RelaySyncService
 				return new InviteLookupResult(InviteStatus.NOT_FOUND, null);
 			}
 			// 5xx / unexpected status - treat as transient so the user is told to retry
-			return new InviteLookupResult(InviteStatus.UNREACHABLE, null);
-		}
-		catch (Exception e)
-		{
-			log.warn("Failed to lookup invite code from relay: {}", e.getMessage());
-			return new InviteLookupResult(InviteStatus.UNREACHABLE, null);
-		}
+			return unreachable;
+		}, unreachable);
 	}
 
 	/**
@@ -770,44 +800,88 @@ public class RelaySyncService
 	 * Fetch the stored catch-up snapshot for a group over REST and hand it to the
 	 * state handler with a null publisher (authoritative full-state catch-up).
 	 * This is a request the client initiates to the configured relay, so the
-	 * response is trusted without a per-message signature. Blocking — run off the EDT.
+	 * response is trusted without a per-message signature.
 	 *
-	 * @return true when the fetch completed (snapshot applied, or the relay
-	 *         definitively has no/invalid state for this group — nothing to retry);
-	 *         false on a transport failure (timeout, cold-start, non-2xx) that the
-	 *         caller should retry with backoff.
+	 * Non-blocking: the request is enqueued, the body is read and verified on an
+	 * OkHttp dispatcher thread, and only the apply step runs on applyExecutor, so
+	 * the caller's sync thread never waits on the network. Cancelling the returned
+	 * future cancels the in-flight call.
+	 * A record identical to the last one applied (a 304 against our If-None-Match,
+	 * or a body with the same digest) completes true without being re-applied.
+	 *
+	 * @return a future completing with true when the fetch completed (snapshot
+	 *         applied, or the relay definitively has no/invalid state for this
+	 *         group — nothing to retry); false on a transport failure (timeout,
+	 *         cold-start, non-2xx) that the caller should retry with backoff.
 	 */
-	public boolean fetchStateSnapshot(String groupId)
+	public CompletableFuture<Boolean> fetchStateSnapshotAsync(String groupId, Executor applyExecutor)
 	{
-		if (config == null || !config.enableRelaySync() || groupId == null) return true;
+		if (config == null || !config.enableRelaySync() || groupId == null) return CompletableFuture.completedFuture(true);
 
 		String baseUrl = getRestBaseUrl();
-		if (baseUrl == null) return true;
+		if (baseUrl == null) return CompletableFuture.completedFuture(true);
 
+		Request request;
 		try
 		{
-			// Built inside the try: url() throws IllegalArgumentException on a
-			// malformed relay URL (e.g. configured without a scheme), and an
-			// escape here would leak past the caller's bookkeeping.
-			Request request = new Request.Builder()
+			// url() throws IllegalArgumentException on a malformed relay URL (e.g.
+			// configured without a scheme), and an escape here would leak past the
+			// caller's bookkeeping.
+			Request.Builder builder = new Request.Builder()
 				.url(baseUrl + "/api/state/" + groupId)
-				.get()
-				.build();
-
-			try (Response response = getRestClient().newCall(request).execute())
+				.get();
+			String etag = catchUpEtags.get(groupId);
+			if (etag != null)
 			{
+				builder.header("If-None-Match", etag);
+			}
+			request = builder.build();
+		}
+		catch (Exception e)
+		{
+			log.warn("Failed to fetch catch-up state from relay: {}", e.getMessage());
+			return CompletableFuture.completedFuture(false);
+		}
+
+		CompletableFuture<CatchUpState> fetch = callAsync(request, response ->
+		{
 			if (response.code() == 404)
 			{
 				// Relay answered: it has no stored state for this group (new group,
 				// or storage wiped). Nothing to catch up on — don't retry.
-				return true;
+				return CatchUpState.DONE;
+			}
+			if (response.code() == 304)
+			{
+				// Stored record is exactly the one we last applied. Already merged.
+				log.debug("Catch-up state for group {} unchanged (304)", groupId);
+				return CatchUpState.DONE;
 			}
 			if (!response.isSuccessful() || response.body() == null)
 			{
-				return false;
+				return CatchUpState.RETRY;
 			}
+			String etag = response.header("ETag");
 			JsonObject json = gson.fromJson(response.body().string(), JsonObject.class);
-			if (json == null) return true;
+			if (json == null) return CatchUpState.DONE;
+
+			String groupJson = json.has("groupJson") && !json.get("groupJson").isJsonNull()
+				? json.get("groupJson").getAsString() : null;
+			String dataJson = json.has("dataJson") && !json.get("dataJson").isJsonNull()
+				? json.get("dataJson").getAsString() : null;
+			String signature = json.has("signature") && !json.get("signature").isJsonNull()
+				? json.get("signature").getAsString() : null;
+			String digest = contentDigest(groupJson, dataJson, signature);
+			// Same body as the last catch-up we applied: the merge is last-write-wins,
+			// so re-applying it would change nothing. A false match would silently
+			// drop a changed snapshot (and we'd then publish our older state over
+			// it), so the digest is a full SHA-256, not a hash code.
+			String appliedDigest = catchUpDigests.get(groupId);
+			if (digest != null && digest.equals(appliedDigest))
+			{
+				log.debug("Catch-up state for group {} unchanged since last apply", groupId);
+				return CatchUpState.DONE;
+			}
 
 			// Verify the stored snapshot was signed by a member holding the group
 			// secret. The relay stores whatever it's sent (and anyone who knows the
@@ -827,16 +901,18 @@ public class RelaySyncService
 				// A snapshot the relay HAS but we can't verify won't get better on
 				// retry (e.g. stored by an old client before signing was rolled out).
 				log.warn("Dropping catch-up state for group {}: invalid or missing signature", groupId);
-				return true;
+				return CatchUpState.DONE;
 			}
 
-			String groupJson = json.has("groupJson") && !json.get("groupJson").isJsonNull()
-				? json.get("groupJson").getAsString() : null;
-			String dataJson = json.has("dataJson") && !json.get("dataJson").isJsonNull()
-				? json.get("dataJson").getAsString() : null;
-			if (groupJson != null && onStateReceived != null)
+			return groupJson != null ? new CatchUpState(groupJson, dataJson, etag, digest) : CatchUpState.DONE;
+		}, CatchUpState.RETRY);
+
+		CompletableFuture<Boolean> applied = fetch.thenApplyAsync(state ->
+		{
+			if (state == CatchUpState.RETRY) return false;
+			if (state.groupJson != null && onStateReceived != null)
 			{
-				onStateReceived.accept(groupJson, dataJson, null);
+				onStateReceived.accept(state.groupJson, state.dataJson, null);
 
 				// The catch-up snapshot can be marginally older than a live state we
 				// already applied (it was read from the store before that push), and
@@ -846,14 +922,75 @@ public class RelaySyncService
 				// would stick until their content actually changed.
 				String prefix = groupId + ":";
 				lastStateHash.keySet().removeIf(k -> k.startsWith(prefix));
+
+				// Recorded only after the apply, so a failed apply is retried in full.
+				if (state.digest != null)
+				{
+					catchUpDigests.put(groupId, state.digest);
+				}
+				if (state.etag != null)
+				{
+					catchUpEtags.put(groupId, state.etag);
+				}
+				else
+				{
+					catchUpEtags.remove(groupId);
+				}
 			}
 			return true;
+		}, applyExecutor);
+		// Cancelling the caller's handle must reach the HTTP call underneath.
+		applied.whenComplete((r, e) -> { if (applied.isCancelled()) fetch.cancel(true); });
+		return applied;
+	}
+
+	/** Parsed catch-up response, handed from the OkHttp thread to the apply executor. */
+	private static final class CatchUpState
+	{
+		static final CatchUpState DONE = new CatchUpState(null, null, null, null);
+		static final CatchUpState RETRY = new CatchUpState(null, null, null, null);
+
+		final String groupJson;
+		final String dataJson;
+		final String etag;
+		final String digest;
+
+		CatchUpState(String groupJson, String dataJson, String etag, String digest)
+		{
+			this.groupJson = groupJson;
+			this.dataJson = dataJson;
+			this.etag = etag;
+			this.digest = digest;
+		}
+	}
+
+	/**
+	 * SHA-256 (hex) over a catch-up body's fields, each length-prefixed so no
+	 * two different bodies can run together into the same input. Null if the
+	 * JVM has no SHA-256, in which case nothing is ever skipped.
+	 */
+	private static String contentDigest(String... fields)
+	{
+		try
+		{
+			java.security.MessageDigest md = java.security.MessageDigest.getInstance("SHA-256");
+			for (String field : fields)
+			{
+				byte[] bytes = field != null ? field.getBytes(StandardCharsets.UTF_8) : new byte[0];
+				md.update((field != null ? bytes.length + ":" : "-:").getBytes(StandardCharsets.UTF_8));
+				md.update(bytes);
+			}
+			byte[] hash = md.digest();
+			StringBuilder sb = new StringBuilder(hash.length * 2);
+			for (byte b : hash)
+			{
+				sb.append(String.format("%02x", b));
 			}
+			return sb.toString();
 		}
-		catch (Exception e)
+		catch (java.security.NoSuchAlgorithmException e)
 		{
-			log.warn("Failed to fetch catch-up state from relay: {}", e.getMessage());
-			return false;
+			return null;
 		}
 	}
 
@@ -948,6 +1085,16 @@ public class RelaySyncService
 		this.onPresenceReceived = callback;
 	}
 
+	/**
+	 * Called for each incremental presence change the relay sends between full
+	 * presence broadcasts. The full "presence" list is still applied through
+	 * setOnPresenceReceived as the periodic authoritative resync.
+	 */
+	public void setOnPresenceDelta(PresenceDeltaHandler callback)
+	{
+		this.onPresenceDelta = callback;
+	}
+
 	/** Supplies the local player's current world for presence reporting. */
 	public void setLocalWorldSupplier(java.util.function.IntSupplier supplier)
 	{
@@ -993,10 +1140,12 @@ public class RelaySyncService
 			.get()
 			.build();
 
-		long nextDelayMs = KEEPALIVE_INTERVAL_MS;
-
-		try (Response response = getRestClient().newCall(request).execute())
+		// Enqueued rather than executed: a cold-start wake holds the request open for
+		// up to 90s, which would otherwise pin the keepalive thread for all of it.
+		// The next ping is scheduled from the callback once the answer arrives.
+		callAsync(request, response ->
 		{
+			long nextDelayMs = KEEPALIVE_INTERVAL_MS;
 			if (response.isSuccessful() && response.body() != null)
 			{
 				JsonObject json = gson.fromJson(response.body().string(), JsonObject.class);
@@ -1018,14 +1167,8 @@ public class RelaySyncService
 				log.debug("Keepalive got HTTP {}, retry in {}s",
 					response.code(), nextDelayMs / 1000);
 			}
-		}
-		catch (Exception e)
-		{
-			log.debug("Keepalive failed ({}), retry in {}s",
-				e.getMessage(), nextDelayMs / 1000);
-		}
-
-		scheduleNextKeepalive(nextDelayMs);
+			return nextDelayMs;
+		}, KEEPALIVE_INTERVAL_MS).thenAccept(this::scheduleNextKeepalive);
 	}
 
 	private void scheduleNextKeepalive(long delayMs)
@@ -1041,6 +1184,93 @@ public class RelaySyncService
 
 	// --- Internal Helpers ---
 
+	/** Reads a REST response into a result; runs on an OkHttp dispatcher thread. */
+	@FunctionalInterface
+	private interface ResponseParser<T>
+	{
+		T parse(Response response) throws java.io.IOException;
+	}
+
+	/**
+	 * Enqueue a REST call and complete the returned future from its callback. A
+	 * transport failure or a parser exception completes it with onFailure (every
+	 * caller maps those to its own "retry" value), so the future only completes
+	 * exceptionally when cancelled — which also cancels the HTTP call.
+	 */
+	private <T> CompletableFuture<T> callAsync(Request request, ResponseParser<T> parser, T onFailure)
+	{
+		CompletableFuture<T> future = new CompletableFuture<>();
+		Call call = getRestClient().newCall(request);
+		future.whenComplete((r, e) -> { if (future.isCancelled()) call.cancel(); });
+		call.enqueue(new Callback()
+		{
+			@Override
+			public void onFailure(Call c, java.io.IOException e)
+			{
+				if (!c.isCanceled())
+				{
+					log.warn("Relay request {} failed: {}", request.url().encodedPath(), e.getMessage());
+				}
+				future.complete(onFailure);
+			}
+
+			@Override
+			public void onResponse(Call c, Response response)
+			{
+				try (Response r = response)
+				{
+					future.complete(parser.parse(r));
+				}
+				catch (Exception e)
+				{
+					log.warn("Relay request {} failed: {}", request.url().encodedPath(), e.getMessage());
+					future.complete(onFailure);
+				}
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Run attempt() until shouldRetry rejects its result or the schedule runs out,
+	 * waiting delaysMs[n] before attempt n without blocking a thread. Cancelling
+	 * the returned future stops the chain and cancels the attempt in flight.
+	 */
+	private <T> CompletableFuture<T> retryAsync(java.util.function.Supplier<CompletableFuture<T>> attempt,
+		java.util.function.Predicate<T> shouldRetry, long[] delaysMs)
+	{
+		CompletableFuture<T> result = new CompletableFuture<>();
+		runAttempt(attempt, shouldRetry, delaysMs, 0, result);
+		return result;
+	}
+
+	private <T> void runAttempt(java.util.function.Supplier<CompletableFuture<T>> attempt,
+		java.util.function.Predicate<T> shouldRetry, long[] delaysMs, int n, CompletableFuture<T> result)
+	{
+		if (result.isDone()) return;
+		CompletableFuture<T> inFlight = attempt.get();
+		result.whenComplete((r, e) -> { if (result.isCancelled()) inFlight.cancel(true); });
+		inFlight.whenComplete((value, err) ->
+		{
+			if (result.isDone()) return;
+			if (err != null)
+			{
+				result.completeExceptionally(err);
+			}
+			else if (shouldRetry.test(value) && n + 1 < delaysMs.length)
+			{
+				log.debug("Relay request attempt {} failed, retrying in {}s (relay may be cold-starting)",
+					n + 1, delaysMs[n + 1] / 1000);
+				CompletableFuture.delayedExecutor(delaysMs[n + 1], TimeUnit.MILLISECONDS)
+					.execute(() -> runAttempt(attempt, shouldRetry, delaysMs, n + 1, result));
+			}
+			else
+			{
+				result.complete(value);
+			}
+		});
+	}
+
 	private String getRestBaseUrl()
 	{
 		if (config == null) return null;
@@ -1252,7 +1482,8 @@ public class RelaySyncService
 				else if ("state".equals(type))
 				{
 					// Live state broadcast pushed when another member's data changed.
-					// (Join catch-up is fetched over REST via fetchStateSnapshot, not here.)
+					// (Join catch-up is fetched over REST by fetchStateSnapshotAsync and
+					// applied in GroupService.onCatchUpFetched, not here.)
 					// Verify the HMAC and freshness before applying — an unsigned or
 					// forged push must never be able to overwrite local data.
 					if (!verifyStateSignature(msg))
@@ -1346,6 +1577,26 @@ public class RelaySyncService
 					Consumer<java.util.Map<String, Integer>> cb = onPresenceReceived;
 					if (cb != null) { cb.accept(present); }
 				}
+				else if ("presence_join".equals(type) || "presence_leave".equals(type)
+					|| "presence_world".equals(type))
+				{
+					// Single-member delta between full presence broadcasts: one login,
+					// logout or world hop. Same room guard as the full list; applying it
+					// touches one index entry and one roster row instead of the whole set.
+					String presenceGroup = msg.has("groupId") && !msg.get("groupId").isJsonNull()
+						? msg.get("groupId").getAsString() : null;
+					String activeGroup = currentGroupId;
+					if (presenceGroup != null && activeGroup != null && !presenceGroup.equals(activeGroup))
+					{
+						return;
+					}
+					if (!msg.has("name") || msg.get("name").isJsonNull()) return;
+					String name = msg.get("name").getAsString();
+					if (name.isEmpty()) return;
+					int w = msg.has("world") && !msg.get("world").isJsonNull() ? msg.get("world").getAsInt() : 0;
+					PresenceDeltaHandler cb = onPresenceDelta;
+					if (cb != null) { cb.accept(name.toLowerCase(), w, !"presence_leave".equals(type)); }
+				}
 			}
 			catch (Exception e)
 			{
@@ -1,11 +1,11 @@
 package com.guess34.lendingtracker.services;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -27,14 +27,17 @@ import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetType;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.game.ItemManager;
-import net.runelite.client.game.ItemVariationMapping;
 import net.runelite.client.util.QuantityFormatter;
 import net.runelite.client.util.Text;
 
 import com.guess34.lendingtracker.LendingTrackerConfig;
 import com.guess34.lendingtracker.LendingTrackerConfig.GuardMode;
+import com.guess34.lendingtracker.model.ItemSet;
 import com.guess34.lendingtracker.model.LendingEntry;
 import com.guess34.lendingtracker.model.LendingGroup;
+import com.guess34.lendingtracker.util.IntIntMap;
+import com.guess34.lendingtracker.util.ItemBases;
+import com.guess34.lendingtracker.util.IntSet;
 
 /**
  * TradeLoanTracker - records loans and returns directly from the player-to-player
@@ -77,6 +80,8 @@ public class TradeLoanTracker
 	@Inject private DataService dataService;
 	@Inject private GroupService groupService;
 	@Inject private ProofScreenshot proofScreenshot;
+	@Inject private ContainerSnapshots containers;
+	@Inject private AtRiskSet atRiskSet;
 
 	/** Runnable the plugin sets to refresh the side panel after a change. */
 	private Runnable onLoanRecorded;
@@ -87,8 +92,10 @@ public class TradeLoanTracker
 	// Exact item ids marked "Lend" (NOT variation-base ids: matching by base would
 	// let a different variant of the same item — e.g. a glory(4) offered after
 	// unoffering a marked glory(6) — silently become a loan)
-	private final Set<Integer> markedItemIds = new HashSet<>();
-	private final Set<Integer> warnedBaseIds = new HashSet<>();
+	private final IntSet markedItemIds = new IntSet();
+	private final IntSet warnedBaseIds = new IntSet();
+	// Set once this menu build has its Mark/Unmark entry; cleared by onMenuBuilt()
+	private boolean markEntryAdded;
 	private Item[] finalMyOffer;
 	private Item[] finalTheirOffer;
 	// True once the confirm screen (334) has loaded for this session. Used by the
@@ -129,12 +136,6 @@ public class TradeLoanTracker
 	private boolean collatMode;
 	private Widget collatButton;
 	private Widget collatButtonBg;
-	// Last-known bank contents per variation-base id, for the fungible-duplicate
-	// guard logic (see atRiskCarrying). Only populated once the bank has been
-	// opened this session; cleared on logout so one account's bank can never
-	// vouch for another's collateral.
-	private final Map<Integer, Integer> bankQtyByBase = new HashMap<>();
-	private boolean bankKnown;
 
 	// Trades that completed before their popup was answered, keyed by session id;
 	// a late "yes" records from here. Cleared on logout/shutdown so a stale stash
@@ -291,7 +292,7 @@ public class TradeLoanTracker
 		String me = localPlayerName();
 		if (me != null && partner != null)
 		{
-			for (LendingEntry e : dataService.getActiveEntries())
+			for (LendingEntry e : dataService.getActiveEntriesBetween(me, partner))
 			{
 				if (!e.isReturned() && me.equalsIgnoreCase(e.getLender())
 					&& partner.equalsIgnoreCase(e.getBorrower()))
@@ -353,13 +354,13 @@ public class TradeLoanTracker
 		// Items I owe back to THIS partner (I'm their borrower) are returns, not
 		// new lends — a return trade must never trip the loan popup. This is the
 		// role fix for "traded back and it asked/recorded like I was lending".
-		Set<Integer> owedBases = baseIdsIOweTo(partner);
+		IntSet owedBases = baseIdsIOweTo(partner);
 
 		List<String> listedNames = new ArrayList<>();
 		for (Item item : offerItems)
 		{
 			if (item != null && item.getId() > 0 && isListedForLending(item.getId())
-				&& !owedBases.contains(ItemVariationMapping.map(item.getId())))
+				&& !owedBases.contains(ItemBases.base(item.getId())))
 			{
 				listedNames.add(itemName(item.getId()));
 			}
@@ -672,26 +673,7 @@ public class TradeLoanTracker
 		promptOpen = false;
 		// Logout hook: forget the bank snapshot too — guards fall back to cautious
 		// until this (possibly different) account opens its own bank.
-		bankQtyByBase.clear();
-		bankKnown = false;
-	}
-
-	/** The bank container changed (it's open) — snapshot quantities per base id. */
-	public void onBankUpdated(Item[] items)
-	{
-		bankQtyByBase.clear();
-		bankKnown = true;
-		if (items == null)
-		{
-			return;
-		}
-		for (Item item : items)
-		{
-			if (item != null && item.getId() > 0)
-			{
-				bankQtyByBase.merge(ItemVariationMapping.map(item.getId()), item.getQuantity(), Integer::sum);
-			}
-		}
+		containers.reset();
 	}
 
 	/** Is this item (or a variant of it) listed by me on the group marketplace? */
@@ -710,10 +692,10 @@ public class TradeLoanTracker
 		{
 			return false;
 		}
-		int baseId = ItemVariationMapping.map(itemId);
+		int baseId = ItemBases.base(itemId);
 		for (LendingEntry offering : dataService.getOfferingsByOwner(group.getId(), me))
 		{
-			if (ItemVariationMapping.map(offering.getItemId()) == baseId)
+			if (ItemBases.base(offering.getItemId()) == baseId)
 			{
 				return true;
 			}
@@ -859,15 +841,10 @@ public class TradeLoanTracker
 		// The engine fires one MenuEntryAdded per vanilla option on the hovered
 		// slot (Remove-1/-5/-All/...) — only add our entry once per menu build, on
 		// the first of them, so it can't stack up or become the left-click default.
-		for (net.runelite.api.MenuEntry existing : client.getMenuEntries())
+		// A flag cleared by onMenuBuilt() stands in for scanning a copy of the menu.
+		if (markEntryAdded)
 		{
-			String opt = existing.getOption();
-			if ((MARK_OPTION.equals(opt) || UNMARK_OPTION.equals(opt))
-				&& existing.getParam0() == event.getActionParam0()
-				&& existing.getParam1() == event.getActionParam1())
-			{
-				return;
-			}
+			return;
 		}
 
 		int itemId = resolveOfferItemId(event.getActionParam0());
@@ -876,6 +853,8 @@ public class TradeLoanTracker
 			return;
 		}
 
+		markEntryAdded = true;
+
 		boolean marked = markedItemIds.contains(itemId);
 		client.createMenuEntry(-1)
 			.setOption(marked ? UNMARK_OPTION : MARK_OPTION)
@@ -886,6 +865,12 @@ public class TradeLoanTracker
 			.setIdentifier(itemId);
 	}
 
+	/** The menu build is over (PostMenuSort); the next one may add its entry again. */
+	public void onMenuBuilt()
+	{
+		markEntryAdded = false;
+	}
+
 	/**
 	 * Handle a menu click: loan mark toggles, decline detection, and the borrowed
 	 * item guards. Returns true when the event was fully handled (consumed).
@@ -976,7 +961,7 @@ public class TradeLoanTracker
 			return false;
 		}
 
-		int baseId = ItemVariationMapping.map(itemId);
+		int baseId = ItemBases.base(itemId);
 
 		// Giving the item back to its lender is the trade we WANT — never impede it
 		if (partner != null && partner.equalsIgnoreCase(borrowed.getLender()))
@@ -1057,7 +1042,7 @@ public class TradeLoanTracker
 					continue;
 				}
 				// Trading a covered spare of your own is fine too
-				if (tradeAwayCovered(ItemVariationMapping.map(item.getId())))
+				if (tradeAwayCovered(ItemBases.base(item.getId())))
 				{
 					continue;
 				}
@@ -1084,20 +1069,19 @@ public class TradeLoanTracker
 			return false;
 		}
 
-		List<LendingEntry> borrowed = carriedBorrowedEntries();
-		List<LendingEntry> collateral = carriedCollateralEntries();
-		if (borrowed.isEmpty() && collateral.isEmpty())
+		if (atRiskSet.isEmpty())
 		{
 			return false;
 		}
+		List<LendingEntry> borrowed = atRiskSet.getBorrowed();
+		List<LendingEntry> collateral = atRiskSet.getCollateral();
 
 		event.consume();
 		StringBuilder what = new StringBuilder();
 		if (!borrowed.isEmpty())
 		{
-			long total = borrowed.stream().mapToLong(LendingEntry::getValue).sum();
 			what.append(borrowed.size()).append(" borrowed item(s) worth ")
-				.append(QuantityFormatter.quantityToStackSize(total)).append(" GP");
+				.append(QuantityFormatter.quantityToStackSize(atRiskSet.getBorrowedValue())).append(" GP");
 		}
 		if (!collateral.isEmpty())
 		{
@@ -1112,94 +1096,6 @@ public class TradeLoanTracker
 		return true;
 	}
 
-	/**
-	 * Borrowed items currently in the player's inventory or equipment.
-	 * Used by the wilderness guards (both the ditch block and the entry warning).
-	 */
-	public List<LendingEntry> carriedBorrowedEntries()
-	{
-		String me = localPlayerName();
-		if (me == null)
-		{
-			return new ArrayList<>();
-		}
-
-		Map<Integer, Integer> carried = carriedQuantitiesByBase();
-		Map<Integer, Integer> owedByBase = totalOwedByBase();
-
-		List<LendingEntry> result = new ArrayList<>();
-		for (LendingEntry e : dataService.getActiveEntries())
-		{
-			if (!e.isReturned() && me.equalsIgnoreCase(e.getBorrower())
-				&& e.outstandingLentQty() > 0
-				&& atRiskCarrying(carried, owedByBase, ItemVariationMapping.map(e.getItemId())))
-			{
-				result.add(e);
-			}
-		}
-		return result;
-	}
-
-	/**
-	 * Items are fungible: what matters is never WHICH copy you hold, only that
-	 * you can still cover what you owe. Carrying a base item is AT RISK only when
-	 * the bank no longer covers the TOTAL owed of that base across ALL open
-	 * obligations — so someone with a spare in the bank can freely carry their
-	 * own copy, but one banked spare can never vouch for two debts at once.
-	 * Bank contents are only known after the bank has been opened this session;
-	 * until then banked counts as 0 (the cautious old behavior).
-	 */
-	private boolean atRiskCarrying(Map<Integer, Integer> carried, Map<Integer, Integer> owedByBase, int baseId)
-	{
-		int owed = owedByBase.getOrDefault(baseId, 0);
-		if (owed <= 0)
-		{
-			return false;
-		}
-		int carriedQty = carried.getOrDefault(baseId, 0);
-		if (carriedQty <= 0)
-		{
-			return false;
-		}
-		int banked = bankKnown ? bankQtyByBase.getOrDefault(baseId, 0) : 0;
-		return banked < owed;
-	}
-
-	/**
-	 * TOTAL quantity owed per variation-base id across ALL my open obligations:
-	 * items I borrowed (owed back to their lenders) plus collateral I hold (owed
-	 * back to borrowers). Aggregated so coverage checks can't double-count one
-	 * banked spare against several debts of the same item.
-	 */
-	private Map<Integer, Integer> totalOwedByBase()
-	{
-		Map<Integer, Integer> owed = new HashMap<>();
-		String me = localPlayerName();
-		if (me == null)
-		{
-			return owed;
-		}
-		for (LendingEntry e : dataService.getActiveEntries())
-		{
-			if (me.equalsIgnoreCase(e.getBorrower()))
-			{
-				int q = e.outstandingLentQty();
-				if (q > 0)
-				{
-					owed.merge(ItemVariationMapping.map(e.getItemId()), q, Integer::sum);
-				}
-			}
-			if (me.equalsIgnoreCase(e.getLender()))
-			{
-				for (int[] pair : parseIdQtyPairs(e.outstandingCollateralIds()))
-				{
-					owed.merge(ItemVariationMapping.map(pair[0]), pair[1], Integer::sum);
-				}
-			}
-		}
-		return owed;
-	}
-
 	/**
 	 * May I trade a copy of this base item AWAY (to a non-lender) without going
 	 * below what I owe? True when the bank plus what I'd still be carrying after
@@ -1208,62 +1104,17 @@ public class TradeLoanTracker
 	 */
 	private boolean tradeAwayCovered(int baseId)
 	{
-		if (!bankKnown)
+		String me = localPlayerName();
+		if (!containers.isBankKnown() || me == null)
 		{
 			return false;
 		}
-		int owed = totalOwedByBase().getOrDefault(baseId, 0);
+		int owed = dataService.getObligations().owed(me, baseId);
 		if (owed <= 0)
 		{
 			return true;
 		}
-		int banked = bankQtyByBase.getOrDefault(baseId, 0);
-		int carried = carriedQuantitiesByBase().getOrDefault(baseId, 0);
-		return banked + carried >= owed;
-	}
-
-	/** Carried (inventory + worn) quantities per variation-base id. */
-	private Map<Integer, Integer> carriedQuantitiesByBase()
-	{
-		Map<Integer, Integer> carried = new HashMap<>();
-		collectBaseQuantities(carried, InventoryID.INV);
-		collectBaseQuantities(carried, InventoryID.WORN);
-		return carried;
-	}
-
-	/**
-	 * Active loans I LENT whose item-collateral I'm currently carrying (inventory
-	 * or equipment). The lender is responsible for the borrower's collateral until
-	 * the loan settles, so the wilderness guards treat it like borrowed gear.
-	 */
-	public List<LendingEntry> carriedCollateralEntries()
-	{
-		String me = localPlayerName();
-		if (me == null)
-		{
-			return new ArrayList<>();
-		}
-
-		Map<Integer, Integer> carried = carriedQuantitiesByBase();
-		Map<Integer, Integer> owedByBase = totalOwedByBase();
-
-		List<LendingEntry> result = new ArrayList<>();
-		for (LendingEntry e : dataService.getActiveEntries())
-		{
-			if (e.isReturned() || !me.equalsIgnoreCase(e.getLender()))
-			{
-				continue;
-			}
-			for (int[] pair : parseIdQtyPairs(e.outstandingCollateralIds()))
-			{
-				if (atRiskCarrying(carried, owedByBase, ItemVariationMapping.map(pair[0])))
-				{
-					result.add(e);
-					break;
-				}
-			}
-		}
-		return result;
+		return containers.bankQty(baseId) + containers.carriedQty(baseId) >= owed;
 	}
 
 	/** Parse an "itemId:qty,itemId:qty" string into [id, qty] pairs (qty >= 1). */
@@ -1339,7 +1190,7 @@ public class TradeLoanTracker
 			// Raw GP is NEVER a lendable item — coins/platinum in a loan trade are
 			// collateral (or its return, or payment); recording a "Coins loan" would
 			// double-count the same GP the tally just consumed.
-			Set<Integer> loanItemIds = new HashSet<>(markedItemIds);
+			IntSet loanItemIds = new IntSet(markedItemIds);
 			loanItemIds.remove(ItemID.COINS_995);
 			loanItemIds.remove(ItemID.PLATINUM_TOKEN);
 			if (autoLoanAll && finalMyOffer != null)
@@ -1368,32 +1219,45 @@ public class TradeLoanTracker
 			// lends — the lender's client records the tally, mine just stays quiet.
 			if (!loanItemIds.isEmpty())
 			{
-				Set<Integer> owedBases = baseIdsIOweTo(partner);
+				IntSet owedBases = baseIdsIOweTo(partner);
 				if (!owedBases.isEmpty())
 				{
-					loanItemIds.removeIf(id -> owedBases.contains(ItemVariationMapping.map(id)));
+					loanItemIds.removeIf(id -> owedBases.contains(ItemBases.base(id)));
 				}
 			}
 
-			List<LendingEntry> newLoans = recordLoans(loanItemIds, tally);
-
+			// Stashed before the returns below are applied: it excludes what I still
+			// owe this partner, which those returns are about to change.
 			PendingLoanDecision stashedNow = null;
 			if (!collatMode && loanPromptShown && autoLoanAccepted == null)
 			{
 				stashedNow = stashPendingDecision(loanItemIds, tally);
 			}
 
-			for (LendingEntry e : tally.closed)
-			{
-				dataService.completeEntry(e.getId(), true);
-				relistReturnedItem(e);
-				addGameMessage("Return complete: " + e.getItemName() + " — loan with " + partner + " fully settled.");
-			}
-			for (LendingEntry e : tally.progressed)
+			// New loans, returns and re-listings from one trade land as ONE change:
+			// one snapshot write and one publish, however many items moved.
+			List<LendingEntry> newLoans = new ArrayList<>();
+			LendingGroup tradeGroup = groupService.getActiveGroup();
+			dataService.batch(tradeGroup != null ? tradeGroup.getId() : null, tx ->
 			{
-				dataService.updateEntryProgress(e);
-				addGameMessage("Return progress recorded — " + outstandingSummary(e) + ".");
-			}
+				newLoans.addAll(recordLoans(loanItemIds, tally));
+
+				for (LendingEntry e : tally.closed)
+				{
+					tx.completeEntry(e.getId(), true);
+					relistReturnedItem(e);
+					addGameMessage("Return complete: " + e.getItemName() + " — loan with " + partner + " fully settled.");
+				}
+				for (LendingEntry e : tally.progressed)
+				{
+					tx.updateEntryProgress(e);
+					addGameMessage("Return progress recorded — " + outstandingSummary(e) + ".");
+				}
+				for (String setName : tally.closedSetNames)
+				{
+					addGameMessage("Set loan complete: " + setName + " — every piece is home.");
+				}
+			});
 
 			if (collatMode)
 			{
@@ -1467,10 +1331,11 @@ public class TradeLoanTracker
 	{
 		final List<LendingEntry> closed = new ArrayList<>();      // fully settled, both sides home
 		final List<LendingEntry> progressed = new ArrayList<>();  // partial — still open, tallies updated
+		final List<String> closedSetNames = new ArrayList<>();    // set loans whose last open piece closed
 		// What this trade consumed as returns, per variation-base id — used to keep
 		// those quantities out of new-loan / collateral aggregation.
-		final Map<Integer, Integer> consumedTheirQtyByBase = new HashMap<>();
-		final Map<Integer, Integer> consumedMyQtyByBase = new HashMap<>();
+		final IntIntMap consumedTheirQtyByBase = new IntIntMap();
+		final IntIntMap consumedMyQtyByBase = new IntIntMap();
 
 		boolean any()
 		{
@@ -1508,18 +1373,18 @@ public class TradeLoanTracker
 		}
 
 		// Pools of what actually changed hands, per variation-base id
-		Map<Integer, Integer> theirByBase = new HashMap<>();
+		IntIntMap theirByBase = new IntIntMap();
 		if (finalTheirOffer != null)
 		{
 			for (Item item : finalTheirOffer)
 			{
 				if (item != null && item.getId() > 0)
 				{
-					theirByBase.merge(ItemVariationMapping.map(item.getId()), item.getQuantity(), Integer::sum);
+					theirByBase.add(ItemBases.base(item.getId()), item.getQuantity());
 				}
 			}
 		}
-		Map<Integer, Integer> myByBase = new HashMap<>();
+		IntIntMap myByBase = new IntIntMap();
 		long myGp = 0;
 		if (finalMyOffer != null)
 		{
@@ -1539,7 +1404,7 @@ public class TradeLoanTracker
 				}
 				else
 				{
-					myByBase.merge(ItemVariationMapping.map(item.getId()), item.getQuantity(), Integer::sum);
+					myByBase.add(ItemBases.base(item.getId()), item.getQuantity());
 				}
 			}
 		}
@@ -1548,40 +1413,51 @@ public class TradeLoanTracker
 			return tally;
 		}
 
-		// Reserve quantities I owe THIS partner as their borrower: those hand-overs
-		// settle MY debt on their client's records — the same physical item must
-		// not also be consumed here as a collateral return on a loan I lent
-		// (cross-loans with the same base item would let one item settle two
-		// obligations across the two clients).
-		for (LendingEntry e : dataService.getActiveEntries())
+		// Every open loan between the two of us, both directions, in one read of
+		// the pair index — however many loans either of us has with anyone else.
+		List<LendingEntry> candidates = new ArrayList<>();
+		for (LendingEntry e : dataService.getActiveEntriesBetween(me, partner))
 		{
-			if (me.equalsIgnoreCase(e.getBorrower())
-				&& partner.equalsIgnoreCase(e.getLender()))
+			if (me.equalsIgnoreCase(e.getBorrower()) && partner.equalsIgnoreCase(e.getLender()))
 			{
+				// Reserve quantities I owe THIS partner as their borrower: those
+				// hand-overs settle MY debt on their client's records — the same
+				// physical item must not also be consumed here as a collateral
+				// return on a loan I lent (cross-loans with the same base item
+				// would let one item settle two obligations across the two clients).
 				int owed = e.outstandingLentQty();
-				if (owed > 0)
+				int baseId = ItemBases.base(e.getItemId());
+				int pool = myByBase.get(baseId);
+				if (owed > 0 && pool > 0)
 				{
-					int baseId = ItemVariationMapping.map(e.getItemId());
-					int pool = myByBase.getOrDefault(baseId, 0);
-					if (pool > 0)
-					{
-						myByBase.put(baseId, Math.max(0, pool - owed));
-					}
+					myByBase.put(baseId, Math.max(0, pool - owed));
 				}
 			}
-		}
-
-		List<LendingEntry> candidates = new ArrayList<>();
-		for (LendingEntry e : dataService.getActiveEntries())
-		{
-			if (!e.isFullySettled()
+			else if (!e.isFullySettled()
 				&& me.equalsIgnoreCase(e.getLender())
 				&& partner.equalsIgnoreCase(e.getBorrower()))
 			{
 				candidates.add(e);
 			}
 		}
-		candidates.sort((a, b) -> Long.compare(a.getLendTime(), b.getLendTime()));
+		// Oldest loan first, with every piece of a set loan kept together at the
+		// position of the set's oldest piece, so one pass settles a returned set
+		// as a unit instead of interleaving it with unrelated loans. The last
+		// tie-break is the entry id, so the order never depends on map iteration.
+		Map<String, Long> setStart = new HashMap<>();
+		for (LendingEntry e : candidates)
+		{
+			if (e.isSetLoanPiece())
+			{
+				setStart.merge(e.getSetLoanId(), e.getLendTime(), Math::min);
+			}
+		}
+		candidates.sort(Comparator
+			.comparingLong((LendingEntry e) -> e.isSetLoanPiece() ? setStart.get(e.getSetLoanId()) : e.getLendTime())
+			.thenComparing(e -> e.isSetLoanPiece() ? e.getSetLoanId() : e.getId(),
+				Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+			.thenComparingLong(LendingEntry::getLendTime)
+			.thenComparing(LendingEntry::getId, Comparator.nullsFirst(Comparator.<String>naturalOrder())));
 
 		for (LendingEntry e : candidates)
 		{
@@ -1591,14 +1467,14 @@ public class TradeLoanTracker
 			int outLent = e.outstandingLentQty();
 			if (outLent > 0)
 			{
-				int baseId = ItemVariationMapping.map(e.getItemId());
-				int available = theirByBase.getOrDefault(baseId, 0);
+				int baseId = ItemBases.base(e.getItemId());
+				int available = theirByBase.get(baseId);
 				int take = Math.min(available, outLent);
 				if (take > 0)
 				{
 					theirByBase.put(baseId, available - take);
 					e.setLentOutstanding(outLent - take);
-					tally.consumedTheirQtyByBase.merge(baseId, take, Integer::sum);
+					tally.consumedTheirQtyByBase.add(baseId, take);
 					changed = true;
 				}
 			}
@@ -1610,14 +1486,14 @@ public class TradeLoanTracker
 				boolean collatChanged = false;
 				for (int[] pair : collatPairs)
 				{
-					int baseId = ItemVariationMapping.map(pair[0]);
-					int available = myByBase.getOrDefault(baseId, 0);
+					int baseId = ItemBases.base(pair[0]);
+					int available = myByBase.get(baseId);
 					int take = Math.min(available, pair[1]);
 					if (take > 0)
 					{
 						myByBase.put(baseId, available - take);
 						pair[1] -= take;
-						tally.consumedMyQtyByBase.merge(baseId, take, Integer::sum);
+						tally.consumedMyQtyByBase.add(baseId, take);
 						collatChanged = true;
 					}
 				}
@@ -1655,6 +1531,23 @@ public class TradeLoanTracker
 				}
 			}
 		}
+
+		// A set loan is complete once every piece it still had open settled here
+		Map<String, Boolean> setsClosing = new LinkedHashMap<>();
+		for (LendingEntry e : candidates)
+		{
+			if (e.isSetLoanPiece())
+			{
+				setsClosing.merge(e.getSetLoanId(), e.isFullySettled(), Boolean::logicalAnd);
+			}
+		}
+		for (LendingEntry e : tally.closed)
+		{
+			if (e.isSetLoanPiece() && Boolean.TRUE.equals(setsClosing.remove(e.getSetLoanId())))
+			{
+				tally.closedSetNames.add(e.getSetName() != null ? e.getSetName() : "item set");
+			}
+		}
 		return tally;
 	}
 
@@ -1663,24 +1556,14 @@ public class TradeLoanTracker
 	 * borrower). Anything matching these in MY offer is a return in progress —
 	 * never a new lend, never a marketplace-popup candidate.
 	 */
-	private Set<Integer> baseIdsIOweTo(String partnerName)
+	private IntSet baseIdsIOweTo(String partnerName)
 	{
-		Set<Integer> bases = new HashSet<>();
 		String me = localPlayerName();
 		if (me == null || partnerName == null)
 		{
-			return bases;
+			return new IntSet();
 		}
-		for (LendingEntry e : dataService.getActiveEntries())
-		{
-			if (e.outstandingLentQty() > 0
-				&& me.equalsIgnoreCase(e.getBorrower())
-				&& partnerName.equalsIgnoreCase(e.getLender()))
-			{
-				bases.add(ItemVariationMapping.map(e.getItemId()));
-			}
-		}
-		return bases;
+		return dataService.getObligations().borrowedBasesFrom(me, partnerName);
 	}
 
 	/** Any open (not fully settled) loan between me and this partner, either direction? */
@@ -1691,15 +1574,9 @@ public class TradeLoanTracker
 		{
 			return false;
 		}
-		for (LendingEntry e : dataService.getActiveEntries())
+		for (LendingEntry e : dataService.getActiveEntriesBetween(me, partner))
 		{
-			if (e.isFullySettled())
-			{
-				continue;
-			}
-			boolean meLender = me.equalsIgnoreCase(e.getLender()) && partner.equalsIgnoreCase(e.getBorrower());
-			boolean meBorrower = me.equalsIgnoreCase(e.getBorrower()) && partner.equalsIgnoreCase(e.getLender());
-			if (meLender || meBorrower)
+			if (!e.isFullySettled())
 			{
 				return true;
 			}
@@ -1735,9 +1612,9 @@ public class TradeLoanTracker
 	}
 
 	/** Exact ids of items in my final offer that I have listed for lending. */
-	private Set<Integer> listedItemIdsInFinalOffer()
+	private IntSet listedItemIdsInFinalOffer()
 	{
-		Set<Integer> result = new HashSet<>();
+		IntSet result = new IntSet();
 		if (finalMyOffer == null)
 		{
 			return result;
@@ -1753,7 +1630,7 @@ public class TradeLoanTracker
 	}
 
 	/** Create loan records for the given item ids present in my final offer. */
-	private List<LendingEntry> recordLoans(Set<Integer> loanItemIds, ReturnTally tally)
+	private List<LendingEntry> recordLoans(IntSet loanItemIds, ReturnTally tally)
 	{
 		List<LendingEntry> created = new ArrayList<>();
 		String me = localPlayerName();
@@ -1770,42 +1647,19 @@ public class TradeLoanTracker
 		}
 
 		// Aggregate loaned offer items by exact id (an offer can hold several stacks)
-		Map<Integer, Integer> lentQuantities = new HashMap<>();
+		IntIntMap lentQuantities = new IntIntMap();
 		for (Item item : finalMyOffer)
 		{
 			if (item != null && item.getId() > 0 && loanItemIds.contains(item.getId()))
 			{
-				lentQuantities.merge(item.getId(), item.getQuantity(), Integer::sum);
+				lentQuantities.add(item.getId(), item.getQuantity());
 			}
 		}
 		// Quantities I handed back as COLLATERAL RETURNS are not new lends — the
 		// tally consumed them; subtract per variation-base so a mixed trade
 		// (returning their deposit while lending something new) records only the
 		// genuinely new part.
-		if (!tally.consumedMyQtyByBase.isEmpty())
-		{
-			Map<Integer, Integer> remainingConsumed = new HashMap<>(tally.consumedMyQtyByBase);
-			for (Map.Entry<Integer, Integer> lent : new ArrayList<>(lentQuantities.entrySet()))
-			{
-				int baseId = ItemVariationMapping.map(lent.getKey());
-				int consumed = remainingConsumed.getOrDefault(baseId, 0);
-				if (consumed <= 0)
-				{
-					continue;
-				}
-				int take = Math.min(consumed, lent.getValue());
-				remainingConsumed.put(baseId, consumed - take);
-				int left = lent.getValue() - take;
-				if (left > 0)
-				{
-					lentQuantities.put(lent.getKey(), left);
-				}
-				else
-				{
-					lentQuantities.remove(lent.getKey());
-				}
-			}
-		}
+		subtractConsumedByBase(lentQuantities, tally.consumedMyQtyByBase);
 		if (lentQuantities.isEmpty())
 		{
 			return created;
@@ -1814,7 +1668,7 @@ public class TradeLoanTracker
 		// The partner's side of a loan trade is collateral. Coins and platinum
 		// tokens count as GP. Quantities the tally consumed as LENT-ITEM RETURNS
 		// are exactly that — returns — so only the leftover is collateral.
-		Map<Integer, Integer> remainingTheirConsumed = new HashMap<>(tally.consumedTheirQtyByBase);
+		IntIntMap remainingTheirConsumed = new IntIntMap(tally.consumedTheirQtyByBase);
 		long collateralGp = 0;
 		List<String> collateralItems = new ArrayList<>();
 		List<String> collateralIdPairs = new ArrayList<>();
@@ -1836,8 +1690,8 @@ public class TradeLoanTracker
 				}
 				else
 				{
-					int baseId = ItemVariationMapping.map(item.getId());
-					int consumed = remainingTheirConsumed.getOrDefault(baseId, 0);
+					int baseId = ItemBases.base(item.getId());
+					int consumed = remainingTheirConsumed.get(baseId);
 					int qty = item.getQuantity();
 					int take = Math.min(consumed, qty);
 					if (take > 0)
@@ -1856,11 +1710,28 @@ public class TradeLoanTracker
 		}
 
 		long dueTime = System.currentTimeMillis() + config.defaultLoanDuration() * 86400000L;
-		boolean first = true;
-		for (Map.Entry<Integer, Integer> lent : lentQuantities.entrySet())
+		// A trade that hands over a whole ItemSet is recorded as one set loan
+		// rather than as unrelated single-item loans.
+		ItemSet lentSet = findLentItemSet(group.getId(), lentQuantities);
+		IntSet setBases = lentSet != null ? itemSetBaseIds(lentSet) : new IntSet();
+		List<LendingEntry> setPieces = new ArrayList<>();
+		// Collateral covers the whole trade — attach it to ONE loan record only, so
+		// several loans from one trade don't multiply the recorded total. When a
+		// set is lent that record is the set's lead piece, so the set carries it.
+		int[] lentIds = lentQuantities.keys();
+		int collateralItemId = lentIds.length > 0 ? lentIds[0] : -1;
+		for (int itemId : lentIds)
 		{
-			int itemId = lent.getKey();
-			int quantity = lent.getValue();
+			if (setBases.contains(ItemBases.base(itemId)))
+			{
+				collateralItemId = itemId;
+				break;
+			}
+		}
+		LendingEntry setLead = null;
+		for (int itemId : lentIds)
+		{
+			int quantity = lentQuantities.get(itemId);
 
 			LendingEntry entry = new LendingEntry();
 			entry.setId(UUID.randomUUID().toString());
@@ -1874,9 +1745,8 @@ public class TradeLoanTracker
 			entry.setCollateralGpOutstanding(0L);
 			// Lender chose one-time: tracked like any loan, never (re)listed on return
 			entry.setOneTime(autoLoanAll && loanOneTime);
-			// Collateral covers the whole trade — attach it to the FIRST loan record
-			// only, so several loans from one trade don't multiply the recorded total
-			if (first)
+			boolean holdsCollateral = itemId == collateralItemId;
+			if (holdsCollateral)
 			{
 				if (collateralGp > 0)
 				{
@@ -1891,6 +1761,18 @@ public class TradeLoanTracker
 					entry.setCollateralOutstandingIds(String.join(",", collateralIdPairs));
 				}
 			}
+			if (setBases.contains(ItemBases.base(itemId)))
+			{
+				// Written below, grouped with the rest of the set
+				setPieces.add(entry);
+				if (holdsCollateral)
+				{
+					setLead = entry;
+				}
+				adjustListingForLoan(group.getId(), me, itemId, quantity);
+				created.add(entry);
+				continue;
+			}
 			dataService.addLoan(group.getId(), me, partner, entry, dueTime);
 			adjustListingForLoan(group.getId(), me, itemId, quantity);
 			created.add(entry);
@@ -1899,13 +1781,97 @@ public class TradeLoanTracker
 				+ (quantity > 1 ? " x" + quantity : "") + " to " + partner
 				+ " (" + config.defaultLoanDuration() + " days"
 				+ (entry.isOneTimeLoan() ? ", one-time" : "")
-				+ (first && collateralGp > 0 ? ", collateral " + QuantityFormatter.quantityToStackSize(collateralGp) + " GP" : "")
+				+ (holdsCollateral && collateralGp > 0 ? ", collateral " + QuantityFormatter.quantityToStackSize(collateralGp) + " GP" : "")
+				+ ").");
+		}
+
+		if (!setPieces.isEmpty())
+		{
+			// Already inside completeTrade's batch: the pieces persist and publish
+			// together with the rest of the trade
+			dataService.addSetLoan(group.getId(), me, partner, lentSet, setPieces, dueTime);
+			long setCollateralGp = setLead != null && setLead.getCollateralGpOutstanding() != null
+				? setLead.getCollateralGpOutstanding() : 0;
+			addGameMessage("Set loan recorded: " + lentSet.getName()
+				+ " (" + setPieces.size() + " item" + (setPieces.size() == 1 ? "" : "s") + ") to " + partner
+				+ " (" + config.defaultLoanDuration() + " days"
+				+ (setPieces.get(0).isOneTimeLoan() ? ", one-time" : "")
+				+ (setCollateralGp > 0 ? ", collateral " + QuantityFormatter.quantityToStackSize(setCollateralGp) + " GP" : "")
 				+ ").");
-			first = false;
 		}
 		return created;
 	}
 
+	/**
+	 * The largest of the group's item sets whose every piece is in this trade's
+	 * lent quantities (matched per variation-base, at least the set's quantity),
+	 * or null if no set was handed over whole.
+	 */
+	private ItemSet findLentItemSet(String groupId, IntIntMap lentQuantities)
+	{
+		IntIntMap lentByBase = new IntIntMap();
+		lentQuantities.forEach((itemId, qty) -> lentByBase.add(ItemBases.base(itemId), qty));
+		ItemSet best = null;
+		for (ItemSet set : dataService.getItemSets(groupId))
+		{
+			List<ItemSet.ItemSetEntry> pieces = set.getItems();
+			if (pieces == null || pieces.size() < 2 || (best != null && pieces.size() <= best.getItems().size()))
+			{
+				continue;
+			}
+			boolean whole = true;
+			for (ItemSet.ItemSetEntry piece : pieces)
+			{
+				int have = lentByBase.get(ItemBases.base(piece.getItemId()));
+				if (have < Math.max(1, piece.getQuantity()))
+				{
+					whole = false;
+					break;
+				}
+			}
+			if (whole)
+			{
+				best = set;
+			}
+		}
+		return best;
+	}
+
+	private static IntSet itemSetBaseIds(ItemSet set)
+	{
+		IntSet bases = new IntSet();
+		for (ItemSet.ItemSetEntry piece : set.getItems())
+		{
+			bases.add(ItemBases.base(piece.getItemId()));
+		}
+		return bases;
+	}
+
+	/**
+	 * Take what the tally consumed as collateral returns (per variation-base) out
+	 * of per-item-id lend quantities. Ids whose quantity reaches 0 are dropped.
+	 */
+	private static void subtractConsumedByBase(IntIntMap qtyById, IntIntMap consumedByBase)
+	{
+		if (consumedByBase.isEmpty())
+		{
+			return;
+		}
+		IntIntMap remaining = new IntIntMap(consumedByBase);
+		for (int itemId : qtyById.keys())
+		{
+			int baseId = ItemBases.base(itemId);
+			int consumed = remaining.get(baseId);
+			if (consumed <= 0)
+			{
+				continue;
+			}
+			int take = Math.min(consumed, qtyById.get(itemId));
+			remaining.add(baseId, -take);
+			qtyById.add(itemId, -take);
+		}
+	}
+
 	/**
 	 * A loan came home — put the item (back) on the group marketplace. Restocks a
 	 * decremented listing, and items that were lent WITHOUT ever being listed join
@@ -1950,10 +1916,10 @@ public class TradeLoanTracker
 	 */
 	private void adjustListingForLoan(String groupId, String me, int itemId, int quantity)
 	{
-		int baseId = ItemVariationMapping.map(itemId);
+		int baseId = ItemBases.base(itemId);
 		for (LendingEntry offering : dataService.getOfferingsByOwner(groupId, me))
 		{
-			if (ItemVariationMapping.map(offering.getItemId()) == baseId)
+			if (ItemBases.base(offering.getItemId()) == baseId)
 			{
 				String ownerKey = offering.getLender() != null ? offering.getLender() : me;
 				if (offering.getQuantity() > quantity)
@@ -1976,7 +1942,7 @@ public class TradeLoanTracker
 	 * everything needed so a late "yes" can still record the loans.
 	 * Already-recorded ids (explicitly marked ones) are excluded.
 	 */
-	private PendingLoanDecision stashPendingDecision(Set<Integer> alreadyRecorded, ReturnTally tally)
+	private PendingLoanDecision stashPendingDecision(IntSet alreadyRecorded, ReturnTally tally)
 	{
 		String me = localPlayerName();
 		LendingGroup group = groupService.getActiveGroup();
@@ -1987,54 +1953,32 @@ public class TradeLoanTracker
 
 		PendingLoanDecision stash = new PendingLoanDecision(sessionId, partner, me, group.getId());
 		// Quantities consumed as returns (either side) never become stashed loans
-		Set<Integer> owedBases = baseIdsIOweTo(partner);
-		Map<Integer, Integer> quantities = new HashMap<>();
+		IntSet owedBases = baseIdsIOweTo(partner);
+		IntIntMap quantities = new IntIntMap();
 		for (Item item : finalMyOffer)
 		{
 			if (item != null && item.getId() > 0 && !alreadyRecorded.contains(item.getId())
 				&& isListedForLending(item.getId())
-				&& !owedBases.contains(ItemVariationMapping.map(item.getId())))
-			{
-				quantities.merge(item.getId(), item.getQuantity(), Integer::sum);
-			}
-		}
-		if (!tally.consumedMyQtyByBase.isEmpty())
-		{
-			Map<Integer, Integer> remainingConsumed = new HashMap<>(tally.consumedMyQtyByBase);
-			for (Map.Entry<Integer, Integer> q : new ArrayList<>(quantities.entrySet()))
+				&& !owedBases.contains(ItemBases.base(item.getId())))
 			{
-				int baseId = ItemVariationMapping.map(q.getKey());
-				int consumed = remainingConsumed.getOrDefault(baseId, 0);
-				if (consumed <= 0)
-				{
-					continue;
-				}
-				int take = Math.min(consumed, q.getValue());
-				remainingConsumed.put(baseId, consumed - take);
-				int left = q.getValue() - take;
-				if (left > 0)
-				{
-					quantities.put(q.getKey(), left);
-				}
-				else
-				{
-					quantities.remove(q.getKey());
-				}
+				quantities.add(item.getId(), item.getQuantity());
 			}
 		}
+		subtractConsumedByBase(quantities, tally.consumedMyQtyByBase);
 		if (quantities.isEmpty())
 		{
 			return null;
 		}
-		for (Map.Entry<Integer, Integer> q : quantities.entrySet())
+		for (int itemId : quantities.keys())
 		{
-			stash.loans.add(new StashedLoan(q.getKey(), q.getValue(), itemName(q.getKey()),
-				(long) itemManager.getItemPrice(q.getKey()) * q.getValue()));
+			int qty = quantities.get(itemId);
+			stash.loans.add(new StashedLoan(itemId, qty, itemName(itemId),
+				(long) itemManager.getItemPrice(itemId) * qty));
 		}
 
 		// Collateral snapshot (same rules as recordLoans: returned lent items are
 		// returns, only the leftover of the partner's offer is collateral)
-		Map<Integer, Integer> remainingTheirConsumed = new HashMap<>(tally.consumedTheirQtyByBase);
+		IntIntMap remainingTheirConsumed = new IntIntMap(tally.consumedTheirQtyByBase);
 		long collateralGp = 0;
 		List<String> collateralItems = new ArrayList<>();
 		List<String> collateralIdPairs = new ArrayList<>();
@@ -2056,8 +2000,8 @@ public class TradeLoanTracker
 				}
 				else
 				{
-					int baseId = ItemVariationMapping.map(item.getId());
-					int consumed = remainingTheirConsumed.getOrDefault(baseId, 0);
+					int baseId = ItemBases.base(item.getId());
+					int consumed = remainingTheirConsumed.get(baseId);
 					int qty = item.getQuantity();
 					int take = Math.min(consumed, qty);
 					if (take > 0)
@@ -2227,11 +2171,11 @@ public class TradeLoanTracker
 		{
 			return null;
 		}
-		int baseId = ItemVariationMapping.map(itemId);
+		int baseId = ItemBases.base(itemId);
 		for (LendingEntry e : dataService.getActiveEntries())
 		{
 			if (!e.isReturned() && me.equalsIgnoreCase(e.getBorrower())
-				&& ItemVariationMapping.map(e.getItemId()) == baseId)
+				&& ItemBases.base(e.getItemId()) == baseId)
 			{
 				return e;
 			}
@@ -2295,24 +2239,6 @@ public class TradeLoanTracker
 		return inv.getItems()[slot].getId();
 	}
 
-	/** Sum quantities per variation-base id from a live container. */
-	private void collectBaseQuantities(Map<Integer, Integer> into, int containerId)
-	{
-		ItemContainer container = client.getItemContainer(containerId);
-		if (container == null)
-		{
-			return;
-		}
-		for (Item item : container.getItems())
-		{
-			if (item != null && item.getId() > 0)
-			{
-				into.merge(ItemVariationMapping.map(item.getId()), item.getQuantity(), Integer::sum);
-			}
-		}
-	}
-
-
 	private String itemName(int itemId)
 	{
 		try
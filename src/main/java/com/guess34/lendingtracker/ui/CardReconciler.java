@@ -0,0 +1,149 @@
+package com.guess34.lendingtracker.ui;
+
+import com.guess34.lendingtracker.model.LendingEntry;
+import java.awt.Component;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.swing.Box;
+import javax.swing.JComponent;
+
+/**
+ * CardReconciler - keeps a panel's cards in step with a keyed list of row
+ * models instead of throwing every child away on refresh.
+ *
+ * Each row carries a stable key (entry id, request id, member name) and a
+ * content version. On {@link #reconcile} a row whose key and version match the
+ * last pass keeps its card untouched; a changed row gets a fresh card; rows that
+ * are gone are removed; and the container's children are moved into the new
+ * order only where they differ. A refresh in which one peer's price changed
+ * therefore replaces one card and repaints only that, not the whole list.
+ *
+ * The virtualized dashboard list does the same with {@link VirtualCardList.Row}
+ * keys; this one is for plain BoxLayout lists. EDT only.
+ */
+final class CardReconciler<C extends JComponent>
+{
+	/** One row: its key, content version, and how to build its card. */
+	static final class Row<C>
+	{
+		final String key;
+		final long version;
+		final Supplier<C> create;
+
+		private Row(String key, long version, Supplier<C> create)
+		{
+			this.key = key;
+			this.version = version;
+			this.create = create;
+		}
+	}
+
+	static <C> Row<C> row(String key, long version, Supplier<C> create)
+	{
+		return new Row<>(key, version, create);
+	}
+
+	/** A card plus the gap that follows it, as placed in the container. */
+	private static final class Slot<C>
+	{
+		final long version;
+		final C card;
+		final Component gap;
+
+		Slot(long version, C card, Component gap)
+		{
+			this.version = version;
+			this.card = card;
+			this.gap = gap;
+		}
+	}
+
+	private final JComponent container;
+	private final int gap;
+	private Map<String, Slot<C>> slots = new HashMap<>();
+
+	/**
+	 * @param container the panel whose children this reconciler owns outright
+	 * @param gap vertical strut placed after each card, 0 for none
+	 */
+	CardReconciler(JComponent container, int gap)
+	{
+		this.container = container;
+		this.gap = gap;
+	}
+
+	/**
+	 * Bring the container in line with these rows. Keys must be unique; a repeat
+	 * is dropped. Returns true if any child was added, replaced, moved or removed
+	 * (the container has then been revalidated and repainted).
+	 */
+	boolean reconcile(List<Row<C>> rows)
+	{
+		Map<String, Slot<C>> next = new HashMap<>(rows.size() * 2);
+		List<Component> children = new ArrayList<>(gap > 0 ? rows.size() * 2 : rows.size());
+		for (Row<C> row : rows)
+		{
+			if (next.containsKey(row.key))
+			{
+				continue;
+			}
+			Slot<C> slot = slots.get(row.key);
+			if (slot == null || slot.version != row.version)
+			{
+				slot = new Slot<>(row.version, row.create.get(), gap > 0 ? Box.createVerticalStrut(gap) : null);
+			}
+			next.put(row.key, slot);
+			children.add(slot.card);
+			if (slot.gap != null)
+			{
+				children.add(slot.gap);
+			}
+		}
+		slots = next;
+
+		boolean changed = false;
+		for (int i = 0; i < children.size(); i++)
+		{
+			Component want = children.get(i);
+			if (i < container.getComponentCount() && container.getComponent(i) == want)
+			{
+				continue;
+			}
+			// Everything before i is already in place, so an existing child is
+			// always found after i and moving it up leaves the prefix alone
+			container.add(want, i);
+			changed = true;
+		}
+		while (container.getComponentCount() > children.size())
+		{
+			container.remove(container.getComponentCount() - 1);
+			changed = true;
+		}
+
+		if (changed)
+		{
+			container.revalidate();
+			container.repaint();
+		}
+		return changed;
+	}
+
+	/** The card currently shown for a key, or null. */
+	C get(String key)
+	{
+		Slot<C> slot = slots.get(key);
+		return slot != null ? slot.card : null;
+	}
+
+	/**
+	 * Content version of an entry for use as a row version. Hashes every field
+	 * rather than trusting updatedAt alone: not every local edit bumps it.
+	 */
+	static long versionOf(LendingEntry entry)
+	{
+		return 31L * entry.getUpdatedAt() + entry.hashCode();
+	}
+}
@@ -5,6 +5,7 @@ import net.runelite.client.game.ItemManager;
 import com.guess34.lendingtracker.LendingTrackerPlugin;
 import com.guess34.lendingtracker.model.LendingEntry;
 import com.guess34.lendingtracker.model.LendingRequest;
+import com.guess34.lendingtracker.model.LookingForRequest;
 import com.guess34.lendingtracker.services.DataService;
 import com.guess34.lendingtracker.services.GroupService;
 import net.runelite.client.ui.ColorScheme;
@@ -34,15 +35,67 @@ public class DashboardPanel extends JPanel
 	private final JLabel totalValueLabel;
 	private final JLabel activeLoansLabel;
 	private final JLabel overdueCountLabel;
-	private final JPanel loanListPanel;
+	private final VirtualCardList cardList;
+
+	// How each kind of row is drawn. Cards are pooled per kind and re-bound as
+	// rows scroll into view, so only the visible ones are ever built or bound.
+	private final VirtualCardList.Kind<Section> headerKind =
+		VirtualCardList.kind(SectionHeaderCard::new, SectionHeaderCard::bind);
+	private final VirtualCardList.Kind<LendingEntry> marketplaceKind =
+		VirtualCardList.kind(MarketplaceCard::new, MarketplaceCard::bind);
+	private final VirtualCardList.Kind<LendingRequest> incomingRequestKind =
+		VirtualCardList.kind(RequestCard::new, (card, request) -> card.bind(request, true));
+	private final VirtualCardList.Kind<LendingRequest> outgoingRequestKind =
+		VirtualCardList.kind(RequestCard::new, (card, request) -> card.bind(request, false));
+	private final VirtualCardList.Kind<LookingForRequest> lookingForKind =
+		VirtualCardList.kind(LookingForCard::new, LookingForCard::bind);
+	private final VirtualCardList.Kind<LendingEntry> loanKind =
+		VirtualCardList.kind(LoanCard::new, (card, loan) -> card.bind(loan, false));
+	private final VirtualCardList.Kind<LendingEntry> otherGroupLoanKind =
+		VirtualCardList.kind(LoanCard::new, (card, loan) -> card.bind(loan, true));
+	private final VirtualCardList.Kind<String> groupTagKind =
+		VirtualCardList.kind(DashboardPanel::createGroupTag, JLabel::setText);
+	private final VirtualCardList.Kind<String> emptyStateKind =
+		VirtualCardList.kind(() -> new EmptyStateCard(20), EmptyStateCard::bind);
+	private final VirtualCardList.Kind<String> notLoggedInKind =
+		VirtualCardList.kind(() -> new EmptyStateCard(40), EmptyStateCard::bind);
+
+	// Track collapsed sections - all start collapsed for a clean initial view.
+	// Toggled on the EDT, read by the model build on the executor.
+	private final java.util.Set<String> collapsedSections = java.util.Collections.synchronizedSet(new java.util.HashSet<>(
+		java.util.Arrays.asList("marketplace", "lookingfor", "loans")
+	));
 
-	// In-memory cache for Looking For requests to ensure immediate display after saving
-	private final java.util.Map<String, List<LookingForRequest>> lookingForCache = new java.util.concurrent.ConcurrentHashMap<>();
+	// Background model build: at most one queued at a time, applied in order
+	private static final int MAX_READ_ATTEMPTS = 3;
+	private final java.util.concurrent.atomic.AtomicBoolean buildQueued = new java.util.concurrent.atomic.AtomicBoolean();
+	private final java.util.concurrent.atomic.AtomicLong modelSequence = new java.util.concurrent.atomic.AtomicLong();
+	private long renderedSequence;
 
-	// Track collapsed sections - all start collapsed for a clean initial view
-	private final java.util.Set<String> collapsedSections = new java.util.HashSet<>(
-		java.util.Arrays.asList("marketplace", "lookingfor", "loans")
-	);
+	/**
+	 * Everything one dashboard refresh shows: the summary figures and the card
+	 * rows, already filtered, sorted into sections and versioned. Immutable;
+	 * built off the EDT.
+	 */
+	private final class DashboardModel
+	{
+		final long sequence = modelSequence.incrementAndGet();
+		final long marketplaceValue;
+		final int marketplaceCount;
+		final int loanCount;
+		final long overdueCount;
+		final List<VirtualCardList.Row> rows;
+
+		DashboardModel(long marketplaceValue, int marketplaceCount, int loanCount, long overdueCount,
+			List<VirtualCardList.Row> rows)
+		{
+			this.marketplaceValue = marketplaceValue;
+			this.marketplaceCount = marketplaceCount;
+			this.loanCount = loanCount;
+			this.overdueCount = overdueCount;
+			this.rows = java.util.Collections.unmodifiableList(rows);
+		}
+	}
 
 	public DashboardPanel(LendingTrackerPlugin plugin)
 	{
@@ -89,18 +142,11 @@ public class DashboardPanel extends JPanel
 
 		add(summaryHeader, BorderLayout.NORTH);
 
-		// Create loan list panel (scrollable)
-		// Wrapper panel with BorderLayout ensures items stack top-down
-		JPanel loanListWrapper = new JPanel(new BorderLayout());
-		loanListWrapper.setBackground(ColorScheme.DARK_GRAY_COLOR);
+		// Create card list (scrollable, only the visible rows are materialized)
+		cardList = new VirtualCardList();
+		cardList.setBackground(ColorScheme.DARK_GRAY_COLOR);
 
-		loanListPanel = new JPanel();
-		loanListPanel.setLayout(new BoxLayout(loanListPanel, BoxLayout.Y_AXIS));
-		loanListPanel.setBackground(ColorScheme.DARK_GRAY_COLOR);
-
-		loanListWrapper.add(loanListPanel, BorderLayout.NORTH);
-
-		JScrollPane scrollPane = new JScrollPane(loanListWrapper);
+		JScrollPane scrollPane = new JScrollPane(cardList);
 		scrollPane.setBackground(ColorScheme.DARK_GRAY_COLOR);
 		scrollPane.setBorder(new EmptyBorder(0, 0, 0, 0));
 		scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
@@ -134,286 +180,378 @@ public class DashboardPanel extends JPanel
 		add(buttonPanel, BorderLayout.SOUTH);
 	}
 
-	private JPanel createCollapsibleHeader(String title, Color color, String sectionId, boolean collapsed)
+	/** A collapsible section heading in the card list. */
+	private static final class Section
 	{
-		JPanel header = new JPanel(new BorderLayout());
-		header.setBackground(ColorScheme.DARK_GRAY_COLOR);
-		header.setBorder(new EmptyBorder(8, 10, 5, 10));
-		header.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+		final String title;
+		final Color color;
+		final String sectionId;
+		final boolean collapsed;
 
-		String arrow = collapsed ? "\u25B6 " : "\u25BC "; // Right or Down triangle
-		JLabel label = new JLabel(arrow + title);
-		label.setFont(FontManager.getRunescapeBoldFont());
-		label.setForeground(color);
-		header.add(label, BorderLayout.WEST);
+		Section(String title, Color color, String sectionId, boolean collapsed)
+		{
+			this.title = title;
+			this.color = color;
+			this.sectionId = sectionId;
+			this.collapsed = collapsed;
+		}
+	}
+
+	private class SectionHeaderCard extends JPanel
+	{
+		private final JLabel label = new JLabel();
+		private String sectionId;
 
-		header.addMouseListener(new java.awt.event.MouseAdapter()
+		SectionHeaderCard()
 		{
-			@Override
-			public void mouseClicked(java.awt.event.MouseEvent e)
+			super(new BorderLayout());
+			setBackground(ColorScheme.DARK_GRAY_COLOR);
+			setBorder(new EmptyBorder(8, 10, 5, 10));
+			setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+
+			label.setFont(FontManager.getRunescapeBoldFont());
+			add(label, BorderLayout.WEST);
+
+			addMouseListener(new java.awt.event.MouseAdapter()
 			{
-				if (collapsedSections.contains(sectionId))
+				@Override
+				public void mouseClicked(java.awt.event.MouseEvent e)
 				{
-					collapsedSections.remove(sectionId);
-				}
-				else
-				{
-					collapsedSections.add(sectionId);
+					if (collapsedSections.contains(sectionId))
+					{
+						collapsedSections.remove(sectionId);
+					}
+					else
+					{
+						collapsedSections.add(sectionId);
+					}
+					refresh();
 				}
-				refresh();
-			}
-		});
+			});
+		}
+
+		void bind(Section section)
+		{
+			sectionId = section.sectionId;
+			String arrow = section.collapsed ? "\u25B6 " : "\u25BC "; // Right or Down triangle
+			label.setText(arrow + section.title);
+			label.setForeground(section.color);
+		}
+	}
 
-		return header;
+	private static String entryKey(LendingEntry entry)
+	{
+		return entry.getId() != null ? entry.getId()
+			: entry.getLender() + "|" + entry.getItem() + "|" + entry.getItemId();
+	}
+
+	/**
+	 * A loan card shows its proof thumbnail too, so a change to the proof catalog
+	 * changes the row. The thumbnail is looked up when the card is bound.
+	 */
+	private long loanVersion(LendingEntry loan, long minute, int proofGeneration)
+	{
+		return 31L * (31L * CardReconciler.versionOf(loan) + minute) + proofGeneration;
+	}
+
+	/** Add a collapsible section header; true when its rows should follow. */
+	private boolean addSection(List<VirtualCardList.Row> rows, String title, Color color, String sectionId)
+	{
+		boolean collapsed = collapsedSections.contains(sectionId);
+		rows.add(VirtualCardList.row(headerKind, "section:" + sectionId,
+			java.util.Objects.hash(title, collapsed), new Section(title, color, sectionId, collapsed)));
+		return !collapsed;
 	}
 
+	/**
+	 * Rebuild the dashboard. Filtering, sums, request lookups and config reads
+	 * run on the plugin executor into an immutable {@link DashboardModel}; the
+	 * EDT only applies it, so its share no longer grows with the data. A refresh
+	 * that arrives while a build is still queued is served by that build.
+	 */
 	public void refresh()
 	{
-		SwingUtilities.invokeLater(() ->
+		if (!buildQueued.compareAndSet(false, true))
 		{
-			// Check GameState FIRST - authoritative source for login status
-			boolean isLoggedIn = false;
-			try
+			return;
+		}
+		try
+		{
+			plugin.getExecutor().execute(() ->
 			{
-				if (plugin.getClient() != null &&
-					plugin.getClient().getGameState() == net.runelite.api.GameState.LOGGED_IN)
+				// Cleared before reading, so a change landing mid-build queues another
+				buildQueued.set(false);
+				DashboardModel model;
+				try
 				{
-					isLoggedIn = true;
+					model = buildModel();
 				}
-			}
-			catch (Exception e)
+				catch (Exception e)
+				{
+					log.warn("Failed to build dashboard model", e);
+					return;
+				}
+				SwingUtilities.invokeLater(() -> render(model));
+			});
+		}
+		catch (java.util.concurrent.RejectedExecutionException e)
+		{
+			buildQueued.set(false);
+		}
+	}
+
+	/**
+	 * Read a model whose active loans all come from one version of the entry
+	 * store: if a sync lands mid-read, read again (bounded, then take the last).
+	 */
+	private DashboardModel buildModel()
+	{
+		DashboardModel model;
+		int attempts = 0;
+		do
+		{
+			int version = dataService.getEntriesVersion();
+			model = readModel();
+			if (dataService.getEntriesVersion() == version)
 			{
-				log.debug("Could not check login status", e);
+				break;
 			}
+		}
+		while (++attempts < MAX_READ_ATTEMPTS);
+		return model;
+	}
 
-			if (!isLoggedIn)
-			{
-				totalValueLabel.setText("Available: 0 GP");
-				activeLoansLabel.setText("Marketplace: 0 | Loans: 0");
-				overdueCountLabel.setText("Overdue: 0");
-				overdueCountLabel.setForeground(Color.GREEN);
+	/** Apply a built model. EDT only; cheap regardless of how many rows it has. */
+	private void render(DashboardModel model)
+	{
+		// Builds run in order on one executor, but never let an older one win
+		if (model.sequence < renderedSequence)
+		{
+			return;
+		}
+		renderedSequence = model.sequence;
 
-				loanListPanel.removeAll();
+		totalValueLabel.setText("Available: " + QuantityFormatter.quantityToStackSize(model.marketplaceValue) + " GP");
+		activeLoansLabel.setText("Marketplace: " + model.marketplaceCount + " | Loans: " + model.loanCount);
+		overdueCountLabel.setText("Overdue: " + model.overdueCount);
+		overdueCountLabel.setForeground(model.overdueCount > 0 ? Color.RED : Color.GREEN);
 
-				JPanel emptyPanel = createEmptyStatePanel(
-					"<html><center><b style='color: #ff9900;'>Not Logged In</b><br><br>Please log in to your<br>OSRS account to view<br>the marketplace.</center></html>");
-				emptyPanel.setBorder(new EmptyBorder(40, 20, 40, 20));
+		cardList.setRows(model.rows);
+	}
 
-				loanListPanel.add(emptyPanel);
-				loanListPanel.revalidate();
-				loanListPanel.repaint();
-				return;
+	/**
+	 * Read everything the dashboard shows into a model. Runs on the executor, so
+	 * nothing here may touch Swing components.
+	 */
+	private DashboardModel readModel()
+	{
+		// Check GameState FIRST - authoritative source for login status
+		boolean isLoggedIn = false;
+		try
+		{
+			if (plugin.getClient() != null &&
+				plugin.getClient().getGameState() == net.runelite.api.GameState.LOGGED_IN)
+			{
+				isLoggedIn = true;
 			}
+		}
+		catch (Exception e)
+		{
+			log.debug("Could not check login status", e);
+		}
 
-			String groupId = groupService.getCurrentGroupIdUnchecked();
+		if (!isLoggedIn)
+		{
+			return new DashboardModel(0, 0, 0, 0, java.util.Collections.singletonList(VirtualCardList.row(notLoggedInKind,
+				"<html><center><b style='color: #ff9900;'>Not Logged In</b><br><br>Please log in to your<br>OSRS account to view<br>the marketplace.</center></html>")));
+		}
 
-			// Get marketplace offerings from DataService
-			List<LendingEntry> marketplaceItems = new java.util.ArrayList<>();
-			if (groupId != null && !groupId.isEmpty())
-			{
-				List<LendingEntry> items = dataService.getAvailable(groupId);
-				if (items != null) marketplaceItems.addAll(items);
-			}
+		String groupId = groupService.getCurrentGroupIdUnchecked();
 
-			// Get active loans (items currently lent out)
-			List<LendingEntry> allActiveLoans = dataService.getActiveEntries();
-			if (allActiveLoans == null)
-			{
-				allActiveLoans = java.util.Collections.emptyList();
-			}
-			// A loan belongs to the group it was made in. Loans from OTHER groups are
-			// still shown, but separately and only to the two parties - a personal
-			// reminder, not this group's business. Nobody else can see them either way:
-			// the published snapshot is filtered by groupId.
-			final String activeGroupId = groupId;
-			final String selfName = getCurrentPlayerName();
-			List<LendingEntry> activeLoans = allActiveLoans.stream()
-				.filter(e -> activeGroupId != null && activeGroupId.equals(e.getGroupId()))
-				.collect(java.util.stream.Collectors.toList());
-			List<LendingEntry> otherGroupLoans = allActiveLoans.stream()
-				.filter(e -> activeGroupId == null || !activeGroupId.equals(e.getGroupId()))
-				.filter(e -> selfName != null
-					&& (selfName.equalsIgnoreCase(e.getLender()) || selfName.equalsIgnoreCase(e.getBorrower())))
-				.collect(java.util.stream.Collectors.toList());
-
-			// Calculate summary stats from both marketplace and loans
-			long totalMarketplaceValue = marketplaceItems.stream()
-				.mapToLong(LendingEntry::getValue)
-				.sum();
-
-			long overdueCount = activeLoans.stream()
-				.filter(LendingEntry::isOverdue)
-				.count();
-
-			// Update summary labels
-			totalValueLabel.setText("Available: " + QuantityFormatter.quantityToStackSize(totalMarketplaceValue) + " GP");
-			activeLoansLabel.setText("Marketplace: " + marketplaceItems.size() + " | Loans: " + activeLoans.size());
-			overdueCountLabel.setText("Overdue: " + overdueCount);
-			overdueCountLabel.setForeground(overdueCount > 0 ? Color.RED : Color.GREEN);
-
-			// Clear and rebuild cards
-			loanListPanel.removeAll();
-
-			// Filter marketplace items - only show items from group members
-			com.guess34.lendingtracker.model.LendingGroup currentGroupForFilter =
-				groupId != null ? groupService.getGroup(groupId) : null;
-			List<LendingEntry> displayItems = marketplaceItems.stream()
-				.filter(item -> {
-					String lender = item.getLender();
-					if (lender == null) return false;
-					return currentGroupForFilter == null || currentGroupForFilter.hasMember(lender);
-				})
-				.collect(java.util.stream.Collectors.toList());
-
-			// Show marketplace offerings first
-			if (!displayItems.isEmpty())
+		// Get marketplace offerings from DataService
+		List<LendingEntry> marketplaceItems = new java.util.ArrayList<>();
+		if (groupId != null && !groupId.isEmpty())
+		{
+			List<LendingEntry> items = dataService.getAvailable(groupId);
+			if (items != null) marketplaceItems.addAll(items);
+		}
+
+		// Get active loans (items currently lent out)
+		List<LendingEntry> allActiveLoans = dataService.getActiveEntries();
+		if (allActiveLoans == null)
+		{
+			allActiveLoans = java.util.Collections.emptyList();
+		}
+		// A loan belongs to the group it was made in. Loans from OTHER groups are
+		// still shown, but separately and only to the two parties - a personal
+		// reminder, not this group's business. Nobody else can see them either way:
+		// the published snapshot is filtered by groupId.
+		final String activeGroupId = groupId;
+		final String selfName = getCurrentPlayerName();
+		List<LendingEntry> activeLoans = allActiveLoans.stream()
+			.filter(e -> activeGroupId != null && activeGroupId.equals(e.getGroupId()))
+			.collect(java.util.stream.Collectors.toList());
+		List<LendingEntry> otherGroupLoans = allActiveLoans.stream()
+			.filter(e -> activeGroupId == null || !activeGroupId.equals(e.getGroupId()))
+			.filter(e -> selfName != null
+				&& (selfName.equalsIgnoreCase(e.getLender()) || selfName.equalsIgnoreCase(e.getBorrower())))
+			.collect(java.util.stream.Collectors.toList());
+
+		// Calculate summary stats from both marketplace and loans
+		long totalMarketplaceValue = marketplaceItems.stream()
+			.mapToLong(LendingEntry::getValue)
+			.sum();
+
+		long overdueCount = activeLoans.stream()
+			.filter(LendingEntry::isOverdue)
+			.count();
+
+		// Rebuild the row list. Rows are keyed, so the card list keeps every
+		// on-screen card whose content is unchanged and re-binds only the rest.
+		// Due times and "posted" ages are relative, so those rows also change
+		// version once a minute.
+		List<VirtualCardList.Row> rows = new java.util.ArrayList<>();
+		final long minute = System.currentTimeMillis() / 60_000L;
+		final int proofGeneration = plugin.getProofCatalog().getGeneration();
+
+		// Filter marketplace items - only show items from group members
+		com.guess34.lendingtracker.model.LendingGroup currentGroupForFilter =
+			groupId != null ? groupService.getGroup(groupId) : null;
+		List<LendingEntry> displayItems = marketplaceItems.stream()
+			.filter(item -> {
+				String lender = item.getLender();
+				if (lender == null) return false;
+				return currentGroupForFilter == null || currentGroupForFilter.hasMember(lender);
+			})
+			.collect(java.util.stream.Collectors.toList());
+
+		// Show marketplace offerings first
+		if (!displayItems.isEmpty())
+		{
+			// Collapsible section header with item count
+			if (addSection(rows, "Available for Lending (" + displayItems.size() + ")",
+				ColorScheme.BRAND_ORANGE, "marketplace"))
 			{
-				// Add section header for marketplace
-				// Collapsible section header with item count
-				boolean marketCollapsed = collapsedSections.contains("marketplace");
-				JPanel marketHeader = createCollapsibleHeader(
-					"Available for Lending (" + displayItems.size() + ")",
-					ColorScheme.BRAND_ORANGE, "marketplace", marketCollapsed);
-				loanListPanel.add(marketHeader);
-
-				if (!marketCollapsed)
+				for (LendingEntry item : displayItems)
 				{
-					for (LendingEntry item : displayItems)
-					{
-						MarketplaceCard card = new MarketplaceCard(item);
-						loanListPanel.add(card);
-					}
+					rows.add(VirtualCardList.row(marketplaceKind, "market:" + entryKey(item),
+						CardReconciler.versionOf(item), item));
 				}
 			}
+		}
 
-			// Show direct requests (borrow requests / lend offers) involving me
-			String me = getCurrentPlayerName();
-			List<LendingRequest> incomingRequests = new java.util.ArrayList<>();
-			List<LendingRequest> outgoingRequests = new java.util.ArrayList<>();
-			if (groupId != null && !groupId.isEmpty() && me != null && !me.equals("Not logged in"))
-			{
-				incomingRequests.addAll(dataService.getPendingRequestsFor(groupId, me));
-				// Staff-review removals visible to eligible uninvolved owners/co-owners
-				incomingRequests.addAll(dataService.getPendingStaffRemovalsFor(groupId, me,
-					groupService.getGroup(groupId)));
-				outgoingRequests.addAll(dataService.getRequestsFrom(groupId, me).stream()
-					.filter(LendingRequest::isPending)
-					.collect(java.util.stream.Collectors.toList()));
-			}
+		// Show direct requests (borrow requests / lend offers) involving me
+		String me = getCurrentPlayerName();
+		List<LendingRequest> incomingRequests = new java.util.ArrayList<>();
+		List<LendingRequest> outgoingRequests = new java.util.ArrayList<>();
+		if (groupId != null && !groupId.isEmpty() && me != null && !me.equals("Not logged in"))
+		{
+			incomingRequests.addAll(dataService.getPendingRequestsFor(groupId, me));
+			// Staff-review removals visible to eligible uninvolved owners/co-owners
+			incomingRequests.addAll(dataService.getPendingStaffRemovalsFor(groupId, me,
+				groupService.getGroup(groupId)));
+			outgoingRequests.addAll(dataService.getRequestsFrom(groupId, me).stream()
+				.filter(LendingRequest::isPending)
+				.collect(java.util.stream.Collectors.toList()));
+		}
 
-			if (!incomingRequests.isEmpty() || !outgoingRequests.isEmpty())
+		if (!incomingRequests.isEmpty() || !outgoingRequests.isEmpty())
+		{
+			if (addSection(rows, "Requests (" + (incomingRequests.size() + outgoingRequests.size()) + ")",
+				new Color(0x64, 0xC8, 0x64), "requests"))
 			{
-				boolean requestsCollapsed = collapsedSections.contains("requests");
-				JPanel requestsHeader = createCollapsibleHeader(
-					"Requests (" + (incomingRequests.size() + outgoingRequests.size()) + ")",
-					new Color(0x64, 0xC8, 0x64), "requests", requestsCollapsed);
-				loanListPanel.add(requestsHeader);
-
-				if (!requestsCollapsed)
+				for (LendingRequest request : incomingRequests)
 				{
-					for (LendingRequest request : incomingRequests)
-					{
-						loanListPanel.add(new RequestCard(request, true));
-					}
-					for (LendingRequest request : outgoingRequests)
-					{
-						loanListPanel.add(new RequestCard(request, false));
-					}
+					rows.add(VirtualCardList.row(incomingRequestKind, "request:" + request.getId(),
+						request.hashCode(), request));
+				}
+				for (LendingRequest request : outgoingRequests)
+				{
+					rows.add(VirtualCardList.row(outgoingRequestKind, "request:" + request.getId(),
+						request.hashCode(), request));
 				}
 			}
+		}
 
-			// Show "Looking For" requests section
-			List<LookingForRequest> lookingForRequests = getLookingForRequests(groupId);
-			if (!lookingForRequests.isEmpty())
+		// Show "Looking For" requests section
+		List<LookingForRequest> lookingForRequests = dataService.getLookingForRequests(groupId);
+		if (!lookingForRequests.isEmpty())
+		{
+			// Collapsible section header with item count
+			if (addSection(rows, "Looking For (" + lookingForRequests.size() + ")",
+				ColorScheme.GRAND_EXCHANGE_PRICE, "lookingfor"))
 			{
-				// Collapsible section header with item count
-				boolean lookingForCollapsed = collapsedSections.contains("lookingfor");
-				JPanel lookingForHeader = createCollapsibleHeader(
-					"Looking For (" + lookingForRequests.size() + ")",
-					ColorScheme.GRAND_EXCHANGE_PRICE, "lookingfor", lookingForCollapsed);
-				loanListPanel.add(lookingForHeader);
-
-				if (!lookingForCollapsed)
+				for (LookingForRequest request : lookingForRequests)
 				{
-					for (LookingForRequest request : lookingForRequests)
-					{
-						LookingForCard card = new LookingForCard(request);
-						loanListPanel.add(card);
-					}
+					rows.add(VirtualCardList.row(lookingForKind, "lookingfor:" + request.getId(),
+						31L * request.hashCode() + minute, request));
 				}
 			}
+		}
 
-			// Loans living in another group - shown to the lender/borrower only, so an
-			// outstanding item is not forgotten just because a different group is
-			// selected. Labelled with its group so it cannot be mistaken for this one.
-			if (!otherGroupLoans.isEmpty())
+		// Loans living in another group - shown to the lender/borrower only, so an
+		// outstanding item is not forgotten just because a different group is
+		// selected. Labelled with its group so it cannot be mistaken for this one.
+		if (!otherGroupLoans.isEmpty())
+		{
+			if (addSection(rows, "Your Loans in Other Groups (" + otherGroupLoans.size() + ")",
+				Color.GRAY, "otherloans"))
 			{
-				boolean otherCollapsed = collapsedSections.contains("otherloans");
-				JPanel otherHeader = createCollapsibleHeader(
-					"Your Loans in Other Groups (" + otherGroupLoans.size() + ")",
-					Color.GRAY, "otherloans", otherCollapsed);
-				loanListPanel.add(otherHeader);
-				if (!otherCollapsed)
+				for (LendingEntry loan : otherGroupLoans)
 				{
-					for (LendingEntry loan : otherGroupLoans)
-					{
-						String ownerGroup = groupService.getGroupNameById(loan.getGroupId());
-						JLabel tag = new JLabel(ownerGroup != null ? ownerGroup : "another group");
-						tag.setFont(FontManager.getRunescapeSmallFont());
-						tag.setForeground(Color.GRAY);
-						tag.setBorder(new EmptyBorder(2, 6, 0, 0));
-						loanListPanel.add(tag);
-						loanListPanel.add(new LoanCard(loan, true));
-					}
+					String ownerGroup = groupService.getGroupNameById(loan.getGroupId());
+					String tag = ownerGroup != null ? ownerGroup : "another group";
+					rows.add(VirtualCardList.row(groupTagKind, "tag:" + entryKey(loan), tag.hashCode(), tag));
+					rows.add(VirtualCardList.row(otherGroupLoanKind, "other:" + entryKey(loan),
+						31L * CardReconciler.versionOf(loan) + minute, loan));
 				}
 			}
+		}
 
-			// Then show active loans
-			if (!activeLoans.isEmpty())
+		// Then show active loans
+		if (!activeLoans.isEmpty())
+		{
+			// Collapsible section header with item count
+			if (addSection(rows, "Active Loans (" + activeLoans.size() + ")", Color.YELLOW, "loans"))
 			{
-				// Collapsible section header with item count
-				boolean loansCollapsed = collapsedSections.contains("loans");
-				JPanel loanHeader = createCollapsibleHeader(
-					"Active Loans (" + activeLoans.size() + ")",
-					Color.YELLOW, "loans", loansCollapsed);
-				loanListPanel.add(loanHeader);
-
-				if (!loansCollapsed)
+				for (LendingEntry loan : activeLoans)
 				{
-					for (LendingEntry loan : activeLoans)
-					{
-						LoanCard card = new LoanCard(loan);
-						loanListPanel.add(card);
-					}
+					rows.add(VirtualCardList.row(loanKind, "loan:" + entryKey(loan), loanVersion(loan, minute, proofGeneration), loan));
 				}
 			}
+		}
 
-			// If all sections are empty, show empty state
-			if (displayItems.isEmpty() && lookingForRequests.isEmpty() && activeLoans.isEmpty()
-				&& incomingRequests.isEmpty() && outgoingRequests.isEmpty() && otherGroupLoans.isEmpty())
-			{
-				String message = (groupId == null || groupId.isEmpty())
-					? "<html><center>No group selected<br><br>Select or create a group to start</center></html>"
-					: "<html><center>No items in marketplace<br><br>Right-click an item and select<br>'Add to Lending List' to offer it<br><br>Or click 'Looking For' to<br>post what you need to borrow</center></html>";
+		// If all sections are empty, show empty state
+		if (displayItems.isEmpty() && lookingForRequests.isEmpty() && activeLoans.isEmpty()
+			&& incomingRequests.isEmpty() && outgoingRequests.isEmpty() && otherGroupLoans.isEmpty())
+		{
+			String message = (groupId == null || groupId.isEmpty())
+				? "<html><center>No group selected<br><br>Select or create a group to start</center></html>"
+				: "<html><center>No items in marketplace<br><br>Right-click an item and select<br>'Add to Lending List' to offer it<br><br>Or click 'Looking For' to<br>post what you need to borrow</center></html>";
 
-				loanListPanel.add(createEmptyStatePanel(message));
-			}
+			rows.add(VirtualCardList.row(emptyStateKind, message));
+		}
 
-			loanListPanel.revalidate();
-			loanListPanel.repaint();
-		});
+		return new DashboardModel(totalMarketplaceValue, marketplaceItems.size(), activeLoans.size(),
+			overdueCount, rows);
 	}
 
+	/**
+	 * Marketplace listing card. Pooled by the card list: built once, then
+	 * {@link #bind bound} to whichever listing scrolls into view.
+	 */
 	private class MarketplaceCard extends JPanel
 	{
-		private final LendingEntry item;
+		private LendingEntry item;
 		private final JPanel detailsPanel;
 		private final JPanel rightPanel;
+		private final JLabel iconLabel = new JLabel();
+		private final JLabel itemLabel = new JLabel();
+		private final JLabel ownerLabel = new JLabel();
+		private final JLabel valueLabel = new JLabel();
 
-		public MarketplaceCard(LendingEntry item)
+		MarketplaceCard()
 		{
-			this.item = item;
-
 			setLayout(new BorderLayout(5, 0));
 			Color bgColor = ColorScheme.DARKER_GRAY_COLOR;
 			setBackground(bgColor);
@@ -426,20 +564,7 @@ public class DashboardPanel extends JPanel
 			setPreferredSize(new Dimension(200, 60));
 
 			// Left side: Item icon (fixed width)
-			JLabel iconLabel = new JLabel();
 			iconLabel.setPreferredSize(new Dimension(36, 36));
-			try
-			{
-				BufferedImage itemImage = itemManager.getImage(item.getItemId(), item.getQuantity(), item.getQuantity() > 1);
-				if (itemImage != null)
-				{
-					iconLabel.setIcon(new ImageIcon(itemImage));
-				}
-			}
-			catch (Exception e)
-			{
-				log.warn("Failed to load item icon for {}", item.getItemId());
-			}
 			add(iconLabel, BorderLayout.WEST);
 
 			// Center: Item details
@@ -447,16 +572,9 @@ public class DashboardPanel extends JPanel
 			detailsPanel.setLayout(new BoxLayout(detailsPanel, BoxLayout.Y_AXIS));
 			detailsPanel.setBackground(bgColor);
 
-			// Item name (truncate if too long)
-			String itemName = item.getItem();
-			if (itemName.length() > 18) itemName = itemName.substring(0, 15) + "...";
-			JLabel itemLabel = new JLabel(itemName + " x" + item.getQuantity());
 			itemLabel.setFont(FontManager.getRunescapeSmallFont());
 			itemLabel.setForeground(Color.WHITE);
 
-			// Owner name
-			String ownerText = "By: " + item.getLender();
-			JLabel ownerLabel = new JLabel(ownerText);
 			ownerLabel.setFont(FontManager.getRunescapeSmallFont());
 			ownerLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
 
@@ -471,7 +589,6 @@ public class DashboardPanel extends JPanel
 			rightPanel.setBackground(bgColor);
 			rightPanel.setPreferredSize(new Dimension(50, 45));
 
-			JLabel valueLabel = new JLabel(QuantityFormatter.quantityToStackSize(item.getValue()));
 			valueLabel.setFont(FontManager.getRunescapeSmallFont());
 			valueLabel.setForeground(Color.YELLOW);
 
@@ -484,12 +601,47 @@ public class DashboardPanel extends JPanel
 
 			add(rightPanel, BorderLayout.EAST);
 
-			setComponentPopupMenu(createPopupMenu());
 			addHoverEffect(this, ColorScheme.DARKER_GRAY_HOVER_COLOR, bgColor, detailsPanel, rightPanel);
 		}
 
+		void bind(LendingEntry item)
+		{
+			this.item = item;
+			resetBackground(ColorScheme.DARKER_GRAY_COLOR, this, detailsPanel, rightPanel);
+
+			iconLabel.setIcon(null);
+			try
+			{
+				BufferedImage itemImage = itemManager.getImage(item.getItemId(), item.getQuantity(), item.getQuantity() > 1);
+				if (itemImage != null)
+				{
+					iconLabel.setIcon(new ImageIcon(itemImage));
+				}
+			}
+			catch (Exception e)
+			{
+				log.warn("Failed to load item icon for {}", item.getItemId());
+			}
+
+			// Item name (truncate if too long)
+			String itemName = item.getItem();
+			if (itemName.length() > 18) itemName = itemName.substring(0, 15) + "...";
+			itemLabel.setText(itemName + " x" + item.getQuantity());
+			ownerLabel.setText("By: " + item.getLender());
+			valueLabel.setText(QuantityFormatter.quantityToStackSize(item.getValue()));
+		}
+
+		// Built when the popup opens, for the listing bound at that moment
+		@Override
+		public JPopupMenu getComponentPopupMenu()
+		{
+			return item != null ? createPopupMenu() : null;
+		}
+
 		private JPopupMenu createPopupMenu()
 		{
+			// The card may be re-bound while the menu is open; act on this listing
+			final LendingEntry item = this.item;
 			JPopupMenu menu = new JPopupMenu();
 			String currentPlayer = getCurrentPlayerName();
 			boolean isOwner = item.getLender() != null && item.getLender().equalsIgnoreCase(currentPlayer);
@@ -508,25 +660,25 @@ public class DashboardPanel extends JPanel
 				else
 				{
 					JMenuItem editItem = new JMenuItem("Edit Listing");
-					editItem.addActionListener(e -> showFullEditDialog());
+					editItem.addActionListener(e -> showFullEditDialog(item));
 					menu.add(editItem);
 
 					JMenuItem removeItem = new JMenuItem("Remove from Marketplace");
-					removeItem.addActionListener(e -> removeFromMarketplace());
+					removeItem.addActionListener(e -> removeFromMarketplace(item));
 					menu.add(removeItem);
 				}
 			}
 			else
 			{
 				JMenuItem borrowItem = new JMenuItem("Request to Borrow");
-				borrowItem.addActionListener(e -> requestToBorrow());
+				borrowItem.addActionListener(e -> requestToBorrow(item));
 				menu.add(borrowItem);
 			}
 
 			return menu;
 		}
 
-		private void showFullEditDialog()
+		private void showFullEditDialog(LendingEntry item)
 		{
 			String groupId = groupService.getCurrentGroupIdUnchecked();
 			if (groupId == null || groupId.isEmpty())
@@ -574,7 +726,7 @@ public class DashboardPanel extends JPanel
 			}
 		}
 
-		private void removeFromMarketplace()
+		private void removeFromMarketplace(LendingEntry item)
 		{
 			String groupId = groupService.getCurrentGroupIdUnchecked();
 			if (groupId == null || groupId.isEmpty())
@@ -592,7 +744,7 @@ public class DashboardPanel extends JPanel
 			}
 		}
 
-		private void requestToBorrow()
+		private void requestToBorrow(LendingEntry item)
 		{
 			String currentPlayer = getCurrentPlayerName();
 			if (currentPlayer == null || currentPlayer.equals("Not logged in"))
@@ -703,18 +855,36 @@ public class DashboardPanel extends JPanel
 			FontManager.getRunescapeSmallFont(), Color.WHITE);
 	}
 
-	private static JPanel createEmptyStatePanel(String htmlMessage)
+	/** Centered grey message shown when a list has nothing in it. */
+	private static final class EmptyStateCard extends JPanel
 	{
-		JPanel emptyPanel = new JPanel(new BorderLayout());
-		emptyPanel.setBackground(ColorScheme.DARKER_GRAY_COLOR);
-		emptyPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
+		private final JLabel emptyLabel = new JLabel();
+
+		EmptyStateCard(int verticalPadding)
+		{
+			super(new BorderLayout());
+			setBackground(ColorScheme.DARKER_GRAY_COLOR);
+			setBorder(new EmptyBorder(verticalPadding, 20, verticalPadding, 20));
 
-		JLabel emptyLabel = new JLabel(htmlMessage);
-		emptyLabel.setForeground(Color.GRAY);
-		emptyLabel.setHorizontalAlignment(SwingConstants.CENTER);
-		emptyPanel.add(emptyLabel, BorderLayout.CENTER);
+			emptyLabel.setForeground(Color.GRAY);
+			emptyLabel.setHorizontalAlignment(SwingConstants.CENTER);
+			add(emptyLabel, BorderLayout.CENTER);
+		}
 
-		return emptyPanel;
+		void bind(String htmlMessage)
+		{
+			emptyLabel.setText(htmlMessage);
+		}
+	}
+
+	/** Group name shown above a loan from another group. */
+	private static JLabel createGroupTag()
+	{
+		JLabel tag = new JLabel();
+		tag.setFont(FontManager.getRunescapeSmallFont());
+		tag.setForeground(Color.GRAY);
+		tag.setBorder(new EmptyBorder(2, 6, 0, 0));
+		return tag;
 	}
 
 	private static void addHoverEffect(JPanel card, Color hoverColor, Color normalColor, JPanel... subPanels)
@@ -734,6 +904,31 @@ public class DashboardPanel extends JPanel
 		});
 	}
 
+	/** Hover text for a Looking For card. */
+	private static String lookingForTooltip(LookingForRequest request)
+	{
+		if (request.isMultiItem())
+		{
+			StringBuilder tooltipSb = new StringBuilder();
+			tooltipSb.append("<html><b>").append(request.getItemName()).append("</b><br>");
+			tooltipSb.append(request.getItemCount()).append(" items | ").append(QuantityFormatter.quantityToStackSize(request.getTotalValue())).append(" GP<br>");
+			tooltipSb.append("<i>Right-click to view all items</i></html>");
+			return tooltipSb.toString();
+		}
+		return "<html><b>" + request.getItemName() + "</b> x" + request.getQuantity() + "<br>" +
+			"Duration: " + request.getDurationDays() + " days<br>" +
+			(request.getNotes() != null && !request.getNotes().isEmpty() ? "Note: " + request.getNotes() : "") + "</html>";
+	}
+
+	/** Restore a recycled card's resting background (it may have been left mid-hover). */
+	private static void resetBackground(Color c, JComponent... comps)
+	{
+		for (JComponent comp : comps)
+		{
+			comp.setBackground(c);
+		}
+	}
+
 	private static GridBagConstraints createDefaultGbc()
 	{
 		GridBagConstraints gbc = new GridBagConstraints();
@@ -743,24 +938,26 @@ public class DashboardPanel extends JPanel
 		return gbc;
 	}
 
+	/**
+	 * Active loan card. Pooled by the card list: built once, then
+	 * {@link #bind bound} to whichever loan scrolls into view.
+	 */
 	private class LoanCard extends JPanel
 	{
-		private final LendingEntry loan;
-
-		public LoanCard(LendingEntry loan)
-		{
-			this(loan, false);
-		}
-
-		/**
-		 * readOnly suppresses the action menu. Loans shown from ANOTHER group are a
-		 * reminder only - offering this group's actions on them would act on a loan
-		 * that does not belong here, and expose its details through those menus.
-		 */
-		public LoanCard(LendingEntry loan, boolean readOnly)
+		private LendingEntry loan;
+		private boolean readOnly;
+		private final JPanel detailsPanel;
+		private final JPanel valuePanel;
+		private final JLabel iconLabel = new JLabel();
+		private final JLabel itemLabel = new JLabel();
+		private final JLabel borrowerLabel = new JLabel();
+		private final JLabel dueTimeLabel = new JLabel();
+		private final JLabel valueLabel = new JLabel();
+		private final Component proofGap = Box.createVerticalStrut(3);
+		private final JLabel proofLabel = ProofThumbnail.create();
+
+		LoanCard()
 		{
-			this.loan = loan;
-
 			setLayout(new BorderLayout(10, 0));
 			setBackground(ColorScheme.DARKER_GRAY_COLOR);
 			setBorder(BorderFactory.createCompoundBorder(
@@ -769,56 +966,21 @@ public class DashboardPanel extends JPanel
 			));
 
 			// Left side: Item icon
-			JLabel iconLabel = new JLabel();
-			try
-			{
-				BufferedImage itemImage = itemManager.getImage(loan.getItemId(), loan.getQuantity(), loan.getQuantity() > 1);
-				if (itemImage != null)
-				{
-					iconLabel.setIcon(new ImageIcon(itemImage));
-				}
-			}
-			catch (Exception e)
-			{
-				log.warn("Failed to load item icon for {}", loan.getItemId());
-			}
-
 			add(iconLabel, BorderLayout.WEST);
 
 			// Center: Loan details
-			JPanel detailsPanel = new JPanel();
+			detailsPanel = new JPanel();
 			detailsPanel.setLayout(new BoxLayout(detailsPanel, BoxLayout.Y_AXIS));
 			detailsPanel.setBackground(ColorScheme.DARKER_GRAY_COLOR);
 
-			// Item name
-			JLabel itemLabel = new JLabel(loan.getItem() + " x" + loan.getQuantity());
 			itemLabel.setFont(FontManager.getRunescapeBoldFont());
 			itemLabel.setForeground(Color.WHITE);
 
-			// Borrower name
-			JLabel borrowerLabel = new JLabel("Lent to: " + loan.getBorrower());
 			borrowerLabel.setFont(FontManager.getRunescapeSmallFont());
 			borrowerLabel.setForeground(Color.LIGHT_GRAY);
 
-			// Due time
-			String dueTimeText = formatDueTime(loan.getDueTime());
-			JLabel dueTimeLabel = new JLabel(dueTimeText);
 			dueTimeLabel.setFont(FontManager.getRunescapeSmallFont());
 
-			// Color code due time
-			if (loan.isOverdue())
-			{
-				dueTimeLabel.setForeground(Color.RED);
-			}
-			else if (isDueSoon(loan.getDueTime()))
-			{
-				dueTimeLabel.setForeground(Color.YELLOW);
-			}
-			else
-			{
-				dueTimeLabel.setForeground(Color.GREEN);
-			}
-
 			detailsPanel.add(itemLabel);
 			detailsPanel.add(Box.createVerticalStrut(3));
 			detailsPanel.add(borrowerLabel);
@@ -827,34 +989,94 @@ public class DashboardPanel extends JPanel
 
 			add(detailsPanel, BorderLayout.CENTER);
 
-			// Right side: Value
-			JPanel valuePanel = new JPanel();
+			// Right side: Value, and the proof screenshot when there is one
+			valuePanel = new JPanel();
 			valuePanel.setLayout(new BoxLayout(valuePanel, BoxLayout.Y_AXIS));
 			valuePanel.setBackground(ColorScheme.DARKER_GRAY_COLOR);
 
-			JLabel valueLabel = new JLabel(QuantityFormatter.quantityToStackSize(loan.getValue()) + " GP");
 			valueLabel.setFont(FontManager.getRunescapeSmallFont());
 			valueLabel.setForeground(Color.YELLOW);
 			valueLabel.setAlignmentX(Component.RIGHT_ALIGNMENT);
+			proofLabel.setAlignmentX(Component.RIGHT_ALIGNMENT);
 
 			valuePanel.add(valueLabel);
+			valuePanel.add(proofGap);
+			valuePanel.add(proofLabel);
 
 			add(valuePanel, BorderLayout.EAST);
 
+			addHoverEffect(this, ColorScheme.DARKER_GRAY_HOVER_COLOR, ColorScheme.DARKER_GRAY_COLOR, detailsPanel, valuePanel);
+		}
+
+		/**
+		 * readOnly suppresses the action menu. Loans shown from ANOTHER group are a
+		 * reminder only - offering this group's actions on them would act on a loan
+		 * that does not belong here, and expose its details through those menus.
+		 */
+		void bind(LendingEntry loan, boolean readOnly)
+		{
+			this.loan = loan;
+			this.readOnly = readOnly;
+			resetBackground(ColorScheme.DARKER_GRAY_COLOR, this, detailsPanel, valuePanel);
+
+			iconLabel.setIcon(null);
+			try
+			{
+				BufferedImage itemImage = itemManager.getImage(loan.getItemId(), loan.getQuantity(), loan.getQuantity() > 1);
+				if (itemImage != null)
+				{
+					iconLabel.setIcon(new ImageIcon(itemImage));
+				}
+			}
+			catch (Exception e)
+			{
+				log.warn("Failed to load item icon for {}", loan.getItemId());
+			}
+
+			itemLabel.setText(loan.getItem() + " x" + loan.getQuantity());
+			borrowerLabel.setText("Lent to: " + loan.getBorrower());
+
+			// Due time, color coded
+			dueTimeLabel.setText(formatDueTime(loan.getDueTime()));
+			if (loan.isOverdue())
+			{
+				dueTimeLabel.setForeground(Color.RED);
+			}
+			else if (isDueSoon(loan.getDueTime()))
+			{
+				dueTimeLabel.setForeground(Color.YELLOW);
+			}
+			else
+			{
+				dueTimeLabel.setForeground(Color.GREEN);
+			}
+
+			valueLabel.setText(QuantityFormatter.quantityToStackSize(loan.getValue()) + " GP");
+
+			// Proof screenshot from the catalog. Other groups' loans are skipped:
+			// their proof lives under that group's folder.
+			boolean hasProof = !readOnly && ProofThumbnail.bind(proofLabel,
+				plugin.getProofCatalog().latestFor(loan, plugin.getCurrentPlayerName()));
+			proofGap.setVisible(hasProof);
+			proofLabel.setVisible(hasProof);
+
 			// Hover anywhere on the card shows the full deal: borrower, dates,
 			// collateral, notes (tooltips don't inherit, so set on every component)
 			LoanTooltip.apply(loan, this, iconLabel, detailsPanel, itemLabel,
 				borrowerLabel, dueTimeLabel, valuePanel, valueLabel);
+		}
 
-			if (!readOnly)
-			{
-				setComponentPopupMenu(buildLoanMenu());
-			}
-			addHoverEffect(this, ColorScheme.DARKER_GRAY_HOVER_COLOR, ColorScheme.DARKER_GRAY_COLOR, detailsPanel, valuePanel);
+		// Built when the popup opens, for the loan bound at that moment
+		@Override
+		public JPopupMenu getComponentPopupMenu()
+		{
+			return loan != null && !readOnly ? buildLoanMenu() : null;
 		}
 
 		private JPopupMenu buildLoanMenu()
 		{
+			// The card may be re-bound while the menu is open; act on this loan
+			final LendingEntry loan = this.loan;
 			String me = getCurrentPlayerName();
 			boolean iAmLender = me != null && me.equalsIgnoreCase(loan.getLender());
 			boolean iAmBorrower = me != null && me.equalsIgnoreCase(loan.getBorrower());
@@ -1260,11 +1482,23 @@ public class DashboardPanel extends JPanel
 					String query = searchField.getText().trim().toLowerCase();
 					model.clear();
 					if (query.length() < 2) return;
+					// The name search is an index lookup, done here on the EDT. Only
+					// pricing the handful of hits needs the client thread (item
+					// compositions live there).
+					java.util.List<com.guess34.lendingtracker.util.NameIndex.Match> matches = searchItems(query, maxResults);
+					if (matches.isEmpty()) return;
 					plugin.getClientThread().invokeLater(() ->
 					{
-						java.util.List<ItemSuggestion> results = searchItems(query, maxResults);
+						java.util.List<ItemSuggestion> results = new java.util.ArrayList<>(matches.size());
+						for (com.guess34.lendingtracker.util.NameIndex.Match match : matches)
+						{
+							results.add(new ItemSuggestion(match.getId(), match.getName(),
+								itemManager.getItemPrice(match.getId())));
+						}
 						SwingUtilities.invokeLater(() ->
 						{
+							// Typing moved on while prices were fetched
+							if (!query.equals(searchField.getText().trim().toLowerCase())) return;
 							for (ItemSuggestion item : results)
 							{
 								model.addElement(item);
@@ -1278,66 +1512,15 @@ public class DashboardPanel extends JPanel
 		});
 	}
 
-	// Uses canonicalize to skip noted/placeholder duplicates
-	private java.util.List<ItemSuggestion> searchItems(String query, int maxResults)
+	/**
+	 * Tradeable items whose name contains the query, best match first, from the
+	 * plugin's prebuilt name index (canonical ids only, so no noted/placeholder
+	 * duplicates). Empty until the index has finished building.
+	 */
+	private java.util.List<com.guess34.lendingtracker.util.NameIndex.Match> searchItems(String query, int maxResults)
 	{
-		java.util.List<ItemSuggestion> results = new java.util.ArrayList<>();
-		java.util.Set<Integer> seenIds = new java.util.HashSet<>();
-
-		try
-		{
-			int itemCount = plugin.getClient().getItemCount();
-			for (int i = 0; i < itemCount && results.size() < maxResults; i++)
-			{
-				try
-				{
-					// Canonicalize to skip noted/placeholder variants
-					int canonId = itemManager.canonicalize(i);
-					if (seenIds.contains(canonId))
-					{
-						continue;
-					}
-					seenIds.add(canonId);
-
-					net.runelite.api.ItemComposition comp = itemManager.getItemComposition(canonId);
-					if (comp != null && comp.getName() != null && !comp.getName().equals("null"))
-					{
-						String name = comp.getName().toLowerCase();
-						if (name.contains(query) && comp.isTradeable())
-						{
-							int gePrice = itemManager.getItemPrice(canonId);
-							results.add(new ItemSuggestion(canonId, comp.getName(), gePrice));
-						}
-					}
-				}
-				catch (Exception ignored)
-				{
-					// Skip items that can't be loaded
-				}
-			}
-		}
-		catch (Exception e)
-		{
-			log.warn("Error searching items", e);
-		}
-
-		// Sort by relevance (exact match first, then starts-with, then contains)
-		results.sort((a, b) ->
-		{
-			String aLower = a.getName().toLowerCase();
-			String bLower = b.getName().toLowerCase();
-			boolean aExact = aLower.equals(query);
-			boolean bExact = bLower.equals(query);
-			if (aExact && !bExact) return -1;
-			if (!aExact && bExact) return 1;
-			boolean aStarts = aLower.startsWith(query);
-			boolean bStarts = bLower.startsWith(query);
-			if (aStarts && !bStarts) return -1;
-			if (!aStarts && bStarts) return 1;
-			return a.getName().compareToIgnoreCase(b.getName());
-		});
-
-		return results;
+		com.guess34.lendingtracker.util.NameIndex index = plugin.getItemNameIndex();
+		return index != null ? index.search(query, maxResults) : java.util.Collections.emptyList();
 	}
 
 	private static class ItemSuggestion
@@ -1458,8 +1641,8 @@ public class DashboardPanel extends JPanel
 		itemsSection.add(suggestionScroll, BorderLayout.CENTER);
 
 		// Items added to request
-		DefaultListModel<LookingForItem> requestItemsModel = new DefaultListModel<>();
-		JList<LookingForItem> requestItemsList = new JList<>(requestItemsModel);
+		DefaultListModel<LookingForRequest.Item> requestItemsModel = new DefaultListModel<>();
+		JList<LookingForRequest.Item> requestItemsList = new JList<>(requestItemsModel);
 		requestItemsList.setBackground(ColorScheme.DARKER_GRAY_COLOR);
 		requestItemsList.setForeground(Color.WHITE);
 		requestItemsList.setSelectionBackground(ColorScheme.BRAND_ORANGE);
@@ -1469,10 +1652,10 @@ public class DashboardPanel extends JPanel
 			public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus)
 			{
 				super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
-				if (value instanceof LookingForItem)
+				if (value instanceof LookingForRequest.Item)
 				{
-					LookingForItem item = (LookingForItem) value;
-					setText(item.itemName + " x" + item.quantity + " (" + QuantityFormatter.quantityToStackSize(item.value * item.quantity) + " GP)");
+					LookingForRequest.Item item = (LookingForRequest.Item) value;
+					setText(item.getItemName() + " x" + item.getQuantity() + " (" + QuantityFormatter.quantityToStackSize(item.getValue() * item.getQuantity()) + " GP)");
 				}
 				setBackground(isSelected ? ColorScheme.BRAND_ORANGE : ColorScheme.DARKER_GRAY_COLOR);
 				return this;
@@ -1523,8 +1706,8 @@ public class DashboardPanel extends JPanel
 			long total = 0;
 			for (int i = 0; i < requestItemsModel.size(); i++)
 			{
-				LookingForItem it = requestItemsModel.get(i);
-				total += (long) it.value * it.quantity;
+				LookingForRequest.Item it = requestItemsModel.get(i);
+				total += it.getValue() * it.getQuantity();
 			}
 			totalValueDisplay.setText("Total Value: " + QuantityFormatter.quantityToStackSize(total) + " GP");
 		};
@@ -1541,18 +1724,18 @@ public class DashboardPanel extends JPanel
 				if (qty <= 0) qty = 1;
 				for (int i = 0; i < requestItemsModel.size(); i++)
 				{
-					if (requestItemsModel.get(i).itemId == selected.getItemId())
+					if (requestItemsModel.get(i).getItemId() == selected.getItemId())
 					{
 						JOptionPane.showMessageDialog(lookingForDialog, "Item already in request.", "Duplicate", JOptionPane.WARNING_MESSAGE);
 						suggestionList.clearSelection();
 						return;
 					}
 				}
-				LookingForItem item = new LookingForItem();
-				item.itemId = selected.getItemId();
-				item.itemName = selected.getName();
-				item.quantity = qty;
-				item.value = selected.getGePrice();
+				LookingForRequest.Item item = new LookingForRequest.Item();
+				item.setItemId(selected.getItemId());
+				item.setItemName(selected.getName());
+				item.setQuantity(qty);
+				item.setValue(selected.getGePrice());
 				requestItemsModel.addElement(item);
 				updateLfTotal.run();
 				itemSearchField.setText("");
@@ -1592,27 +1775,25 @@ public class DashboardPanel extends JPanel
 				int duration = Integer.parseInt(durationField.getText().trim());
 				String title = titleField.getText().trim();
 				String notes = notesField.getText().trim();
-				java.util.List<LookingForItem> items = new java.util.ArrayList<>();
+				java.util.List<LookingForRequest.Item> items = new java.util.ArrayList<>();
 				for (int i = 0; i < requestItemsModel.size(); i++) items.add(requestItemsModel.get(i));
 				String displayName = title.isEmpty()
-					? (items.size() == 1 ? items.get(0).itemName : items.get(0).itemName + " + " + (items.size() - 1) + " more")
+					? (items.size() == 1 ? items.get(0).getItemName() : items.get(0).getItemName() + " + " + (items.size() - 1) + " more")
 					: title;
-				StringBuilder itemsStr = new StringBuilder();
-				for (int i = 0; i < items.size(); i++)
-				{
-					if (i > 0) itemsStr.append(",");
-					LookingForItem item = items.get(i);
-					itemsStr.append(item.itemId).append(":").append(item.itemName.replace(":", "").replace(",", ""))
-						.append(":").append(item.quantity).append(":").append(item.value);
-				}
 				String groupId = activeGroup.getId();
+				LookingForRequest request = new LookingForRequest();
 				// Millisecond timestamps collide: two requests made in the same
 				// millisecond shared an id and silently overwrote each other.
 				// Existing ids stay readable - nothing parses this back to a number.
-				String requestId = java.util.UUID.randomUUID().toString();
-				saveLookingForRequest(groupId, requestId, String.format("%s|%s|%d|%d|%s|%s",
-					finalCurrentPlayer, displayName, items.size(), duration, notes, itemsStr.toString()));
-				long totalValue = items.stream().mapToLong(it -> it.value * it.quantity).sum();
+				request.setId(java.util.UUID.randomUUID().toString());
+				request.setRequesterName(finalCurrentPlayer);
+				request.setItemName(displayName);
+				request.setQuantity(items.size());
+				request.setDurationDays(duration);
+				request.setNotes(notes);
+				request.setItems(items);
+				dataService.saveLookingForRequest(groupId, request);
+				long totalValue = request.getTotalValue();
 				final String chatMsg = String.format("[Lending Tracker] %s is looking for: %s (%d items, %s GP) for %d days",
 					finalCurrentPlayer, displayName, items.size(), QuantityFormatter.quantityToStackSize(totalValue), duration);
 				if (plugin.getClientThread() != null)
@@ -1641,163 +1822,56 @@ public class DashboardPanel extends JPanel
 		lookingForDialog.setVisible(true);
 	}
 
-	private List<LookingForRequest> getLookingForRequests(String groupId)
-	{
-		if (groupId == null || groupId.isEmpty())
-		{
-			return new java.util.ArrayList<>();
-		}
-
-		// Check cache first - source of truth once populated
-		if (lookingForCache.containsKey(groupId))
-		{
-			List<LookingForRequest> cached = lookingForCache.get(groupId);
-			return cached != null ? new java.util.ArrayList<>(cached) : new java.util.ArrayList<>();
-		}
-
-		// First time loading this group - load from config and cache it
-		List<LookingForRequest> requests = new java.util.ArrayList<>();
-		try
-		{
-			String requestIdsKey = "lookingForIds." + groupId;
-			String requestIdsStr = plugin.getConfigManager().getConfiguration("lendingtracker", requestIdsKey);
-
-			if (requestIdsStr != null && !requestIdsStr.isEmpty())
-			{
-				// Dedupe on read as well as on save: configs written before the upsert
-				// fix already hold repeated ids, and without this they keep rendering as
-				// duplicate cards until that request happens to be saved again. Reading
-				// through a set makes existing damage self-heal.
-				java.util.Set<String> seenIds = new java.util.LinkedHashSet<>();
-				for (String rawId : requestIdsStr.split(","))
-				{
-					String t = rawId.trim();
-					if (!t.isEmpty()) seenIds.add(t);
-				}
-				for (String requestId : seenIds)
-				{
-					String requestKey = "lookingFor." + groupId + "." + requestId;
-					String requestData = plugin.getConfigManager().getConfiguration("lendingtracker", requestKey);
-
-					if (requestData != null && !requestData.isEmpty())
-					{
-						LookingForRequest request = LookingForRequest.parse(requestId, requestData);
-						if (request != null)
-						{
-							requests.add(request);
-						}
-					}
-				}
-			}
-
-			lookingForCache.put(groupId, new java.util.ArrayList<>(requests));
-		}
-		catch (Exception e)
-		{
-			log.error("Failed to load looking for requests", e);
-		}
-
-		return requests;
-	}
-
-	private void saveLookingForRequest(String groupId, String requestId, String requestData)
-	{
-		// Save the request data to config (for persistence)
-		String requestKey = "lookingFor." + groupId + "." + requestId;
-		plugin.getConfigManager().setConfiguration("lendingtracker", requestKey, requestData);
-
-		// Update the list of request IDs in config
-		String requestIdsKey = "lookingForIds." + groupId;
-		String existingIds = plugin.getConfigManager().getConfiguration("lendingtracker", requestIdsKey);
-
-		// Editing an existing request calls this with the SAME id. Appending it
-		// unconditionally listed that id twice, so the panel drew the request once
-		// per copy - and deleting any one of them removed the single underlying
-		// record, making every copy vanish at once.
-		java.util.List<String> ids = new java.util.ArrayList<>();
-		if (existingIds != null && !existingIds.isEmpty())
-		{
-			for (String id : existingIds.split(","))
-			{
-				String trimmed = id.trim();
-				if (!trimmed.isEmpty() && !ids.contains(trimmed)) ids.add(trimmed);
-			}
-		}
-		if (!ids.contains(requestId)) ids.add(requestId);
-		plugin.getConfigManager().setConfiguration("lendingtracker", requestIdsKey,
-			String.join(",", ids));
-
-		// Also update in-memory cache for immediate display
-		LookingForRequest newRequest = LookingForRequest.parse(requestId, requestData);
-		if (newRequest != null)
-		{
-			// Replace in place when this id is already cached; appending would leave
-			// the stale copy next to the edited one, and the cache is what the panel
-			// displays ("source of truth once populated").
-			java.util.List<LookingForRequest> cached =
-				lookingForCache.computeIfAbsent(groupId, k -> new java.util.ArrayList<>());
-			int at = -1;
-			for (int i = 0; i < cached.size(); i++)
-			{
-				if (cached.get(i) != null && requestId.equals(cached.get(i).id)) { at = i; break; }
-			}
-			if (at >= 0) cached.set(at, newRequest); else cached.add(newRequest);
-		}
-	}
-
-	private void removeLookingForRequest(String groupId, String requestId)
-	{
-		// Remove the request data from config
-		String requestKey = "lookingFor." + groupId + "." + requestId;
-		plugin.getConfigManager().unsetConfiguration("lendingtracker", requestKey);
-
-		// Update the list of request IDs in config
-		String requestIdsKey = "lookingForIds." + groupId;
-		String existingIds = plugin.getConfigManager().getConfiguration("lendingtracker", requestIdsKey);
-
-		if (existingIds != null && !existingIds.isEmpty())
-		{
-			String[] ids = existingIds.split(",");
-			StringBuilder newIds = new StringBuilder();
-			for (String id : ids)
-			{
-				if (!id.equals(requestId))
-				{
-					if (newIds.length() > 0) newIds.append(",");
-					newIds.append(id);
-				}
-			}
-			plugin.getConfigManager().setConfiguration("lendingtracker", requestIdsKey, newIds.toString());
-		}
-
-		// Also remove from in-memory cache
-		List<LookingForRequest> cached = lookingForCache.get(groupId);
-		if (cached != null) cached.removeIf(r -> r.id != null && r.id.equals(requestId));
-	}
-
 	/**
 	 * Card for a direct request (borrow request or lend offer).
 	 * Incoming requests can be accepted or declined; outgoing ones cancelled.
+	 * Pooled by the card list and re-bound as requests scroll into view.
 	 */
 	private class RequestCard extends JPanel
 	{
-		private final LendingRequest request;
-		private final boolean incoming;
+		private LendingRequest request;
+		private boolean incoming;
+		private final JPanel detailsPanel;
+		private final JLabel titleLabel = new JLabel();
+		private final JLabel itemLabel = new JLabel();
+		private final JLabel hintLabel = new JLabel();
 
-		public RequestCard(LendingRequest request, boolean incoming)
+		RequestCard()
 		{
-			this.request = request;
-			this.incoming = incoming;
-
 			setLayout(new BorderLayout(5, 0));
-			Color bgColor = incoming ? new Color(45, 60, 45) : new Color(55, 55, 45); // Green tint in, amber tint out
-			setBackground(bgColor);
 			setBorder(BorderFactory.createCompoundBorder(
 				BorderFactory.createMatteBorder(0, 0, 1, 0, ColorScheme.DARK_GRAY_COLOR),
 				new EmptyBorder(8, 8, 8, 8)
 			));
 			setMaximumSize(new Dimension(Integer.MAX_VALUE, 65));
 			setPreferredSize(new Dimension(200, 60));
+			// No listeners of its own; the popup still needs mouse events
+			enableEvents(AWTEvent.MOUSE_EVENT_MASK);
+
+			detailsPanel = new JPanel();
+			detailsPanel.setLayout(new BoxLayout(detailsPanel, BoxLayout.Y_AXIS));
+
+			titleLabel.setFont(FontManager.getRunescapeSmallFont());
+			titleLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
+			detailsPanel.add(titleLabel);
+
+			itemLabel.setFont(FontManager.getRunescapeBoldFont());
+			itemLabel.setForeground(Color.WHITE);
+			detailsPanel.add(itemLabel);
+
+			add(detailsPanel, BorderLayout.CENTER);
+
+			hintLabel.setFont(FontManager.getRunescapeSmallFont());
+			hintLabel.setForeground(Color.GRAY);
+			add(hintLabel, BorderLayout.EAST);
+		}
+
+		void bind(LendingRequest request, boolean incoming)
+		{
+			this.request = request;
+			this.incoming = incoming;
+			Color bgColor = incoming ? new Color(45, 60, 45) : new Color(55, 55, 45); // Green tint in, amber tint out
+			resetBackground(bgColor, this, detailsPanel);
 
 			String title;
 			if (request.isRemoval())
@@ -1827,40 +1901,30 @@ public class DashboardPanel extends JPanel
 					? "You asked " + request.getTo() + " for"
 					: "You offered " + request.getTo();
 			}
+			titleLabel.setText(title);
 
-			JPanel detailsPanel = new JPanel();
-			detailsPanel.setLayout(new BoxLayout(detailsPanel, BoxLayout.Y_AXIS));
-			detailsPanel.setBackground(bgColor);
-
-			JLabel titleLabel = new JLabel(title);
-			titleLabel.setFont(FontManager.getRunescapeSmallFont());
-			titleLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
-			detailsPanel.add(titleLabel);
-
-			JLabel itemLabel = new JLabel(request.getItemName()
+			itemLabel.setText(request.getItemName()
 				+ (request.getQuantity() > 1 ? " x" + request.getQuantity() : "")
 				+ (request.isRemoval() ? "" : "  • " + request.getDurationDays() + " days"));
-			itemLabel.setFont(FontManager.getRunescapeBoldFont());
-			itemLabel.setForeground(Color.WHITE);
-			detailsPanel.add(itemLabel);
-
-			if (request.getMessage() != null && !request.getMessage().isEmpty())
-			{
-				setToolTipText("Message: " + request.getMessage());
-			}
 
-			add(detailsPanel, BorderLayout.CENTER);
+			setToolTipText(request.getMessage() != null && !request.getMessage().isEmpty()
+				? "Message: " + request.getMessage() : null);
 
-			JLabel hintLabel = new JLabel(incoming ? "<html><center>Right-click<br>to respond</center></html>" : "Pending");
-			hintLabel.setFont(FontManager.getRunescapeSmallFont());
-			hintLabel.setForeground(Color.GRAY);
-			add(hintLabel, BorderLayout.EAST);
+			hintLabel.setText(incoming ? "<html><center>Right-click<br>to respond</center></html>" : "Pending");
+		}
 
-			setComponentPopupMenu(createRequestPopupMenu());
+		// Built when the popup opens, for the request bound at that moment
+		@Override
+		public JPopupMenu getComponentPopupMenu()
+		{
+			return request != null ? createRequestPopupMenu() : null;
 		}
 
 		private JPopupMenu createRequestPopupMenu()
 		{
+			// The card may be re-bound while the menu is open; act on this request
+			final LendingRequest request = this.request;
+			final boolean incoming = this.incoming;
 			JPopupMenu menu = new JPopupMenu();
 			if (incoming)
 			{
@@ -2022,90 +2086,22 @@ public class DashboardPanel extends JPanel
 		refresh();
 	}
 
-	private static class LookingForRequest
-	{
-		String id;
-		String requesterName;
-		String itemName;        // Primary item name (for display) or request title
-		int quantity;           // Quantity of primary item or total items count
-		int durationDays;
-		String notes;
-		long postedTime;
-		java.util.List<LookingForItem> items = new java.util.ArrayList<>();
-
-		static LookingForRequest parse(String id, String data)
-		{
-			try
-			{
-				String[] parts = data.split("\\|", 6);
-				if (parts.length < 4) return null;
-				LookingForRequest r = new LookingForRequest();
-				r.id = id;
-				r.requesterName = parts[0];
-				r.itemName = parts[1];
-				r.quantity = Integer.parseInt(parts[2]);
-				r.durationDays = Integer.parseInt(parts[3]);
-				r.notes = parts.length > 4 ? parts[4] : "";
-				if (parts.length > 5 && !parts[5].isEmpty())
-				{
-					for (String itemPart : parts[5].split(","))
-					{
-						String[] d = itemPart.split(":");
-						if (d.length >= 3)
-						{
-							try
-							{
-								LookingForItem item = new LookingForItem();
-								item.itemId = Integer.parseInt(d[0]);
-								item.itemName = d[1];
-								item.quantity = Integer.parseInt(d[2]);
-								item.value = d.length > 3 ? Long.parseLong(d[3]) : 0;
-								r.items.add(item);
-							}
-							catch (NumberFormatException ignored) {}
-						}
-					}
-				}
-				try { r.postedTime = Long.parseLong(id); }
-				catch (NumberFormatException e) { r.postedTime = System.currentTimeMillis(); }
-				return r;
-			}
-			catch (Exception e) { return null; }
-		}
-
-		String getPostedTimeFormatted()
-		{
-			if (postedTime == 0) return "Unknown";
-			long d = System.currentTimeMillis() - postedTime;
-			if (d < 60000) return "Just now";
-			if (d < 3600000) return (d / 60000) + "m ago";
-			if (d < 86400000) return (d / 3600000) + "h ago";
-			return (d / 86400000) + "d ago";
-		}
-
-		long getTotalValue() { return items.stream().mapToLong(i -> i.value * i.quantity).sum(); }
-		int getItemCount() { return items.isEmpty() ? 1 : items.size(); }
-		boolean isMultiItem() { return items.size() > 1; }
-	}
-
-	private static class LookingForItem
-	{
-		int itemId;
-		String itemName;
-		int quantity;
-		long value;
-	}
-
+	/**
+	 * "Looking For" request card. Pooled by the card list and re-bound as
+	 * requests scroll into view.
+	 */
 	private class LookingForCard extends JPanel
 	{
-		private final LookingForRequest request;
+		private LookingForRequest request;
 		private final JPanel detailsPanel;
 		private final JPanel rightPanel;
+		private final JLabel itemLabel = new JLabel();
+		private final JLabel requesterLabel = new JLabel();
+		private final JLabel durationLabel = new JLabel();
+		private final JLabel timeLabel = new JLabel();
 
-		public LookingForCard(LookingForRequest request)
+		LookingForCard()
 		{
-			this.request = request;
-
 			setLayout(new BorderLayout(5, 0));
 			// Use a blue-tinted background to differentiate from offerings
 			Color bgColor = new Color(45, 50, 60); // Blue-gray
@@ -2118,21 +2114,6 @@ public class DashboardPanel extends JPanel
 			setMaximumSize(new Dimension(Integer.MAX_VALUE, 65));
 			setPreferredSize(new Dimension(200, 60));
 
-			if (request.isMultiItem())
-			{
-				StringBuilder tooltipSb = new StringBuilder();
-				tooltipSb.append("<html><b>").append(request.itemName).append("</b><br>");
-				tooltipSb.append(request.getItemCount()).append(" items | ").append(QuantityFormatter.quantityToStackSize(request.getTotalValue())).append(" GP<br>");
-				tooltipSb.append("<i>Right-click to view all items</i></html>");
-				setToolTipText(tooltipSb.toString());
-			}
-			else
-			{
-				setToolTipText("<html><b>" + request.itemName + "</b> x" + request.quantity + "<br>" +
-					"Duration: " + request.durationDays + " days<br>" +
-					(request.notes != null && !request.notes.isEmpty() ? "Note: " + request.notes : "") + "</html>");
-			}
-
 			// Left side: "Want" icon/indicator
 			JLabel iconLabel = new JLabel("WANT");
 			iconLabel.setFont(FontManager.getRunescapeSmallFont());
@@ -2146,16 +2127,9 @@ public class DashboardPanel extends JPanel
 			detailsPanel.setLayout(new BoxLayout(detailsPanel, BoxLayout.Y_AXIS));
 			detailsPanel.setBackground(bgColor);
 
-			// Item name
-			String itemName = request.itemName;
-			if (itemName.length() > 18) itemName = itemName.substring(0, 15) + "...";
-			JLabel itemLabel = new JLabel(itemName + " x" + request.quantity);
 			itemLabel.setFont(FontManager.getRunescapeSmallFont());
 			itemLabel.setForeground(Color.WHITE);
 
-			// Requester name
-			String requesterText = "By: " + request.requesterName;
-			JLabel requesterLabel = new JLabel(requesterText);
 			requesterLabel.setFont(FontManager.getRunescapeSmallFont());
 			requesterLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
 
@@ -2170,11 +2144,9 @@ public class DashboardPanel extends JPanel
 			rightPanel.setBackground(bgColor);
 			rightPanel.setPreferredSize(new Dimension(55, 45));
 
-			JLabel durationLabel = new JLabel(request.durationDays + " days");
 			durationLabel.setFont(FontManager.getRunescapeSmallFont());
 			durationLabel.setForeground(ColorScheme.GRAND_EXCHANGE_PRICE);
 
-			JLabel timeLabel = new JLabel(request.getPostedTimeFormatted());
 			timeLabel.setFont(FontManager.getRunescapeSmallFont());
 			timeLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
 
@@ -2183,15 +2155,42 @@ public class DashboardPanel extends JPanel
 
 			add(rightPanel, BorderLayout.EAST);
 
-			setComponentPopupMenu(createLookingForPopupMenu());
 			addHoverEffect(this, new Color(55, 60, 70), bgColor, detailsPanel, rightPanel);
 		}
 
+		void bind(LookingForRequest request)
+		{
+			this.request = request;
+			resetBackground(new Color(45, 50, 60), this, detailsPanel, rightPanel);
+
+			// Formatted on first hover, cached per request content
+			TooltipCache.bind(request, r -> "lookingfor:" + r.getId() + "@" + r.hashCode(),
+				DashboardPanel::lookingForTooltip, this);
+
+			// Item name
+			String itemName = request.getItemName();
+			if (itemName.length() > 18) itemName = itemName.substring(0, 15) + "...";
+			itemLabel.setText(itemName + " x" + request.getQuantity());
+			requesterLabel.setText("By: " + request.getRequesterName());
+
+			durationLabel.setText(request.getDurationDays() + " days");
+			timeLabel.setText(request.getPostedTimeFormatted());
+		}
+
+		// Built when the popup opens, for the request bound at that moment
+		@Override
+		public JPopupMenu getComponentPopupMenu()
+		{
+			return request != null ? createLookingForPopupMenu() : null;
+		}
+
 		private JPopupMenu createLookingForPopupMenu()
 		{
+			// The card may be re-bound while the menu is open; act on this request
+			final LookingForRequest request = this.request;
 			JPopupMenu menu = new JPopupMenu();
 			String currentPlayer = getCurrentPlayerName();
-			boolean isOwner = request.requesterName != null && request.requesterName.equalsIgnoreCase(currentPlayer);
+			boolean isOwner = request.getRequesterName() != null && request.getRequesterName().equalsIgnoreCase(currentPlayer);
 
 			// View items option for multi-item requests (details shown via tooltip)
 			if (request.isMultiItem())
@@ -2214,7 +2213,7 @@ public class DashboardPanel extends JPanel
 				removeItem.addActionListener(e -> {
 					int confirm = JOptionPane.showConfirmDialog(
 						DashboardPanel.this,
-						"Remove your request for " + request.itemName + "?",
+						"Remove your request for " + request.getItemName() + "?",
 						"Confirm Remove",
 						JOptionPane.YES_NO_OPTION
 					);
@@ -2223,7 +2222,7 @@ public class DashboardPanel extends JPanel
 						String groupId = groupService.getCurrentGroupIdUnchecked();
 						if (groupId != null)
 						{
-							removeLookingForRequest(groupId, request.id);
+							dataService.removeLookingForRequest(groupId, request.getId());
 							refresh();
 						}
 					}
@@ -2240,10 +2239,10 @@ public class DashboardPanel extends JPanel
 			}
 
 			// Show notes if any
-			if (request.notes != null && !request.notes.isEmpty())
+			if (request.getNotes() != null && !request.getNotes().isEmpty())
 			{
 				menu.addSeparator();
-				JMenuItem notesItem = new JMenuItem("Notes: " + request.notes);
+				JMenuItem notesItem = new JMenuItem("Notes: " + request.getNotes());
 				notesItem.setEnabled(false);
 				menu.add(notesItem);
 			}
@@ -2260,25 +2259,25 @@ public class DashboardPanel extends JPanel
 			gbc.gridx = 0; gbc.gridy = 0;
 			editPanel.add(new JLabel("Item Name:"), gbc);
 			gbc.gridx = 1;
-			JTextField itemNameField = new JTextField(request.itemName, 20);
+			JTextField itemNameField = new JTextField(request.getItemName(), 20);
 			editPanel.add(itemNameField, gbc);
 
 			gbc.gridx = 0; gbc.gridy = 1;
 			editPanel.add(new JLabel("Quantity:"), gbc);
 			gbc.gridx = 1;
-			JTextField quantityField = new JTextField(String.valueOf(request.quantity), 10);
+			JTextField quantityField = new JTextField(String.valueOf(request.getQuantity()), 10);
 			editPanel.add(quantityField, gbc);
 
 			gbc.gridx = 0; gbc.gridy = 2;
 			editPanel.add(new JLabel("Duration (days):"), gbc);
 			gbc.gridx = 1;
-			JTextField durationField = new JTextField(String.valueOf(request.durationDays), 10);
+			JTextField durationField = new JTextField(String.valueOf(request.getDurationDays()), 10);
 			editPanel.add(durationField, gbc);
 
 			gbc.gridx = 0; gbc.gridy = 3;
 			editPanel.add(new JLabel("Notes:"), gbc);
 			gbc.gridx = 1;
-			JTextField notesField = new JTextField(request.notes != null ? request.notes : "", 20);
+			JTextField notesField = new JTextField(request.getNotes() != null ? request.getNotes() : "", 20);
 			editPanel.add(notesField, gbc);
 
 			int result = JOptionPane.showConfirmDialog(
@@ -2309,9 +2308,17 @@ public class DashboardPanel extends JPanel
 					String groupId = groupService.getCurrentGroupIdUnchecked();
 					if (groupId != null)
 					{
-						String requestData = String.format("%s|%s|%d|%d|%s|",
-							request.requesterName, newItemName, newQty, newDuration, newNotes);
-						saveLookingForRequest(groupId, request.id, requestData);
+						// A new object: the one shown is shared with the store's cached view.
+						// Saved without its item list, as edits always have been.
+						LookingForRequest edited = new LookingForRequest();
+						edited.setId(request.getId());
+						edited.setRequesterName(request.getRequesterName());
+						edited.setPostedTime(request.getPostedTime());
+						edited.setItemName(newItemName);
+						edited.setQuantity(newQty);
+						edited.setDurationDays(newDuration);
+						edited.setNotes(newNotes);
+						dataService.saveLookingForRequest(groupId, edited);
 						refresh();
 					}
 				}
@@ -2331,20 +2338,20 @@ public class DashboardPanel extends JPanel
 			JPanel panel = new JPanel(new GridBagLayout());
 			GridBagConstraints gbc = createDefaultGbc();
 			gbc.gridy = 0; gbc.gridwidth = 2;
-			panel.add(new JLabel("<html><b>Offer: " + request.itemName + "</b> to " + request.requesterName +
+			panel.add(new JLabel("<html><b>Offer: " + request.getItemName() + "</b> to " + request.getRequesterName() +
 				(groupName != null ? " <font color='#FFA500'>(" + groupName + ")</font>" : "") +
-				"<br><font color='gray'>Requested: x" + request.quantity + " for " + request.durationDays + " days</font></html>"), gbc);
+				"<br><font color='gray'>Requested: x" + request.getQuantity() + " for " + request.getDurationDays() + " days</font></html>"), gbc);
 
 			gbc.gridy = 1; gbc.gridwidth = 1;
 			panel.add(new JLabel("Quantity:"), gbc);
 			gbc.gridx = 1;
-			JTextField qtyField = new JTextField(String.valueOf(request.quantity), 5);
+			JTextField qtyField = new JTextField(String.valueOf(request.getQuantity()), 5);
 			panel.add(qtyField, gbc);
 
 			gbc.gridx = 0; gbc.gridy = 2;
 			panel.add(new JLabel("Duration:"), gbc);
 			gbc.gridx = 1;
-			JTextField durationField = new JTextField(String.valueOf(request.durationDays), 5);
+			JTextField durationField = new JTextField(String.valueOf(request.getDurationDays()), 5);
 			panel.add(durationField, gbc);
 
 			gbc.gridx = 0; gbc.gridy = 3; gbc.gridwidth = 2;
@@ -2383,14 +2390,14 @@ public class DashboardPanel extends JPanel
 					if (hoursRadio.isSelected()) duration = -duration; // Negative = hours
 					String durationDisplay = duration < 0 ? Math.abs(duration) + " hours" : duration + " days";
 					int durationDays = duration < 0 ? Math.max(1, Math.abs(duration) / 24) : duration;
-					boolean sent = plugin.sendLendOffer(lender, request.requesterName, request.itemName, offerQty, durationDays, msgField.getText().trim(), durationDisplay);
+					boolean sent = plugin.sendLendOffer(lender, request.getRequesterName(), request.getItemName(), offerQty, durationDays, msgField.getText().trim(), durationDisplay);
 					if (sent)
 					{
 						String deliveryNote = plugin.isRelaySyncConnected()
 							? "They'll see it in their Lending Tracker panel."
 							: "Cloud Sync is offline — it will be delivered when they next sync.";
 						JOptionPane.showMessageDialog(DashboardPanel.this,
-							"Offer sent to " + request.requesterName + "!\nItem: " + request.itemName + " x" + offerQty + "\nDuration: " + durationDisplay + "\n" + deliveryNote,
+							"Offer sent to " + request.getRequesterName() + "!\nItem: " + request.getItemName() + " x" + offerQty + "\nDuration: " + durationDisplay + "\n" + deliveryNote,
 							"Offer Sent", JOptionPane.INFORMATION_MESSAGE);
 					}
 					else
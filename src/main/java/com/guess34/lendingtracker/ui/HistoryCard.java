@@ -3,6 +3,8 @@ package com.guess34.lendingtracker.ui;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.game.ItemManager;
 import com.guess34.lendingtracker.model.LendingEntry;
+import com.guess34.lendingtracker.services.HistoryIndex;
+import com.guess34.lendingtracker.services.ProofCatalog;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.FontManager;
 
@@ -26,8 +28,28 @@ public class HistoryCard extends JPanel
 	private static final Color DEFAULTED_COLOR = new Color(200, 0, 0);
 	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd");
 
-	public HistoryCard(LendingEntry entry, ItemManager itemManager)
+	private final ItemManager itemManager;
+
+	private final JLabel iconLabel = new JLabel();
+	private final JPanel centerPanel = new JPanel();
+	private final JLabel itemNameLabel = new JLabel();
+	private final JLabel participantLabel = new JLabel();
+	private final JPanel rightPanel = new JPanel();
+	private final JLabel dateLabel = new JLabel();
+	private final JLabel statusBadge = new JLabel();
+	private final JLabel proofLabel = ProofThumbnail.create();
+
+	public HistoryCard(LendingEntry entry, ItemManager itemManager, ProofCatalog.Proof proof)
+	{
+		this(itemManager);
+		bind(entry, proof);
+	}
+
+	/** An unbound card, for the History list to re-bind as rows scroll by. */
+	HistoryCard(ItemManager itemManager)
 	{
+		this.itemManager = itemManager;
+
 		setLayout(new BorderLayout(10, 0));
 		setBackground(CARD_BACKGROUND);
 		setBorder(new EmptyBorder(8, 10, 8, 10));
@@ -35,35 +57,17 @@ public class HistoryCard extends JPanel
 		setPreferredSize(new Dimension(0, 60));
 
 		// Left: Item Icon
-		JLabel iconLabel = new JLabel();
 		iconLabel.setPreferredSize(new Dimension(36, 36));
-
-		// Load icon asynchronously
-		SwingUtilities.invokeLater(() ->
-		{
-			BufferedImage itemImage = itemManager.getImage(entry.getItemId(), entry.getQuantity(), entry.getQuantity() > 1);
-			if (itemImage != null)
-			{
-				// Scale to 36x36
-				Image scaled = itemImage.getScaledInstance(36, 36, Image.SCALE_SMOOTH);
-				iconLabel.setIcon(new ImageIcon(scaled));
-			}
-		});
-
 		add(iconLabel, BorderLayout.WEST);
 
 		// Center: Item Info
-		JPanel centerPanel = new JPanel();
 		centerPanel.setLayout(new BoxLayout(centerPanel, BoxLayout.Y_AXIS));
 		centerPanel.setBackground(CARD_BACKGROUND);
 
-		JLabel itemNameLabel = new JLabel(entry.getItem());
 		itemNameLabel.setFont(FontManager.getRunescapeBoldFont());
 		itemNameLabel.setForeground(Color.WHITE);
 		itemNameLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
 
-		String participantInfo = String.format("Lent to: %s", entry.getBorrower());
-		JLabel participantLabel = new JLabel(participantInfo);
 		participantLabel.setFont(FontManager.getRunescapeSmallFont());
 		participantLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
 		participantLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
@@ -75,26 +79,57 @@ public class HistoryCard extends JPanel
 		add(centerPanel, BorderLayout.CENTER);
 
 		// Right: Date and Status
-		JPanel rightPanel = new JPanel();
 		rightPanel.setLayout(new BoxLayout(rightPanel, BoxLayout.Y_AXIS));
 		rightPanel.setBackground(CARD_BACKGROUND);
 
-		// Date label
-		String dateStr = DATE_FORMAT.format(Instant.ofEpochMilli(entry.getLendDate()).atZone(ZoneId.systemDefault()));
-		JLabel dateLabel = new JLabel(dateStr);
 		dateLabel.setFont(FontManager.getRunescapeSmallFont());
 		dateLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
 		dateLabel.setAlignmentX(Component.RIGHT_ALIGNMENT);
 
-		// Status badge
-		JLabel statusBadge = createStatusBadge(entry);
+		statusBadge.setFont(FontManager.getRunescapeSmallFont());
+		statusBadge.setForeground(Color.WHITE);
+		statusBadge.setOpaque(true);
+		statusBadge.setBorder(new EmptyBorder(2, 8, 2, 8));
+		statusBadge.setHorizontalAlignment(SwingConstants.CENTER);
 		statusBadge.setAlignmentX(Component.RIGHT_ALIGNMENT);
 
 		rightPanel.add(dateLabel);
 		rightPanel.add(Box.createVerticalStrut(4));
 		rightPanel.add(statusBadge);
 
-		add(rightPanel, BorderLayout.EAST);
+		// Proof screenshot from the catalog, if one was saved for this loan. It
+		// sits beside the date and status: the card is too short to stack it.
+		JPanel eastPanel = new JPanel(new BorderLayout(6, 0));
+		eastPanel.setBackground(CARD_BACKGROUND);
+		eastPanel.add(proofLabel, BorderLayout.WEST);
+		eastPanel.add(rightPanel, BorderLayout.CENTER);
+		add(eastPanel, BorderLayout.EAST);
+	}
+
+	/** Show this entry (and its proof, if any) on the card. */
+	void bind(LendingEntry entry, ProofCatalog.Proof proof)
+	{
+		iconLabel.setIcon(null);
+		try
+		{
+			BufferedImage itemImage = itemManager.getImage(entry.getItemId(), entry.getQuantity(), entry.getQuantity() > 1);
+			if (itemImage != null)
+			{
+				// Scale to 36x36
+				Image scaled = itemImage.getScaledInstance(36, 36, Image.SCALE_SMOOTH);
+				iconLabel.setIcon(new ImageIcon(scaled));
+			}
+		}
+		catch (Exception e)
+		{
+			log.warn("Failed to load item icon for {}", entry.getItemId());
+		}
+
+		itemNameLabel.setText(entry.getItem());
+		participantLabel.setText(String.format("Lent to: %s", entry.getBorrower()));
+		dateLabel.setText(DATE_FORMAT.format(Instant.ofEpochMilli(entry.getLendDate()).atZone(ZoneId.systemDefault())));
+		bindStatusBadge(entry);
+		proofLabel.setVisible(ProofThumbnail.bind(proofLabel, proof));
 
 		// Hover anywhere on the card shows the full deal: borrower, dates,
 		// collateral, notes (tooltips don't inherit, so set on every component)
@@ -103,47 +138,29 @@ public class HistoryCard extends JPanel
 	}
 
 	/**
-	 * Create status badge with appropriate color
+	 * Set the status badge's text and color
 	 */
-	private JLabel createStatusBadge(LendingEntry entry)
+	private void bindStatusBadge(LendingEntry entry)
 	{
-		String statusText;
+		HistoryIndex.Status status = HistoryIndex.statusOf(entry, System.currentTimeMillis());
 		Color statusColor;
-
-		if (entry.getReturnedAt() > 0)
+		switch (status)
 		{
-			statusText = "Returned";
-			statusColor = RETURNED_COLOR;
-		}
-		else if (entry.isOverdue())
-		{
-			// Very overdue (> 30 days) = defaulted
-			long daysSinceDue = (System.currentTimeMillis() - entry.getDueDate()) / (24 * 60 * 60 * 1000);
-			if (daysSinceDue > 30)
-			{
-				statusText = "Defaulted";
+			case RETURNED:
+				statusColor = RETURNED_COLOR;
+				break;
+			case DEFAULTED:
+				// Very overdue (> 30 days) = defaulted
 				statusColor = DEFAULTED_COLOR;
-			}
-			else
-			{
-				statusText = "Overdue";
+				break;
+			case OVERDUE:
 				statusColor = OVERDUE_COLOR;
-			}
-		}
-		else
-		{
-			statusText = "Active";
-			statusColor = ColorScheme.BRAND_ORANGE;
+				break;
+			default:
+				statusColor = ColorScheme.BRAND_ORANGE;
+				break;
 		}
-
-		JLabel badge = new JLabel(statusText);
-		badge.setFont(FontManager.getRunescapeSmallFont());
-		badge.setForeground(Color.WHITE);
-		badge.setBackground(statusColor);
-		badge.setOpaque(true);
-		badge.setBorder(new EmptyBorder(2, 8, 2, 8));
-		badge.setHorizontalAlignment(SwingConstants.CENTER);
-
-		return badge;
+		statusBadge.setText(status.getLabel());
+		statusBadge.setBackground(statusColor);
 	}
 }
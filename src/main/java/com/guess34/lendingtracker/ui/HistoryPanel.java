@@ -5,39 +5,70 @@ import net.runelite.client.game.ItemManager;
 import com.guess34.lendingtracker.LendingTrackerPlugin;
 import com.guess34.lendingtracker.model.LendingEntry;
 import com.guess34.lendingtracker.services.DataService;
+import com.guess34.lendingtracker.services.HistoryIndex;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.FontManager;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * HistoryPanel - Transaction history log for completed lending transactions
  * CHANGED: Removed notifications view (NotificationService deleted). History is now the sole view.
+ * Reads pages from DataService's pre-sorted HistoryIndex and draws only the
+ * cards in view; more pages load as the list is scrolled to its end.
  */
 @Slf4j
 public class HistoryPanel extends JPanel
 {
+	// Entries read from the index per page; more are appended as the list is
+	// scrolled to its end
+	private static final int PAGE_SIZE = 50;
+	private static final String ALL_PARTNERS = "All partners";
+	private static final String ALL_ITEMS = "All items";
+	private static final String ALL_STATUSES = "All statuses";
+
 	private final LendingTrackerPlugin plugin;
 	private final DataService dataService;
 	private final ItemManager itemManager;
 
 	private final JLabel totalHistoryLabel;
-	private final JPanel historyListPanel;
+	private final JComboBox<String> partnerFilter = new JComboBox<>();
+	private final JComboBox<String> itemFilter = new JComboBox<>();
+	private final JComboBox<String> statusFilter = new JComboBox<>();
+	// Only the visible cards exist; they are pooled and re-bound as rows scroll by
+	private final VirtualCardList historyList;
+	private final VirtualCardList.Kind<LendingEntry> historyKind;
+	private final VirtualCardList.Kind<String> messageKind =
+		VirtualCardList.kind(HistoryPanel::createMessageCard, JLabel::setText);
+
+	// What is loaded: the first loaded.size() of total matches for filter, read
+	// at index generation loadedGeneration
+	private HistoryIndex.Filter filter = HistoryIndex.Filter.NONE;
+	private List<LendingEntry> loaded = new ArrayList<>();
+	private int total;
+	private int loadedGeneration = -1;
+	// Index generation the filter choices were last filled from
+	private int filterGeneration = -1;
+	private boolean updatingFilters;
+	private boolean loggedIn;
 
 	public HistoryPanel(LendingTrackerPlugin plugin)
 	{
 		this.plugin = plugin;
 		this.dataService = plugin.getDataService();
 		this.itemManager = plugin.getItemManager();
+		this.historyKind = VirtualCardList.kind(this::createHistoryCard, this::bindHistoryCard);
 
 		setLayout(new BorderLayout());
 		setBackground(ColorScheme.DARK_GRAY_COLOR);
 
 		// === HISTORY HEADER ===
-		JPanel historyHeader = new JPanel(new BorderLayout());
+		JPanel historyHeader = new JPanel(new BorderLayout(0, 6));
 		historyHeader.setBackground(ColorScheme.DARKER_GRAY_COLOR);
 		historyHeader.setBorder(new EmptyBorder(10, 10, 10, 10));
 
@@ -45,16 +76,17 @@ public class HistoryPanel extends JPanel
 		totalHistoryLabel.setFont(FontManager.getRunescapeBoldFont());
 		totalHistoryLabel.setForeground(Color.WHITE);
 		totalHistoryLabel.setHorizontalAlignment(SwingConstants.CENTER);
-		historyHeader.add(totalHistoryLabel, BorderLayout.CENTER);
+		historyHeader.add(totalHistoryLabel, BorderLayout.NORTH);
+		historyHeader.add(createFilterBar(), BorderLayout.CENTER);
 
 		add(historyHeader, BorderLayout.NORTH);
 
 		// === HISTORY LIST ===
-		historyListPanel = new JPanel();
-		historyListPanel.setLayout(new BoxLayout(historyListPanel, BoxLayout.Y_AXIS));
-		historyListPanel.setBackground(ColorScheme.DARK_GRAY_COLOR);
+		historyList = new VirtualCardList();
+		historyList.setBackground(ColorScheme.DARK_GRAY_COLOR);
+		historyList.setNearEndListener(this::loadMore);
 
-		JScrollPane historyScrollPane = new JScrollPane(historyListPanel);
+		JScrollPane historyScrollPane = new JScrollPane(historyList);
 		historyScrollPane.setBackground(ColorScheme.DARK_GRAY_COLOR);
 		historyScrollPane.setBorder(new EmptyBorder(5, 5, 5, 5));
 		historyScrollPane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
@@ -66,6 +98,32 @@ public class HistoryPanel extends JPanel
 		add(createFooter(), BorderLayout.SOUTH);
 	}
 
+	/**
+	 * Quick filters: partner, item and status. Each choice is answered from the
+	 * history index, not by scanning the entries.
+	 */
+	private JPanel createFilterBar()
+	{
+		JPanel filterBar = new JPanel(new GridLayout(3, 1, 0, 3));
+		filterBar.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+
+		statusFilter.addItem(ALL_STATUSES);
+		for (HistoryIndex.Status status : HistoryIndex.Status.values())
+		{
+			statusFilter.addItem(status.getLabel());
+		}
+		partnerFilter.addItem(ALL_PARTNERS);
+		itemFilter.addItem(ALL_ITEMS);
+
+		for (JComboBox<String> box : List.of(partnerFilter, itemFilter, statusFilter))
+		{
+			box.setFont(FontManager.getRunescapeSmallFont());
+			box.addActionListener(e -> applyFilter());
+			filterBar.add(box);
+		}
+		return filterBar;
+	}
+
 	/**
 	 * Create footer with controls
 	 */
@@ -110,74 +168,189 @@ public class HistoryPanel extends JPanel
 			{
 				log.debug("Could not check login status", e);
 			}
-
-			// Clear and rebuild history cards
-			historyListPanel.removeAll();
+			loggedIn = isLoggedIn;
 
 			// If not logged in, show login message
 			if (!isLoggedIn)
 			{
+				loaded = new ArrayList<>();
+				total = 0;
 				totalHistoryLabel.setText("Total History: 0 entries");
+				showMessage("<html><center><b style='color: #ff9900;'>Not Logged In</b><br><br>Please log in to your<br>OSRS account to view<br>transaction history.</center></html>");
+				return;
+			}
+
+			// Re-read as many entries as were showing, so the scroll position holds
+			reload(Math.max(PAGE_SIZE, loaded.size()));
+		});
+	}
+
+	/** Read the first count matches from the index and show them. */
+	private void reload(int count)
+	{
+		HistoryIndex index = dataService.getHistoryIndex();
+		int generation = index.getGeneration();
+		if (generation != filterGeneration)
+		{
+			updateFilterChoices(index);
+			filterGeneration = generation;
+			filter = selectedFilter();
+		}
 
-				JPanel emptyPanel = new JPanel(new BorderLayout());
-				emptyPanel.setBackground(ColorScheme.DARKER_GRAY_COLOR);
-				emptyPanel.setBorder(new EmptyBorder(40, 20, 40, 20));
+		HistoryIndex.Page page = index.page(filter, 0, count);
+		loaded = new ArrayList<>(page.getEntries());
+		total = page.getTotal();
+		loadedGeneration = generation;
+		showLoaded(index.size());
+	}
 
-				JLabel emptyLabel = new JLabel("<html><center><b style='color: #ff9900;'>Not Logged In</b><br><br>Please log in to your<br>OSRS account to view<br>transaction history.</center></html>");
-				emptyLabel.setFont(FontManager.getRunescapeFont());
-				emptyLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
-				emptyLabel.setHorizontalAlignment(SwingConstants.CENTER);
+	/** The list was scrolled to its end: append the next page, if there is one. */
+	private void loadMore()
+	{
+		if (!loggedIn || loaded.size() >= total)
+		{
+			return;
+		}
+		HistoryIndex index = dataService.getHistoryIndex();
+		if (index.getGeneration() != loadedGeneration)
+		{
+			// Positions have shifted since the last read; re-read instead of appending
+			reload(loaded.size() + PAGE_SIZE);
+			return;
+		}
+		HistoryIndex.Page page = index.page(filter, loaded.size(), PAGE_SIZE);
+		loaded.addAll(page.getEntries());
+		total = page.getTotal();
+		showLoaded(index.size());
+	}
 
-				emptyPanel.add(emptyLabel, BorderLayout.CENTER);
-				historyListPanel.add(emptyPanel);
+	private void showLoaded(int historySize)
+	{
+		if (filter.isEmpty())
+		{
+			totalHistoryLabel.setText("Total History: " + historySize + " entries");
+		}
+		else
+		{
+			totalHistoryLabel.setText("Showing " + total + " of " + historySize + " entries");
+		}
 
-				historyListPanel.revalidate();
-				historyListPanel.repaint();
-				return;
-			}
+		if (loaded.isEmpty())
+		{
+			// Show empty state
+			showMessage(historySize == 0
+				? "<html><center><b>No History Yet</b><br><br>Completed lending transactions<br>will appear here</center></html>"
+				: "<html><center><b>No Matches</b><br><br>No history entries match<br>these filters</center></html>");
+			return;
+		}
 
-			// Get history entries (with null safety) - only if logged in
-			List<LendingEntry> historyEntries = dataService.getHistoryEntries();
-			if (historyEntries == null)
-			{
-				historyEntries = java.util.Collections.emptyList();
-			}
+		// Keyed rows: a card on screen keeps its binding while its entry and the
+		// proof catalog are unchanged. The proof itself is looked up at bind
+		// time, so only the cards in view pay for it.
+		int proofGeneration = plugin.getProofCatalog().getGeneration();
+		List<VirtualCardList.Row> rows = new ArrayList<>(loaded.size());
+		for (LendingEntry entry : loaded)
+		{
+			long version = 31 * CardReconciler.versionOf(entry) + proofGeneration;
+			rows.add(VirtualCardList.row(historyKind, historyKey(entry), version, entry));
+		}
+		historyList.setRows(rows);
+	}
+
+	/** A filter choice changed: start again from the top. */
+	private void applyFilter()
+	{
+		if (updatingFilters)
+		{
+			return;
+		}
+		filter = selectedFilter();
+		loaded = new ArrayList<>();
+		historyList.scrollRectToVisible(new Rectangle(0, 0, 1, 1));
+		if (loggedIn)
+		{
+			reload(PAGE_SIZE);
+		}
+	}
 
-			// Update header label
-			totalHistoryLabel.setText("Total History: " + historyEntries.size() + " entries");
+	private HistoryIndex.Filter selectedFilter()
+	{
+		int status = statusFilter.getSelectedIndex();
+		return new HistoryIndex.Filter(
+			partnerFilter.getSelectedIndex() > 0 ? (String) partnerFilter.getSelectedItem() : null,
+			itemFilter.getSelectedIndex() > 0 ? (String) itemFilter.getSelectedItem() : null,
+			status > 0 ? HistoryIndex.Status.values()[status - 1] : null);
+	}
+
+	/** Refill the partner and item choices from the index, keeping the selections. */
+	private void updateFilterChoices(HistoryIndex index)
+	{
+		String me = plugin.getCurrentPlayerName();
+		updatingFilters = true;
+		try
+		{
+			refill(partnerFilter, ALL_PARTNERS, index.getPartners(), me);
+			refill(itemFilter, ALL_ITEMS, index.getItems(), null);
+		}
+		finally
+		{
+			updatingFilters = false;
+		}
+	}
 
-			if (historyEntries.isEmpty())
+	private static void refill(JComboBox<String> box, String all, List<String> choices, String exclude)
+	{
+		Object selected = box.getSelectedItem();
+		box.removeAllItems();
+		box.addItem(all);
+		for (String choice : choices)
+		{
+			if (exclude == null || !exclude.equalsIgnoreCase(choice))
 			{
-				// Show empty state
-				JPanel emptyPanel = new JPanel(new BorderLayout());
-				emptyPanel.setBackground(ColorScheme.DARKER_GRAY_COLOR);
-				emptyPanel.setBorder(new EmptyBorder(40, 20, 40, 20));
-
-				JLabel emptyLabel = new JLabel("<html><center><b>No History Yet</b><br><br>Completed lending transactions<br>will appear here</center></html>");
-				emptyLabel.setFont(FontManager.getRunescapeFont());
-				emptyLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
-				emptyLabel.setHorizontalAlignment(SwingConstants.CENTER);
-
-				emptyPanel.add(emptyLabel, BorderLayout.CENTER);
-				historyListPanel.add(emptyPanel);
+				box.addItem(choice);
 			}
-			else
-			{
-				// Sort entries by date (most recent first)
-				historyEntries.sort((e1, e2) -> Long.compare(e2.getLendDate(), e1.getLendDate()));
+		}
+		// A choice that is gone (pruned or cleared) falls back to "all"
+		box.setSelectedItem(selected != null ? selected : all);
+	}
 
-				// Create history cards
-				for (LendingEntry entry : historyEntries)
-				{
-					HistoryCard card = new HistoryCard(entry, itemManager);
-					historyListPanel.add(card);
-					historyListPanel.add(Box.createVerticalStrut(2));
-				}
-			}
+	private HistoryCard createHistoryCard()
+	{
+		HistoryCard card = new HistoryCard(itemManager);
+		// The gap between cards, drawn as part of each card in a virtual list
+		card.setBorder(BorderFactory.createCompoundBorder(
+			BorderFactory.createMatteBorder(0, 0, 2, 0, ColorScheme.DARK_GRAY_COLOR), card.getBorder()));
+		card.setPreferredSize(new Dimension(0, 62));
+		return card;
+	}
 
-			historyListPanel.revalidate();
-			historyListPanel.repaint();
-		});
+	private void bindHistoryCard(HistoryCard card, LendingEntry entry)
+	{
+		card.bind(entry, plugin.getProofCatalog().latestFor(entry, plugin.getCurrentPlayerName()));
+	}
+
+	private static String historyKey(LendingEntry entry)
+	{
+		return entry.getId() != null ? entry.getId()
+			: entry.getLender() + "|" + entry.getBorrower() + "|" + entry.getItemId() + "|" + entry.getLendTime();
+	}
+
+	private static JLabel createMessageCard()
+	{
+		JLabel label = new JLabel();
+		label.setOpaque(true);
+		label.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+		label.setBorder(new EmptyBorder(40, 20, 40, 20));
+		label.setFont(FontManager.getRunescapeFont());
+		label.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
+		label.setHorizontalAlignment(SwingConstants.CENTER);
+		return label;
+	}
+
+	/** Replace the list with a single centered message. */
+	private void showMessage(String html)
+	{
+		historyList.setRows(Collections.singletonList(VirtualCardList.row(messageKind, html)));
 	}
 
 	/**
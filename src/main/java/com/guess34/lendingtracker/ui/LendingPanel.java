@@ -13,6 +13,8 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * LendingPanel - Main UI shell with Material Design tabs.
@@ -47,6 +49,9 @@ public class LendingPanel extends PluginPanel
 	private HistoryPanel historyPanel;
 	private SettingsPanel settingsPanel;
 
+	// Every refresh request goes through here, so a burst becomes one rebuild
+	private final RefreshScheduler refreshScheduler;
+
 	public LendingPanel(LendingTrackerPlugin plugin, EventBus eventBus)
 	{
 		super(false);
@@ -72,6 +77,25 @@ public class LendingPanel extends PluginPanel
 		// Initialize tabs
 		initializeTabs();
 
+		Map<RefreshScheduler.Target, Runnable> renderers = new EnumMap<>(RefreshScheduler.Target.class);
+		renderers.put(RefreshScheduler.Target.DATA, () ->
+		{
+			// Ensure data is loaded for the active group BEFORE refreshing panels
+			String activeGroupId = plugin.getGroupService().getCurrentGroupIdUnchecked();
+			if (activeGroupId != null)
+			{
+				plugin.getDataService().loadGroupData(activeGroupId);
+			}
+		});
+		renderers.put(RefreshScheduler.Target.GROUP_CONTROL, groupControlPanel::refresh);
+		renderers.put(RefreshScheduler.Target.DASHBOARD, marketplacePanel::refresh);
+		renderers.put(RefreshScheduler.Target.ROSTER, rosterPanel::refresh);
+		renderers.put(RefreshScheduler.Target.HISTORY, historyPanel::refresh);
+		renderers.put(RefreshScheduler.Target.SETTINGS, settingsPanel::refresh);
+		// Sync connection status on every refresh so the indicator is always current
+		renderers.put(RefreshScheduler.Target.CONNECTION, () -> updateConnectionStatus(plugin.isRelaySyncConnected()));
+		refreshScheduler = new RefreshScheduler(renderers, rosterPanel::updateMemberPresence);
+
 		// Connection status bar
 		JPanel connectionBar = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 1));
 		connectionBar.setBackground(ColorScheme.DARK_GRAY_COLOR);
@@ -114,28 +138,12 @@ public class LendingPanel extends PluginPanel
 	}
 
 	/**
-	 * Refresh all panels (called when data changes).
+	 * Refresh all panels (called when data changes). Safe from any thread;
+	 * requests within one frame interval share a single rebuild.
 	 */
 	public void refresh()
 	{
-		SwingUtilities.invokeLater(() ->
-		{
-			// Ensure data is loaded for the active group BEFORE refreshing panels
-			String activeGroupId = plugin.getGroupService().getCurrentGroupIdUnchecked();
-			if (activeGroupId != null)
-			{
-				plugin.getDataService().loadGroupData(activeGroupId);
-			}
-
-			groupControlPanel.refresh();
-			marketplacePanel.refresh();
-			rosterPanel.refresh();
-			historyPanel.refresh();
-			settingsPanel.refresh();
-
-			// Sync connection status on every refresh so the indicator is always current
-			updateConnectionStatus(plugin.isRelaySyncConnected());
-		});
+		refreshScheduler.invalidate(RefreshScheduler.Target.values());
 	}
 
 	/**
@@ -146,11 +154,25 @@ public class LendingPanel extends PluginPanel
 	 */
 	public void refreshRoster()
 	{
-		SwingUtilities.invokeLater(() ->
-		{
-			rosterPanel.refresh();
-			updateConnectionStatus(plugin.isRelaySyncConnected());
-		});
+		refreshScheduler.invalidate(RefreshScheduler.Target.ROSTER, RefreshScheduler.Target.CONNECTION);
+	}
+
+	/**
+	 * Proof images loaded or added. Only the dashboard cards and history rows
+	 * show them. Safe from any thread.
+	 */
+	public void refreshProofs()
+	{
+		refreshScheduler.invalidate(RefreshScheduler.Target.DASHBOARD, RefreshScheduler.Target.HISTORY);
+	}
+
+	/**
+	 * Single-member presence change (join, leave or world hop). Repaints only that
+	 * member's roster row; ordering is re-established on the next full refresh.
+	 */
+	public void updateMemberPresence(String nameLower)
+	{
+		refreshScheduler.invalidatePresence(nameLower);
 	}
 
 	/**
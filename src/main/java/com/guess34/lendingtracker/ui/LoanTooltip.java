@@ -11,6 +11,7 @@ import com.guess34.lendingtracker.model.LendingEntry;
 /**
  * LoanTooltip - shared hover tooltip for loan cards (Active Loans and History),
  * showing the full deal at a glance: borrower, dates, collateral, notes.
+ * Rendered on first hover and cached per entry version (see TooltipCache).
  */
 final class LoanTooltip
 {
@@ -23,14 +24,13 @@ final class LoanTooltip
 	/** Apply the loan tooltip to every given component (tooltips don't inherit). */
 	static void apply(LendingEntry loan, JComponent... components)
 	{
-		String html = html(loan);
-		for (JComponent c : components)
-		{
-			if (c != null)
-			{
-				c.setToolTipText(html);
-			}
-		}
+		TooltipCache.bind(loan, LoanTooltip::cacheKey, LoanTooltip::html, components);
+	}
+
+	/** Entry id and content version; null (no caching) for an entry without an id. */
+	private static Object cacheKey(LendingEntry loan)
+	{
+		return loan.getId() != null ? "loan:" + loan.getId() + "@" + CardReconciler.versionOf(loan) : null;
 	}
 
 	static String html(LendingEntry loan)
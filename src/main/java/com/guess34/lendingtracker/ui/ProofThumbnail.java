@@ -0,0 +1,93 @@
+package com.guess34.lendingtracker.ui;
+
+import java.awt.Cursor;
+import java.awt.Image;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+import net.runelite.client.util.LinkBrowser;
+
+import com.guess34.lendingtracker.services.ProofCatalog;
+
+/**
+ * ProofThumbnail - the small proof-screenshot preview shown on loan cards
+ * (Active Loans and History). Clicking it opens the full image.
+ */
+final class ProofThumbnail
+{
+	private static final int HEIGHT = 24;
+	private static final String PROOF_KEY = "lendingtracker.proof";
+	private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("MMM d, yyyy HH:mm");
+
+	private ProofThumbnail()
+	{
+	}
+
+	/** A clickable thumbnail for the proof, or null when there is nothing to show. */
+	static JLabel create(ProofCatalog.Proof proof)
+	{
+		if (proof == null)
+		{
+			return null;
+		}
+		JLabel label = create();
+		bind(label, proof);
+		return label;
+	}
+
+	/** An unbound thumbnail label, for cards that are re-bound as they are reused. */
+	static JLabel create()
+	{
+		JLabel label = new JLabel();
+		label.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+		label.addMouseListener(new MouseAdapter()
+		{
+			@Override
+			public void mouseClicked(MouseEvent e)
+			{
+				Object proof = label.getClientProperty(PROOF_KEY);
+				if (SwingUtilities.isLeftMouseButton(e) && proof instanceof ProofCatalog.Proof)
+				{
+					LinkBrowser.open(((ProofCatalog.Proof) proof).getFile().toString());
+				}
+			}
+		});
+		return label;
+	}
+
+	/** Show this proof on the label. False (and the label cleared) when there is none. */
+	static boolean bind(JLabel label, ProofCatalog.Proof proof)
+	{
+		label.putClientProperty(PROOF_KEY, proof);
+		if (proof == null)
+		{
+			label.setIcon(null);
+			label.setText(null);
+			label.setToolTipText(null);
+			return false;
+		}
+
+		BufferedImage thumb = proof.getThumbnail();
+		if (thumb != null)
+		{
+			int width = Math.max(1, thumb.getWidth() * HEIGHT / Math.max(1, thumb.getHeight()));
+			label.setIcon(new ImageIcon(thumb.getScaledInstance(width, HEIGHT, Image.SCALE_SMOOTH)));
+			label.setText(null);
+		}
+		else
+		{
+			label.setIcon(null);
+			label.setText("Proof");
+		}
+		label.setToolTipText("<html>Proof screenshot (" + proof.getEventType().toLowerCase() + ", "
+			+ DATE_TIME_FORMAT.format(Instant.ofEpochMilli(proof.getTimestamp()).atZone(ZoneId.systemDefault()))
+			+ ")<br>Click to open</html>");
+		return true;
+	}
+}
@@ -0,0 +1,171 @@
+package com.guess34.lendingtracker.ui;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * RefreshScheduler - coalesces UI refresh requests into at most one rebuild per
+ * panel per frame interval.
+ *
+ * Sync callbacks, price updates, trade completion, presence pings and cleanup
+ * all ask the UI to refresh, often several times within a few milliseconds
+ * when the relay delivers a burst. Each request used to queue its own full
+ * rebuild. Now a request only marks its targets dirty; one pass on the EDT,
+ * no sooner than {@link #FRAME_INTERVAL_MS} after the last, rebuilds each dirty
+ * target once, in {@link Target} order. Requests for a target that is already
+ * dirty are counted as suppressed.
+ *
+ * Single-member presence changes are tracked per member, and dropped when the
+ * whole roster is rebuilt in the same pass.
+ *
+ * Requests may come from any thread; rebuilds run on the EDT.
+ */
+@Slf4j
+final class RefreshScheduler
+{
+	/** What can be marked dirty. Rebuilt in declaration order, data first. */
+	enum Target
+	{
+		DATA,
+		GROUP_CONTROL,
+		DASHBOARD,
+		ROSTER,
+		HISTORY,
+		SETTINGS,
+		CONNECTION
+	}
+
+	static final int FRAME_INTERVAL_MS = 100;
+
+	private final Map<Target, Runnable> renderers = new EnumMap<>(Target.class);
+	private final Consumer<String> presenceRenderer;
+	private final Timer timer;
+
+	// Guarded by this
+	private final EnumSet<Target> dirty = EnumSet.noneOf(Target.class);
+	private final Set<String> dirtyPresence = new LinkedHashSet<>();
+	private boolean scheduled;
+	private long lastFlushAt;
+
+	// Metrics, logged at debug after each pass
+	private final AtomicLong requested = new AtomicLong();
+	private final AtomicLong suppressed = new AtomicLong();
+	private final AtomicLong flushes = new AtomicLong();
+
+	RefreshScheduler(Map<Target, Runnable> renderers, Consumer<String> presenceRenderer)
+	{
+		this.renderers.putAll(renderers);
+		this.presenceRenderer = presenceRenderer;
+		this.timer = new Timer(FRAME_INTERVAL_MS, e -> flush());
+		this.timer.setRepeats(false);
+	}
+
+	/** Mark targets dirty; they are rebuilt on the next pass. */
+	void invalidate(Target... targets)
+	{
+		synchronized (this)
+		{
+			for (Target target : targets)
+			{
+				requested.incrementAndGet();
+				if (!dirty.add(target))
+				{
+					suppressed.incrementAndGet();
+				}
+			}
+		}
+		schedule();
+	}
+
+	/** Mark one member's roster row dirty. */
+	void invalidatePresence(String nameLower)
+	{
+		if (nameLower == null)
+		{
+			return;
+		}
+		synchronized (this)
+		{
+			requested.incrementAndGet();
+			if (dirty.contains(Target.ROSTER) || !dirtyPresence.add(nameLower))
+			{
+				suppressed.incrementAndGet();
+			}
+		}
+		schedule();
+	}
+
+	private void schedule()
+	{
+		long delay;
+		synchronized (this)
+		{
+			if (scheduled)
+			{
+				return;
+			}
+			scheduled = true;
+			delay = Math.max(0, lastFlushAt + FRAME_INTERVAL_MS - System.currentTimeMillis());
+		}
+		final int initialDelay = (int) delay;
+		SwingUtilities.invokeLater(() ->
+		{
+			timer.setInitialDelay(initialDelay);
+			timer.restart();
+		});
+	}
+
+	private void flush()
+	{
+		EnumSet<Target> targets;
+		Set<String> presence;
+		synchronized (this)
+		{
+			targets = EnumSet.copyOf(dirty);
+			presence = targets.contains(Target.ROSTER) ? Set.of() : new LinkedHashSet<>(dirtyPresence);
+			dirty.clear();
+			dirtyPresence.clear();
+			scheduled = false;
+			lastFlushAt = System.currentTimeMillis();
+		}
+		flushes.incrementAndGet();
+
+		for (Target target : targets)
+		{
+			Runnable renderer = renderers.get(target);
+			if (renderer == null)
+			{
+				continue;
+			}
+			try
+			{
+				renderer.run();
+			}
+			catch (Exception e)
+			{
+				log.warn("Refresh of {} failed", target, e);
+			}
+		}
+		for (String nameLower : presence)
+		{
+			try
+			{
+				presenceRenderer.accept(nameLower);
+			}
+			catch (Exception e)
+			{
+				log.warn("Presence refresh of {} failed", nameLower, e);
+			}
+		}
+		log.debug("Refresh pass {}: {} (+{} presence); {} of {} requests coalesced so far",
+			flushes.get(), targets, presence.size(), suppressed.get(), requested.get());
+	}
+}
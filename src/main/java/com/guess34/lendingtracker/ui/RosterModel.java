@@ -0,0 +1,220 @@
+package com.guess34.lendingtracker.ui;
+
+import com.guess34.lendingtracker.model.GroupMember;
+import com.guess34.lendingtracker.services.GroupService;
+import com.guess34.lendingtracker.util.NameIndex;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RosterModel - the Roster tab's members in display order (online first, then
+ * by role rank, then by name), kept sorted across refreshes instead of
+ * re-sorted from scratch.
+ *
+ * Each member's sort key (online flag, role rank, lower-cased name) is computed
+ * once when it changes, and {@link #sync} moves only the members whose key
+ * changed, by binary search. A refresh in which nobody logged in or out and no
+ * role changed touches no positions at all.
+ *
+ * Name search goes through an n-gram index over the member names (the same one
+ * the item pickers use), rebuilt only when membership changes: presence and
+ * role changes leave it alone.
+ *
+ * EDT only.
+ */
+final class RosterModel
+{
+	/** One member, with the sort key it is currently filed under. */
+	static final class Member
+	{
+		final String key;
+		GroupMember member;
+		int rank;
+		boolean online;
+		int world;
+
+		private Member(String key)
+		{
+			this.key = key;
+		}
+	}
+
+	private static final Comparator<Member> ORDER = (a, b) ->
+	{
+		if (a.online != b.online)
+		{
+			return a.online ? -1 : 1;
+		}
+		if (a.rank != b.rank)
+		{
+			return b.rank - a.rank;
+		}
+		int byName = a.member.getName().compareToIgnoreCase(b.member.getName());
+		return byName != 0 ? byName : a.key.compareTo(b.key);
+	};
+
+	private final List<Member> ordered = new ArrayList<>();
+	private final Map<String, Member> byKey = new HashMap<>();
+	// Name search over the current members; index ids are positions in indexedKeys
+	private NameIndex nameIndex;
+	private String[] indexedKeys = new String[0];
+
+	/**
+	 * Bring the model in line with the group's members and who is online
+	 * (lower-cased name -> world, 0 if unknown). Returns true if the order or
+	 * membership changed; a world change alone only updates the member.
+	 */
+	boolean sync(List<GroupMember> members, Map<String, Integer> onlinePlayers)
+	{
+		boolean reordered = false;
+		boolean membershipChanged = false;
+		Set<String> seen = new HashSet<>();
+		for (GroupMember groupMember : members)
+		{
+			if (groupMember == null || groupMember.getName() == null)
+			{
+				continue;
+			}
+			String key = groupMember.getName().toLowerCase();
+			if (!seen.add(key))
+			{
+				continue;
+			}
+			Integer worldVal = onlinePlayers.get(key);
+			boolean online = worldVal != null;
+			int rank = GroupService.getRoleRank(groupMember.getRole());
+
+			Member member = byKey.get(key);
+			if (member == null)
+			{
+				member = new Member(key);
+				member.member = groupMember;
+				member.rank = rank;
+				member.online = online;
+				byKey.put(key, member);
+				insert(member);
+				membershipChanged = true;
+				reordered = true;
+			}
+			else if (member.online != online || member.rank != rank
+				|| !member.member.getName().equals(groupMember.getName()))
+			{
+				// Filed under its old key: take it out before changing that key
+				remove(member);
+				member.member = groupMember;
+				member.rank = rank;
+				member.online = online;
+				insert(member);
+				reordered = true;
+			}
+			else
+			{
+				member.member = groupMember;
+			}
+			member.world = online ? worldVal : 0;
+		}
+
+		if (byKey.size() > seen.size())
+		{
+			for (Iterator<Member> it = byKey.values().iterator(); it.hasNext(); )
+			{
+				Member member = it.next();
+				if (!seen.contains(member.key))
+				{
+					remove(member);
+					it.remove();
+					membershipChanged = true;
+					reordered = true;
+				}
+			}
+		}
+
+		if (membershipChanged || nameIndex == null)
+		{
+			rebuildNameIndex();
+		}
+		return reordered;
+	}
+
+	/** Forget everyone (no group, logged out). */
+	void clear()
+	{
+		ordered.clear();
+		byKey.clear();
+		nameIndex = null;
+		indexedKeys = new String[0];
+	}
+
+	/** Members in display order. Unmodifiable view; valid until the next sync. */
+	List<Member> getOrdered()
+	{
+		return Collections.unmodifiableList(ordered);
+	}
+
+	/**
+	 * Keys of the members whose name contains the query (case-insensitive), or
+	 * null when the query is blank and everyone matches.
+	 */
+	Set<String> search(String query)
+	{
+		String q = query == null ? "" : query.toLowerCase().trim();
+		if (q.isEmpty())
+		{
+			return null;
+		}
+		Set<String> matches = new HashSet<>();
+		if (nameIndex == null)
+		{
+			return matches;
+		}
+		for (NameIndex.Match match : nameIndex.search(q, indexedKeys.length))
+		{
+			matches.add(indexedKeys[match.getId()]);
+		}
+		return matches;
+	}
+
+	private void insert(Member member)
+	{
+		int slot = Collections.binarySearch(ordered, member, ORDER);
+		ordered.add(slot < 0 ? -slot - 1 : slot, member);
+	}
+
+	private void remove(Member member)
+	{
+		int slot = Collections.binarySearch(ordered, member, ORDER);
+		if (slot >= 0 && ordered.get(slot) == member)
+		{
+			ordered.remove(slot);
+		}
+		else
+		{
+			// Key drifted (should not happen); fall back to a scan
+			ordered.remove(member);
+		}
+	}
+
+	private void rebuildNameIndex()
+	{
+		int n = byKey.size();
+		int[] ids = new int[n];
+		String[] names = new String[n];
+		indexedKeys = new String[n];
+		int i = 0;
+		for (Member member : byKey.values())
+		{
+			ids[i] = i;
+			names[i] = member.member.getName();
+			indexedKeys[i] = member.key;
+			i++;
+		}
+		nameIndex = NameIndex.build(ids, names);
+	}
+}
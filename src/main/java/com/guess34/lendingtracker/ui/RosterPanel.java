@@ -31,7 +31,35 @@ public class RosterPanel extends JPanel
 	private final JLabel headerLabel;
 	private final IconTextField searchBar;
 	private final JPanel memberListPanel;
-	private final List<JPanel> allMemberRows = new ArrayList<>();
+	// Members kept in display order across refreshes, with a name index for search
+	private final RosterModel roster = new RosterModel();
+	// The search last applied, so keys that don't change the text do nothing
+	private String appliedQuery = "";
+	// Rows keyed by lower-cased member name, so a presence delta repaints one row
+	// in O(1) instead of rebuilding the list. Kept in step with memberCards.
+	private Map<String, MemberRow> rowsByName = new HashMap<>();
+	// Owns memberListPanel's children: a refresh keeps every row whose member is
+	// unchanged and only moves, adds or drops what differs
+	private final CardReconciler<JComponent> memberCards;
+
+	/** A roster row plus the labels a presence change needs to repaint in place. */
+	private static final class MemberRow
+	{
+		final GroupMember member;
+		final JPanel panel;
+		final JLabel statusDot;
+		final JLabel nameLabel;
+		boolean online;
+		int world;
+
+		MemberRow(GroupMember member, JPanel panel, JLabel statusDot, JLabel nameLabel)
+		{
+			this.member = member;
+			this.panel = panel;
+			this.statusDot = statusDot;
+			this.nameLabel = nameLabel;
+		}
+	}
 
 	public RosterPanel(LendingTrackerPlugin plugin)
 	{
@@ -87,6 +115,7 @@ public class RosterPanel extends JPanel
 		memberListPanel = new JPanel();
 		memberListPanel.setLayout(new BoxLayout(memberListPanel, BoxLayout.Y_AXIS));
 		memberListPanel.setBackground(ColorScheme.DARK_GRAY_COLOR);
+		memberCards = new CardReconciler<>(memberListPanel, 2);
 
 		JScrollPane scrollPane = new JScrollPane(memberListPanel);
 		scrollPane.setBackground(ColorScheme.DARK_GRAY_COLOR);
@@ -142,49 +171,77 @@ public class RosterPanel extends JPanel
 			// Get group members
 			List<GroupMember> members = activeGroup.getMembers();
 
-			// Clear and rebuild member list
-			memberListPanel.removeAll();
-			allMemberRows.clear();
-
 			if (members == null || members.isEmpty())
 			{
 				showMessage("<html><center>No members in this group<br><br>Invite members using<br>the Settings tab</center></html>");
 			}
 			else
 			{
-				// Sort members: online first, then by role rank, then alphabetically
-				List<GroupMember> sortedMembers = new ArrayList<>(members);
-				sortedMembers.sort((a, b) -> {
-					boolean aOnline = onlinePlayers.containsKey(a.getName().toLowerCase());
-					boolean bOnline = onlinePlayers.containsKey(b.getName().toLowerCase());
-
-					if (aOnline != bOnline) return aOnline ? -1 : 1;
-
-					int aRank = GroupService.getRoleRank(a.getRole());
-					int bRank = GroupService.getRoleRank(b.getRole());
-					if (aRank != bRank) return bRank - aRank;
-
-					return a.getName().compareToIgnoreCase(b.getName());
-				});
+				// Online first, then by role rank, then alphabetically. Only members
+				// whose presence or role changed are moved.
+				roster.sync(members, onlinePlayers);
+
+				// A row is rebuilt only when its role changed (name is the key);
+				// presence is applied to the kept rows in place below
+				Map<String, MemberRow> created = new HashMap<>();
+				List<RosterModel.Member> ordered = roster.getOrdered();
+				List<CardReconciler.Row<JComponent>> rows = new ArrayList<>(ordered.size());
+				for (RosterModel.Member entry : ordered)
+				{
+					GroupMember member = entry.member;
+					boolean online = entry.online;
+					int world = entry.world;
+					rows.add(CardReconciler.row(entry.key, String.valueOf(member.getRole()).hashCode(), () ->
+					{
+						MemberRow memberRow = createMemberRow(member, online, world);
+						created.put(entry.key, memberRow);
+						return memberRow.panel;
+					}));
+				}
+				memberCards.reconcile(rows);
 
-				for (GroupMember member : sortedMembers)
+				Map<String, MemberRow> nextRows = new HashMap<>(ordered.size() * 2);
+				for (RosterModel.Member entry : ordered)
 				{
-					boolean isOnline = onlinePlayers.containsKey(member.getName().toLowerCase());
-					Integer worldVal = onlinePlayers.get(member.getName().toLowerCase());
-					int world = worldVal != null ? worldVal : 0;
-					JPanel memberRow = createMemberRow(member, isOnline, world);
-					allMemberRows.add(memberRow);
-					memberListPanel.add(memberRow);
-					memberListPanel.add(Box.createVerticalStrut(2));
+					MemberRow memberRow = created.containsKey(entry.key) ? created.get(entry.key) : rowsByName.get(entry.key);
+					if (memberRow == null)
+					{
+						continue;
+					}
+					if (memberRow.online != entry.online || memberRow.world != entry.world)
+					{
+						applyPresence(memberRow, entry.online, entry.world);
+						memberRow.panel.revalidate();
+						memberRow.panel.repaint();
+					}
+					nextRows.put(entry.key, memberRow);
 				}
+				rowsByName = nextRows;
+				// Rows created this pass must honour a search already typed
+				applySearch(searchBar.getText());
 			}
-
-			memberListPanel.revalidate();
-			memberListPanel.repaint();
 		});
 	}
 
-	private JPanel createMemberRow(GroupMember member, boolean isOnline, int world)
+	/**
+	 * Repaint a single member's online dot and world after a presence delta. Must be
+	 * called on the EDT. Rows keep their position until the next full refresh
+	 * re-sorts, so a login or world hop never reshuffles the list under the cursor.
+	 */
+	public void updateMemberPresence(String nameLower)
+	{
+		MemberRow row = nameLower != null ? rowsByName.get(nameLower) : null;
+		if (row == null)
+		{
+			return;
+		}
+		Integer world = resolveWorld(row.member.getName());
+		applyPresence(row, world != null, world != null ? world : 0);
+		row.panel.revalidate();
+		row.panel.repaint();
+	}
+
+	private MemberRow createMemberRow(GroupMember member, boolean isOnline, int world)
 	{
 		JPanel row = new JPanel(new BorderLayout(8, 0));
 		row.setBackground(ColorScheme.DARKER_GRAY_COLOR);
@@ -198,32 +255,16 @@ public class RosterPanel extends JPanel
 		// Online/Offline indicator (colored dot)
 		JLabel statusDot = new JLabel("\u2022"); // Bullet character
 		statusDot.setFont(new Font("Arial", Font.BOLD, 20));
-		statusDot.setForeground(isOnline ? new Color(0, 200, 83) : new Color(150, 150, 150));
-
-		// Get world number for online players from friends list
-		String statusTooltip = "Offline";
-		String worldText = "";
-		if (isOnline)
-		{
-			if (world > 0)
-			{
-				worldText = " (W" + world + ")";
-				statusTooltip = "Online - World " + world;
-			}
-			else
-			{
-				statusTooltip = "Online";
-			}
-		}
-		statusDot.setToolTipText(statusTooltip);
 		leftPanel.add(statusDot);
 
 		// Player name with world if online
-		JLabel nameLabel = new JLabel(member.getName() + worldText);
+		JLabel nameLabel = new JLabel();
 		nameLabel.setFont(FontManager.getRunescapeSmallFont());
-		nameLabel.setForeground(isOnline ? Color.WHITE : ColorScheme.LIGHT_GRAY_COLOR);
 		leftPanel.add(nameLabel);
 
+		MemberRow memberRow = new MemberRow(member, row, statusDot, nameLabel);
+		applyPresence(memberRow, isOnline, world);
+
 		row.add(leftPanel, BorderLayout.WEST);
 
 		// Right: Role badge
@@ -237,9 +278,6 @@ public class RosterPanel extends JPanel
 
 		row.add(roleLabel, BorderLayout.EAST);
 
-		// Store the member name for filtering
-		row.putClientProperty("memberName", member.getName().toLowerCase());
-
 		// Right-click context menu
 		row.addMouseListener(new MouseAdapter()
 		{
@@ -259,12 +297,87 @@ public class RosterPanel extends JPanel
 			{
 				if (e.isPopupTrigger())
 				{
-					showMemberPopup(e.getComponent(), e.getX(), e.getY(), member, isOnline, world);
+					showMemberPopup(e.getComponent(), e.getX(), e.getY(), member, memberRow.online, memberRow.world);
 				}
 			}
 		});
 
-		return row;
+		return memberRow;
+	}
+
+	private static void applyPresence(MemberRow row, boolean isOnline, int world)
+	{
+		row.online = isOnline;
+		row.world = world;
+		row.statusDot.setForeground(isOnline ? new Color(0, 200, 83) : new Color(150, 150, 150));
+
+		String statusTooltip = "Offline";
+		String worldText = "";
+		if (isOnline)
+		{
+			if (world > 0)
+			{
+				worldText = " (W" + world + ")";
+				statusTooltip = "Online - World " + world;
+			}
+			else
+			{
+				statusTooltip = "Online";
+			}
+		}
+		row.statusDot.setToolTipText(statusTooltip);
+		row.nameLabel.setText(row.member.getName() + worldText);
+		row.nameLabel.setForeground(isOnline ? Color.WHITE : ColorScheme.LIGHT_GRAY_COLOR);
+	}
+
+	/**
+	 * Online status for one member, with the same precedence as getOnlinePlayers()
+	 * but looked up by name instead of merging every source. Returns the world
+	 * (0 if unknown) or null if offline.
+	 */
+	private Integer resolveWorld(String memberName)
+	{
+		String nameLower = memberName.toLowerCase();
+		try
+		{
+			if (plugin.getClient().getLocalPlayer() != null)
+			{
+				String localName = plugin.getClient().getLocalPlayer().getName();
+				if (localName != null && localName.equalsIgnoreCase(memberName))
+				{
+					return plugin.getClient().getWorld();
+				}
+			}
+
+			Integer relayWorld = groupService.getPresenceWorld(nameLower);
+			if (relayWorld != null && relayWorld > 0)
+			{
+				return relayWorld;
+			}
+
+			var friendContainer = plugin.getClient().getFriendContainer();
+			Friend friend = friendContainer != null ? friendContainer.findByName(memberName) : null;
+			if (friend != null && friend.getWorld() > 0)
+			{
+				return friend.getWorld();
+			}
+
+			if (relayWorld != null)
+			{
+				return 0;
+			}
+
+			FriendsChatManager fcManager = plugin.getClient().getFriendsChatManager();
+			if (fcManager != null && fcManager.findByName(memberName) != null)
+			{
+				return 0;
+			}
+		}
+		catch (Exception e)
+		{
+			log.debug("Error resolving presence for {}", memberName, e);
+		}
+		return null;
 	}
 
 	private Map<String, Integer> getOnlinePlayers()
@@ -376,20 +489,42 @@ public class RosterPanel extends JPanel
 		popup.show(component, x, y);
 	}
 
+	/** Search as typed: nothing to do unless the text actually changed. */
 	private void filterMembers(String query)
 	{
-		String lowerQuery = query.toLowerCase().trim();
+		if (!query.toLowerCase().trim().equals(appliedQuery))
+		{
+			applySearch(query);
+		}
+	}
 
-		for (JPanel row : allMemberRows)
+	/**
+	 * Show only the rows whose member name contains the query. Matches come from
+	 * the roster's name index; rows are shown or hidden, never rebuilt, and only
+	 * the rows whose visibility flips are touched.
+	 */
+	private void applySearch(String query)
+	{
+		appliedQuery = query.toLowerCase().trim();
+		java.util.Set<String> matches = roster.search(appliedQuery);
+
+		boolean changed = false;
+		for (Map.Entry<String, MemberRow> e : rowsByName.entrySet())
 		{
-			String memberName = (String) row.getClientProperty("memberName");
-			boolean matches = lowerQuery.isEmpty() ||
-				(memberName != null && memberName.contains(lowerQuery));
-			row.setVisible(matches);
+			boolean visible = matches == null || matches.contains(e.getKey());
+			JPanel panel = e.getValue().panel;
+			if (panel.isVisible() != visible)
+			{
+				panel.setVisible(visible);
+				changed = true;
+			}
 		}
 
-		memberListPanel.revalidate();
-		memberListPanel.repaint();
+		if (changed)
+		{
+			memberListPanel.revalidate();
+			memberListPanel.repaint();
+		}
 	}
 
 	private void clearSearch()
@@ -400,22 +535,22 @@ public class RosterPanel extends JPanel
 
 	private void showMessage(String html)
 	{
-		memberListPanel.removeAll();
-		allMemberRows.clear();
-
-		JPanel panel = new JPanel(new BorderLayout());
-		panel.setBackground(ColorScheme.DARKER_GRAY_COLOR);
-		panel.setBorder(new EmptyBorder(40, 20, 40, 20));
+		roster.clear();
+		rowsByName = new HashMap<>();
 
-		JLabel label = new JLabel(html);
-		label.setFont(FontManager.getRunescapeFont());
-		label.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
-		label.setHorizontalAlignment(SwingConstants.CENTER);
-
-		panel.add(label, BorderLayout.CENTER);
-		memberListPanel.add(panel);
-
-		memberListPanel.revalidate();
-		memberListPanel.repaint();
+		memberCards.reconcile(java.util.Collections.singletonList(CardReconciler.row("\0message", html.hashCode(), () ->
+		{
+			JPanel panel = new JPanel(new BorderLayout());
+			panel.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+			panel.setBorder(new EmptyBorder(40, 20, 40, 20));
+
+			JLabel label = new JLabel(html);
+			label.setFont(FontManager.getRunescapeFont());
+			label.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
+			label.setHorizontalAlignment(SwingConstants.CENTER);
+
+			panel.add(label, BorderLayout.CENTER);
+			return panel;
+		})));
 	}
 }
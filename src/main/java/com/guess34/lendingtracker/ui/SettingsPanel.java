@@ -736,8 +736,11 @@ public class SettingsPanel extends JPanel
 			String groupName = g.getName();
 			// Clear our footprint BEFORE leaving: once removeMember drops the group
 			// locally there's nothing left to publish the cleanup from.
-			plugin.getDataService().removeItemsForLender(groupId, user);
-			plugin.getDataService().removeRequestsInvolving(groupId, user);
+			plugin.getDataService().batch(groupId, tx ->
+			{
+				tx.removeItemsForLender(groupId, user);
+				tx.removeRequestsInvolving(groupId, user);
+			});
 			groupService.removeMember(groupId, user);
 			JOptionPane.showMessageDialog(this, "You have left '" + groupName + "'.",
 				"Left Group", JOptionPane.INFORMATION_MESSAGE);
@@ -916,8 +919,11 @@ public class SettingsPanel extends JPanel
 						// Clear their footprint FIRST so the removal snapshot already
 						// excludes it - cleaning up afterwards published a snapshot that
 						// still contained everything.
-						plugin.getDataService().removeItemsForLender(groupId, member.getName());
-						plugin.getDataService().removeRequestsInvolving(groupId, member.getName());
+						plugin.getDataService().batch(groupId, tx ->
+						{
+							tx.removeItemsForLender(groupId, member.getName());
+							tx.removeRequestsInvolving(groupId, member.getName());
+						});
 						if (groupService.removeMemberFromGroup(groupId, currentUser, member.getName()))
 						{
 							plugin.refreshPanel();
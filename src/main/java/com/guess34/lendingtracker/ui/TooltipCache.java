@@ -0,0 +1,121 @@
+package com.guess34.lendingtracker.ui;
+
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import javax.swing.JComponent;
+
+/**
+ * TooltipCache - card tooltips rendered on first hover instead of on every
+ * bind, and remembered per content version.
+ *
+ * A bind only records which model the card shows (a client property) and sets
+ * a placeholder so Swing still treats the component as having a tooltip. When
+ * the mouse enters, the HTML is taken from an LRU cache keyed by the model's
+ * identity and version, and formatted only on a miss. A refresh of a long list
+ * therefore formats nothing, and hovering the same unchanged loan again, on any
+ * card, reuses the string.
+ *
+ * The hover listener is added before the component's first tooltip is set, so
+ * it runs ahead of the ToolTipManager's own and the real text is in place by
+ * the time the tip is shown.
+ *
+ * EDT only.
+ */
+final class TooltipCache
+{
+	private static final int MAX_ENTRIES = 256;
+	private static final String PENDING_KEY = "lendingtracker.tooltip";
+	// Shown only if a tooltip somehow appears before its hover resolved it
+	private static final String PLACEHOLDER = "<html>…</html>";
+
+	private static final Map<Object, String> CACHE = new LinkedHashMap<Object, String>(64, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, String> eldest)
+		{
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	private static final MouseAdapter RESOLVER = new MouseAdapter()
+	{
+		@Override
+		public void mouseEntered(MouseEvent e)
+		{
+			if (e.getComponent() instanceof JComponent)
+			{
+				resolve((JComponent) e.getComponent());
+			}
+		}
+	};
+
+	/** What a component's tooltip will be rendered from. */
+	private static final class Pending<T>
+	{
+		final T model;
+		final Function<T, Object> key;
+		final Function<T, String> render;
+
+		Pending(T model, Function<T, Object> key, Function<T, String> render)
+		{
+			this.model = model;
+			this.key = key;
+			this.render = render;
+		}
+
+		String html()
+		{
+			Object k = key.apply(model);
+			if (k == null)
+			{
+				return render.apply(model);
+			}
+			String html = CACHE.get(k);
+			if (html == null)
+			{
+				html = render.apply(model);
+				CACHE.put(k, html);
+			}
+			return html;
+		}
+	}
+
+	private TooltipCache()
+	{
+	}
+
+	/**
+	 * Give every component (tooltips don't inherit) a tooltip rendered from this
+	 * model on first hover. The key identifies the model's content, e.g. id and
+	 * version; a null key renders without caching.
+	 */
+	static <T> void bind(T model, Function<T, Object> key, Function<T, String> render, JComponent... components)
+	{
+		Pending<T> pending = new Pending<>(model, key, render);
+		for (JComponent c : components)
+		{
+			if (c == null)
+			{
+				continue;
+			}
+			if (c.getClientProperty(PENDING_KEY) == null)
+			{
+				c.addMouseListener(RESOLVER);
+			}
+			c.putClientProperty(PENDING_KEY, pending);
+			c.setToolTipText(PLACEHOLDER);
+		}
+	}
+
+	private static void resolve(JComponent c)
+	{
+		Object pending = c.getClientProperty(PENDING_KEY);
+		if (pending instanceof Pending)
+		{
+			c.setToolTipText(((Pending<?>) pending).html());
+		}
+	}
+}
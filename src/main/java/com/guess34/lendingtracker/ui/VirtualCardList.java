@@ -0,0 +1,398 @@
+package com.guess34.lendingtracker.ui;
+
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeListener;
+
+/**
+ * VirtualCardList - a scrollable column of cards that only materializes the
+ * rows in view.
+ *
+ * Each row is a model plus the {@link Kind} that knows how to draw it. A kind
+ * creates its card component once and re-binds it to whichever row scrolls into
+ * view, so a refresh with thousands of rows swaps models and re-binds the dozen
+ * or so visible cards instead of allocating and laying out a component tree per
+ * row. Cards that scroll out of view go back to their kind's pool; they stay
+ * children of the list (hidden) so recycling never adds or removes components.
+ *
+ * Row heights are measured from the bound card and remembered per row; rows not
+ * yet seen use the last height measured for their kind.
+ *
+ * Rows may carry a key and content version (see {@link CardReconciler}). A
+ * keyed row that is on screen before and after {@link #setRows} keeps its card,
+ * and is not re-bound at all when its version and model are unchanged.
+ *
+ * A list fed a page at a time can ask to hear when the last row comes into
+ * view (see {@link #setNearEndListener}) and append the next page then.
+ *
+ * EDT only, like the rest of Swing.
+ */
+final class VirtualCardList extends JPanel implements Scrollable
+{
+	/** Creates and re-binds the pooled card for one kind of row. */
+	interface Kind<T>
+	{
+		JComponent create();
+
+		void bind(JComponent card, T model);
+	}
+
+	/** One row: its model, how to draw it, and optionally its identity. */
+	static final class Row
+	{
+		final Kind<?> kind;
+		final Object model;
+		final String key;
+		final long version;
+
+		private <T> Row(Kind<T> kind, T model, String key, long version)
+		{
+			this.kind = kind;
+			this.model = model;
+			this.key = key;
+			this.version = version;
+		}
+
+		/** Same card kind and content as an earlier row with this key. */
+		private boolean sameAs(Row other)
+		{
+			return kind == other.kind && version == other.version && model == other.model;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void bind(JComponent card)
+		{
+			((Kind<Object>) kind).bind(card, model);
+		}
+	}
+
+	/** A row that is re-bound on every refresh (headers, empty states). */
+	static <T> Row row(Kind<T> kind, T model)
+	{
+		return new Row(kind, model, null, 0);
+	}
+
+	/** A row whose card survives refreshes while its key is on screen. */
+	static <T> Row row(Kind<T> kind, String key, long version, T model)
+	{
+		return new Row(kind, model, key, version);
+	}
+
+	/** A kind from a card factory and a bind method on that card type. */
+	static <C extends JComponent, T> Kind<T> kind(Supplier<C> create, BiConsumer<C, T> bind)
+	{
+		return new Kind<T>()
+		{
+			@Override
+			public JComponent create()
+			{
+				return create.get();
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public void bind(JComponent card, T model)
+			{
+				bind.accept((C) card, model);
+			}
+		};
+	}
+
+	// Rows drawn beyond each edge of the viewport, so a short scroll doesn't
+	// show a gap before the next layout
+	private static final int OVERSCAN = 2;
+	private static final int DEFAULT_ROW_HEIGHT = 60;
+	private static final int UNIT_INCREMENT = 16;
+
+	private List<Row> rows = Collections.emptyList();
+	private int[] heights = new int[0];
+	// offsets[i] = top of row i; offsets[rows.size()] = total height
+	private int[] offsets = new int[1];
+
+	// Row index -> card currently showing it
+	private final Map<Integer, JComponent> live = new HashMap<>();
+	private final Map<Kind<?>, ArrayDeque<JComponent>> pools = new IdentityHashMap<>();
+	private final Map<Kind<?>, Integer> kindHeights = new IdentityHashMap<>();
+
+	private final ChangeListener viewportListener = e -> layoutVisible();
+	private JViewport viewport;
+
+	private Runnable nearEndListener;
+	private boolean nearEndPending;
+
+	VirtualCardList()
+	{
+		super(null);
+	}
+
+	/**
+	 * Replace every row. Keyed cards on screen follow their key to its new
+	 * position, re-bound only if the row changed; nothing is allocated for rows
+	 * out of view.
+	 */
+	void setRows(List<Row> newRows)
+	{
+		// Live keyed cards, by key, with the row they were showing
+		Map<String, Map.Entry<Row, JComponent>> keyed = new HashMap<>();
+		for (Map.Entry<Integer, JComponent> e : live.entrySet())
+		{
+			Row old = rows.get(e.getKey());
+			if (old.key == null || keyed.putIfAbsent(old.key, new SimpleEntry<>(old, e.getValue())) != null)
+			{
+				release(old.kind, e.getValue());
+			}
+		}
+		live.clear();
+
+		rows = new ArrayList<>(newRows);
+		heights = new int[rows.size()];
+		for (int i = 0; i < heights.length; i++)
+		{
+			Row row = rows.get(i);
+			heights[i] = kindHeights.getOrDefault(row.kind, DEFAULT_ROW_HEIGHT);
+			Map.Entry<Row, JComponent> kept = row.key != null ? keyed.remove(row.key) : null;
+			if (kept == null)
+			{
+				continue;
+			}
+			Row old = kept.getKey();
+			JComponent card = kept.getValue();
+			if (old.kind != row.kind)
+			{
+				release(old.kind, card);
+				continue;
+			}
+			if (!row.sameAs(old))
+			{
+				row.bind(card);
+			}
+			heights[i] = Math.max(1, card.getPreferredSize().height);
+			live.put(i, card);
+		}
+		for (Map.Entry<Row, JComponent> gone : keyed.values())
+		{
+			release(gone.getKey().kind, gone.getValue());
+		}
+		int[] previousOffsets = offsets;
+		recomputeOffsets();
+		layoutVisible();
+		// Same shape: re-bound cards repaint themselves, the rest is unchanged
+		if (!Arrays.equals(previousOffsets, offsets))
+		{
+			revalidate();
+			repaint();
+		}
+	}
+
+	int getRowCount()
+	{
+		return rows.size();
+	}
+
+	/**
+	 * Called (later on the EDT, once per layout that reaches it) when the last
+	 * row is within the overscan of the viewport. Null to stop.
+	 */
+	void setNearEndListener(Runnable listener)
+	{
+		nearEndListener = listener;
+	}
+
+	// --- Layout ---
+
+	@Override
+	public void doLayout()
+	{
+		layoutVisible();
+	}
+
+	@Override
+	public Dimension getPreferredSize()
+	{
+		return new Dimension(viewport != null ? viewport.getWidth() : super.getPreferredSize().width,
+			offsets[offsets.length - 1]);
+	}
+
+	@Override
+	public void addNotify()
+	{
+		super.addNotify();
+		Container parent = getParent();
+		if (parent instanceof JViewport)
+		{
+			viewport = (JViewport) parent;
+			viewport.addChangeListener(viewportListener);
+		}
+	}
+
+	@Override
+	public void removeNotify()
+	{
+		if (viewport != null)
+		{
+			viewport.removeChangeListener(viewportListener);
+			viewport = null;
+		}
+		super.removeNotify();
+	}
+
+	/** Bind cards to the rows in view (plus overscan), return the rest to their pools. */
+	private void layoutVisible()
+	{
+		int width = getWidth();
+		if (rows.isEmpty() || width <= 0)
+		{
+			return;
+		}
+		Rectangle view = getVisibleRect();
+		int first = Math.max(0, rowAt(view.y) - OVERSCAN);
+		int last = Math.min(rows.size() - 1, rowAt(view.y + view.height) + OVERSCAN);
+
+		live.entrySet().removeIf(e ->
+		{
+			int i = e.getKey();
+			if (i < first || i > last)
+			{
+				release(rows.get(i).kind, e.getValue());
+				return true;
+			}
+			return false;
+		});
+
+		boolean resized = false;
+		for (int i = first; i <= last; i++)
+		{
+			JComponent card = live.get(i);
+			if (card == null)
+			{
+				Row row = rows.get(i);
+				card = acquire(row.kind);
+				row.bind(card);
+				live.put(i, card);
+				int h = Math.max(1, card.getPreferredSize().height);
+				kindHeights.put(row.kind, h);
+				if (h != heights[i])
+				{
+					heights[i] = h;
+					resized = true;
+				}
+			}
+		}
+		if (resized)
+		{
+			recomputeOffsets();
+		}
+		for (Map.Entry<Integer, JComponent> e : live.entrySet())
+		{
+			int i = e.getKey();
+			e.getValue().setBounds(0, offsets[i], width, heights[i]);
+			e.getValue().validate();
+		}
+		if (resized)
+		{
+			// Total height changed: let the scroll pane pick up the new extent
+			revalidate();
+		}
+		if (last == rows.size() - 1 && nearEndListener != null && !nearEndPending)
+		{
+			// Not from inside layout: the listener will usually call setRows
+			nearEndPending = true;
+			SwingUtilities.invokeLater(() ->
+			{
+				nearEndPending = false;
+				if (nearEndListener != null)
+				{
+					nearEndListener.run();
+				}
+			});
+		}
+	}
+
+	/** Index of the row covering y (clamped). */
+	private int rowAt(int y)
+	{
+		int i = Arrays.binarySearch(offsets, 0, rows.size(), y);
+		int row = i >= 0 ? i : -i - 2;
+		return Math.max(0, Math.min(rows.size() - 1, row));
+	}
+
+	private void recomputeOffsets()
+	{
+		offsets = new int[heights.length + 1];
+		for (int i = 0; i < heights.length; i++)
+		{
+			offsets[i + 1] = offsets[i] + heights[i];
+		}
+	}
+
+	// --- Pooling ---
+
+	private JComponent acquire(Kind<?> kind)
+	{
+		ArrayDeque<JComponent> pool = pools.get(kind);
+		JComponent card = pool != null ? pool.poll() : null;
+		if (card == null)
+		{
+			card = kind.create();
+			add(card);
+		}
+		card.setVisible(true);
+		return card;
+	}
+
+	private void release(Kind<?> kind, JComponent card)
+	{
+		card.setVisible(false);
+		pools.computeIfAbsent(kind, k -> new ArrayDeque<>()).push(card);
+	}
+
+	// --- Scrollable ---
+
+	@Override
+	public Dimension getPreferredScrollableViewportSize()
+	{
+		return getPreferredSize();
+	}
+
+	@Override
+	public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction)
+	{
+		return UNIT_INCREMENT;
+	}
+
+	@Override
+	public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction)
+	{
+		return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportWidth()
+	{
+		return true;
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportHeight()
+	{
+		return false;
+	}
+}
@@ -0,0 +1,258 @@
+package com.guess34.lendingtracker.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing int -> int hash map with no boxing. Built for item-id keyed
+ * tallies that are read on every click: a lookup is a couple of array reads
+ * and never allocates.
+ *
+ * A value that reaches 0 through {@link #add} is removed, so "contains" always
+ * means "non-zero". Not thread-safe; callers synchronise.
+ */
+public final class IntIntMap
+{
+	// Integer.MIN_VALUE marks a free slot. No item id is ever negative, so it
+	// can't collide with a real key.
+	private static final int FREE = Integer.MIN_VALUE;
+	private static final int MIN_CAPACITY = 8;
+
+	private int[] keys;
+	private int[] values;
+	private int mask;
+	private int size;
+
+	public IntIntMap()
+	{
+		this(MIN_CAPACITY);
+	}
+
+	public IntIntMap(int expected)
+	{
+		int cap = MIN_CAPACITY;
+		while (cap < expected * 2)
+		{
+			cap <<= 1;
+		}
+		allocate(cap);
+	}
+
+	/** Copy constructor. */
+	public IntIntMap(IntIntMap other)
+	{
+		keys = other.keys.clone();
+		values = other.values.clone();
+		mask = other.mask;
+		size = other.size;
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	public boolean containsKey(int key)
+	{
+		return keys[slot(key)] != FREE;
+	}
+
+	public int get(int key)
+	{
+		return getOrDefault(key, 0);
+	}
+
+	public int getOrDefault(int key, int defaultValue)
+	{
+		int i = slot(key);
+		return keys[i] != FREE ? values[i] : defaultValue;
+	}
+
+	public void put(int key, int value)
+	{
+		checkKey(key);
+		int i = slot(key);
+		if (keys[i] == FREE)
+		{
+			keys[i] = key;
+			size++;
+			values[i] = value;
+			growIfNeeded();
+			return;
+		}
+		values[i] = value;
+	}
+
+	/**
+	 * Add delta to the key's value (absent counts as 0) and return the result.
+	 * A result of 0 removes the key.
+	 */
+	public int add(int key, int delta)
+	{
+		checkKey(key);
+		int i = slot(key);
+		if (keys[i] == FREE)
+		{
+			if (delta == 0)
+			{
+				return 0;
+			}
+			keys[i] = key;
+			values[i] = delta;
+			size++;
+			growIfNeeded();
+			return delta;
+		}
+		int next = values[i] + delta;
+		if (next == 0)
+		{
+			removeAt(i);
+		}
+		else
+		{
+			values[i] = next;
+		}
+		return next;
+	}
+
+	/** Remove the key. Returns its value, or 0 if it was absent. */
+	public int remove(int key)
+	{
+		int i = slot(key);
+		if (keys[i] == FREE)
+		{
+			return 0;
+		}
+		int old = values[i];
+		removeAt(i);
+		return old;
+	}
+
+	/** Snapshot of the keys, for walks that modify the map as they go. */
+	public int[] keys()
+	{
+		int[] out = new int[size];
+		int n = 0;
+		for (int k : keys)
+		{
+			if (k != FREE)
+			{
+				out[n++] = k;
+			}
+		}
+		return out;
+	}
+
+	public void clear()
+	{
+		if (size == 0)
+		{
+			return;
+		}
+		Arrays.fill(keys, FREE);
+		size = 0;
+	}
+
+	/** Visit every entry. The map must not be modified during the walk. */
+	public void forEach(IntIntConsumer action)
+	{
+		for (int i = 0; i < keys.length; i++)
+		{
+			if (keys[i] != FREE)
+			{
+				action.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+	@FunctionalInterface
+	public interface IntIntConsumer
+	{
+		void accept(int key, int value);
+	}
+
+	// --- Internals ---
+
+	private static void checkKey(int key)
+	{
+		if (key == FREE)
+		{
+			throw new IllegalArgumentException("Reserved key: " + key);
+		}
+	}
+
+	private static int mix(int key)
+	{
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/** Slot holding key, or the free slot where it would go. */
+	private int slot(int key)
+	{
+		int i = mix(key) & mask;
+		while (keys[i] != FREE && keys[i] != key)
+		{
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	/** Backward-shift delete, so probe chains stay intact without tombstones. */
+	private void removeAt(int i)
+	{
+		size--;
+		int gap = i;
+		int j = i;
+		while (true)
+		{
+			j = (j + 1) & mask;
+			if (keys[j] == FREE)
+			{
+				break;
+			}
+			int home = mix(keys[j]) & mask;
+			// Move j into the gap unless its home lies cyclically in (gap, j]
+			boolean stays = gap <= j ? (gap < home && home <= j) : (gap < home || home <= j);
+			if (!stays)
+			{
+				keys[gap] = keys[j];
+				values[gap] = values[j];
+				gap = j;
+			}
+		}
+		keys[gap] = FREE;
+	}
+
+	private void growIfNeeded()
+	{
+		if (size * 4 < keys.length * 3)
+		{
+			return;
+		}
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(keys.length << 1);
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			if (oldKeys[i] != FREE)
+			{
+				int s = slot(oldKeys[i]);
+				keys[s] = oldKeys[i];
+				values[s] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity)
+	{
+		keys = new int[capacity];
+		values = new int[capacity];
+		Arrays.fill(keys, FREE);
+		mask = capacity - 1;
+	}
+}
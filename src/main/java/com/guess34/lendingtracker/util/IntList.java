@@ -0,0 +1,32 @@
+package com.guess34.lendingtracker.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable int array for building sorted postings (name n-grams, history
+ * positions) without boxing. Not thread-safe.
+ */
+public final class IntList
+{
+	private int[] data = new int[4];
+	private int size;
+
+	/** Append value unless it is already the last one; postings are built in order. */
+	public void addIfNotLast(int value)
+	{
+		if (size > 0 && data[size - 1] == value)
+		{
+			return;
+		}
+		if (size == data.length)
+		{
+			data = Arrays.copyOf(data, size * 2);
+		}
+		data[size++] = value;
+	}
+
+	public int[] toArray()
+	{
+		return Arrays.copyOf(data, size);
+	}
+}
@@ -0,0 +1,202 @@
+package com.guess34.lendingtracker.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Open-addressing set of ints with no boxing; the companion of
+ * {@link IntIntMap} for item-id membership checks. Not thread-safe.
+ */
+public final class IntSet
+{
+	// Same free-slot marker as IntIntMap: item ids are never negative
+	private static final int FREE = Integer.MIN_VALUE;
+	private static final int MIN_CAPACITY = 8;
+
+	private int[] keys;
+	private int mask;
+	private int size;
+
+	public IntSet()
+	{
+		allocate(MIN_CAPACITY);
+	}
+
+	/** Copy constructor. */
+	public IntSet(IntSet other)
+	{
+		keys = other.keys.clone();
+		mask = other.mask;
+		size = other.size;
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	public boolean contains(int key)
+	{
+		return keys[slot(key)] != FREE;
+	}
+
+	/** Add the key. Returns false if it was already present. */
+	public boolean add(int key)
+	{
+		if (key == FREE)
+		{
+			throw new IllegalArgumentException("Reserved key: " + key);
+		}
+		int i = slot(key);
+		if (keys[i] != FREE)
+		{
+			return false;
+		}
+		keys[i] = key;
+		size++;
+		growIfNeeded();
+		return true;
+	}
+
+	public void addAll(IntSet other)
+	{
+		for (int k : other.keys)
+		{
+			if (k != FREE)
+			{
+				add(k);
+			}
+		}
+	}
+
+	/** Remove the key. Returns false if it was absent. */
+	public boolean remove(int key)
+	{
+		int i = slot(key);
+		if (keys[i] == FREE)
+		{
+			return false;
+		}
+		removeAt(i);
+		return true;
+	}
+
+	/** Remove every key the filter accepts. */
+	public void removeIf(IntPredicate filter)
+	{
+		for (int k : toArray())
+		{
+			if (filter.test(k))
+			{
+				remove(k);
+			}
+		}
+	}
+
+	public void clear()
+	{
+		if (size == 0)
+		{
+			return;
+		}
+		Arrays.fill(keys, FREE);
+		size = 0;
+	}
+
+	/** Visit every key. The set must not be modified during the walk. */
+	public void forEach(IntConsumer action)
+	{
+		for (int k : keys)
+		{
+			if (k != FREE)
+			{
+				action.accept(k);
+			}
+		}
+	}
+
+	public int[] toArray()
+	{
+		int[] out = new int[size];
+		int n = 0;
+		for (int k : keys)
+		{
+			if (k != FREE)
+			{
+				out[n++] = k;
+			}
+		}
+		return out;
+	}
+
+	// --- Internals (see IntIntMap) ---
+
+	private static int mix(int key)
+	{
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private int slot(int key)
+	{
+		int i = mix(key) & mask;
+		while (keys[i] != FREE && keys[i] != key)
+		{
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	private void removeAt(int i)
+	{
+		size--;
+		int gap = i;
+		int j = i;
+		while (true)
+		{
+			j = (j + 1) & mask;
+			if (keys[j] == FREE)
+			{
+				break;
+			}
+			int home = mix(keys[j]) & mask;
+			boolean stays = gap <= j ? (gap < home && home <= j) : (gap < home || home <= j);
+			if (!stays)
+			{
+				keys[gap] = keys[j];
+				gap = j;
+			}
+		}
+		keys[gap] = FREE;
+	}
+
+	private void growIfNeeded()
+	{
+		if (size * 4 < keys.length * 3)
+		{
+			return;
+		}
+		int[] old = keys;
+		allocate(keys.length << 1);
+		for (int k : old)
+		{
+			if (k != FREE)
+			{
+				keys[slot(k)] = k;
+			}
+		}
+	}
+
+	private void allocate(int capacity)
+	{
+		keys = new int[capacity];
+		Arrays.fill(keys, FREE);
+		mask = capacity - 1;
+	}
+}
@@ -0,0 +1,50 @@
+package com.guess34.lendingtracker.util;
+
+import net.runelite.client.game.ItemVariationMapping;
+
+/**
+ * Variation-base ids as a flat int[] indexed by item id.
+ *
+ * ItemVariationMapping.map is a boxed hash lookup, and the trade and guard code
+ * calls it for every item of every pass. {@link #build} precomputes the whole
+ * table once (off the client thread, at startup); {@link #base} is then a
+ * single array load. Ids outside the table, or any id before it is built, fall
+ * back to ItemVariationMapping.
+ */
+public final class ItemBases
+{
+	// Replaced wholesale, never written in place, so readers need no locking
+	private static volatile int[] table = new int[0];
+
+	private ItemBases()
+	{
+	}
+
+	/** The variation-base id of this item (the item itself when it has none). */
+	public static int base(int itemId)
+	{
+		int[] t = table;
+		return itemId >= 0 && itemId < t.length ? t[itemId] : ItemVariationMapping.map(itemId);
+	}
+
+	/** Has the table been built for at least this many item ids? */
+	public static boolean isBuilt(int itemCount)
+	{
+		return itemCount > 0 && table.length >= itemCount;
+	}
+
+	/** Fill the table for ids [0, itemCount). A no-op if it is already that large. */
+	public static void build(int itemCount)
+	{
+		if (isBuilt(itemCount))
+		{
+			return;
+		}
+		int[] t = new int[itemCount];
+		for (int id = 0; id < itemCount; id++)
+		{
+			t[id] = ItemVariationMapping.map(id);
+		}
+		table = t;
+	}
+}
@@ -0,0 +1,233 @@
+package com.guess34.lendingtracker.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Search index over names, each tagged with an int id the caller chooses: item
+ * ids for the item pickers in the offer and looking-for dialogs, row positions
+ * for the roster's member search.
+ *
+ * Names are held sorted (lower-cased alongside), so a prefix query is a binary
+ * search plus a scan of the matching run. Substring queries go through an
+ * n-gram index: every 2- and 3-character window of every name maps to the
+ * sorted positions of the names containing it; a query is checked only against
+ * the shortest posting list among its own n-grams. Either way a lookup touches
+ * a few hundred names at most and never the client.
+ *
+ * Immutable once built, so it can be shared across threads without locking.
+ */
+public final class NameIndex
+{
+	/** One search hit. */
+	public static final class Match
+	{
+		private final int id;
+		private final String name;
+
+		Match(int id, String name)
+		{
+			this.id = id;
+			this.name = name;
+		}
+
+		public int getId() { return id; }
+		public String getName() { return name; }
+	}
+
+	// Parallel arrays, ordered by lowerNames
+	private final int[] ids;
+	private final String[] names;
+	private final String[] lowerNames;
+	// Sorted n-gram keys (see gramKey) and, per key, ascending positions above
+	private final long[] gramKeys;
+	private final int[][] postings;
+
+	private NameIndex(int[] ids, String[] names, String[] lowerNames, long[] gramKeys, int[][] postings)
+	{
+		this.ids = ids;
+		this.names = names;
+		this.lowerNames = lowerNames;
+		this.gramKeys = gramKeys;
+		this.postings = postings;
+	}
+
+	/**
+	 * Build from parallel id/name arrays (callers dedupe). The slow part: sorting
+	 * and indexing, no client access.
+	 */
+	public static NameIndex build(int[] sourceIds, String[] sourceNames)
+	{
+		int n = sourceIds.length;
+		Integer[] order = new Integer[n];
+		String[] lower = new String[n];
+		for (int i = 0; i < n; i++)
+		{
+			order[i] = i;
+			lower[i] = sourceNames[i].toLowerCase(Locale.ROOT);
+		}
+		Arrays.sort(order, (a, b) ->
+		{
+			int c = lower[a].compareTo(lower[b]);
+			return c != 0 ? c : Integer.compare(sourceIds[a], sourceIds[b]);
+		});
+
+		int[] ids = new int[n];
+		String[] names = new String[n];
+		String[] lowerNames = new String[n];
+		for (int i = 0; i < n; i++)
+		{
+			ids[i] = sourceIds[order[i]];
+			names[i] = sourceNames[order[i]];
+			lowerNames[i] = lower[order[i]];
+		}
+
+		// Postings are appended in position order, so each list comes out sorted
+		Map<Long, IntList> grams = new HashMap<>();
+		for (int pos = 0; pos < n; pos++)
+		{
+			String s = lowerNames[pos];
+			for (int len = 2; len <= 3; len++)
+			{
+				for (int i = 0; i + len <= s.length(); i++)
+				{
+					IntList list = grams.computeIfAbsent(gramKey(s, i, len), k -> new IntList());
+					list.addIfNotLast(pos);
+				}
+			}
+		}
+		long[] gramKeys = new long[grams.size()];
+		int k = 0;
+		for (Long key : grams.keySet())
+		{
+			gramKeys[k++] = key;
+		}
+		Arrays.sort(gramKeys);
+		int[][] postings = new int[gramKeys.length][];
+		for (int i = 0; i < gramKeys.length; i++)
+		{
+			postings[i] = grams.get(gramKeys[i]).toArray();
+		}
+		return new NameIndex(ids, names, lowerNames, gramKeys, postings);
+	}
+
+	public int size()
+	{
+		return ids.length;
+	}
+
+	/**
+	 * Names containing the query (case-insensitive), best first: an exact match,
+	 * then names starting with the query, then the rest; alphabetical within
+	 * each. At most maxResults.
+	 */
+	public List<Match> search(String query, int maxResults)
+	{
+		List<Match> results = new ArrayList<>();
+		String q = query.toLowerCase(Locale.ROOT).trim();
+		if (q.isEmpty() || maxResults <= 0)
+		{
+			return results;
+		}
+
+		// Prefix run: the exact match, if any, sorts first within it
+		int start = lowerBound(q);
+		int end = start;
+		while (end < lowerNames.length && lowerNames[end].startsWith(q))
+		{
+			end++;
+		}
+		for (int i = start; i < end && results.size() < maxResults; i++)
+		{
+			results.add(new Match(ids[i], names[i]));
+		}
+		if (results.size() >= maxResults)
+		{
+			return results;
+		}
+
+		// Substring matches outside the prefix run
+		int[] candidates = q.length() == 1 ? null : shortestPosting(q);
+		if (candidates == null)
+		{
+			if (q.length() > 1)
+			{
+				return results; // some n-gram of the query occurs in no name
+			}
+			for (int i = 0; i < lowerNames.length && results.size() < maxResults; i++)
+			{
+				if ((i < start || i >= end) && lowerNames[i].indexOf(q.charAt(0)) >= 0)
+				{
+					results.add(new Match(ids[i], names[i]));
+				}
+			}
+			return results;
+		}
+		for (int pos : candidates)
+		{
+			if (results.size() >= maxResults)
+			{
+				break;
+			}
+			if ((pos < start || pos >= end) && lowerNames[pos].contains(q))
+			{
+				results.add(new Match(ids[pos], names[pos]));
+			}
+		}
+		return results;
+	}
+
+	/** The smallest posting list among the query's n-grams; null if one has none. */
+	private int[] shortestPosting(String q)
+	{
+		int len = Math.min(3, q.length());
+		int[] best = null;
+		for (int i = 0; i + len <= q.length(); i++)
+		{
+			int slot = Arrays.binarySearch(gramKeys, gramKey(q, i, len));
+			if (slot < 0)
+			{
+				return null;
+			}
+			if (best == null || postings[slot].length < best.length)
+			{
+				best = postings[slot];
+			}
+		}
+		return best;
+	}
+
+	private int lowerBound(String q)
+	{
+		int lo = 0;
+		int hi = lowerNames.length;
+		while (lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if (lowerNames[mid].compareTo(q) < 0)
+			{
+				lo = mid + 1;
+			}
+			else
+			{
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/** Pack a 2- or 3-char window into a long (16 bits per char, length on top). */
+	private static long gramKey(String s, int from, int len)
+	{
+		long key = len;
+		for (int i = 0; i < len; i++)
+		{
+			key = (key << 16) | s.charAt(from + i);
+		}
+		return key;
+	}
+}
@@ -0,0 +1,221 @@
+package com.guess34.lendingtracker.services;
+
+import com.guess34.lendingtracker.model.LendingEntry;
+import com.guess34.lendingtracker.util.IntSet;
+import com.guess34.lendingtracker.util.ItemBases;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the incremental ledger against the full scan it replaced (the old
+ * TradeLoanTracker.totalOwedByBase / baseIdsIOweTo).
+ */
+public class ObligationsLedgerTest
+{
+	private static final String[] PLAYERS = { "Alice", "bob", "Carol", "dave", "Eve", "frank" };
+	// Small id range so entries share bases and collateral overlaps lent items
+	private static final int ITEM_RANGE = 40;
+
+	@Test
+	public void borrowedAndCollateralAreBothOwed()
+	{
+		ObligationsLedger ledger = new ObligationsLedger();
+		LendingEntry loan = entry("a", "Alice", "Bob", 1000, 3, "2000:5,2001:1");
+		ledger.upsert(loan);
+
+		assertEquals(3, ledger.owed("bob", ItemBases.base(1000)));
+		assertEquals(5, ledger.owed("ALICE", ItemBases.base(2000)));
+		assertEquals(1, ledger.owed("alice", ItemBases.base(2001)));
+		assertEquals(0, ledger.owed("alice", ItemBases.base(1000)));
+		assertTrue(ledger.borrowedBasesFrom("Bob", "alice").contains(ItemBases.base(1000)));
+		assertTrue(ledger.borrowedBasesFrom("Alice", "Bob").isEmpty());
+	}
+
+	@Test
+	public void updateInPlaceSubtractsWhatWasAdded()
+	{
+		ObligationsLedger ledger = new ObligationsLedger();
+		LendingEntry loan = entry("a", "Alice", "Bob", 1000, 3, "2000:5");
+		ledger.upsert(loan);
+
+		// Partial return, applied to the same object before the ledger hears of it
+		loan.setLentOutstanding(1);
+		loan.setCollateralOutstandingIds("2000:2");
+		ledger.upsert(loan);
+		assertEquals(1, ledger.owed("bob", ItemBases.base(1000)));
+		assertEquals(2, ledger.owed("alice", ItemBases.base(2000)));
+
+		loan.setReturnedAt(1L);
+		loan.markSettled();
+		ledger.upsert(loan);
+		assertEquals(0, ledger.owed("bob", ItemBases.base(1000)));
+		assertEquals(0, ledger.owed("alice", ItemBases.base(2000)));
+		assertTrue(ledger.borrowedBasesFrom("bob", "alice").isEmpty());
+	}
+
+	@Test
+	public void randomChangesMatchFullScan()
+	{
+		Random random = new Random(31);
+		ObligationsLedger ledger = new ObligationsLedger();
+		Map<String, LendingEntry> entries = new LinkedHashMap<>();
+		List<String> ids = new ArrayList<>();
+
+		for (int step = 0; step < 5000; step++)
+		{
+			int op = random.nextInt(10);
+			if (op < 5 || ids.isEmpty())
+			{
+				LendingEntry e = randomEntry(random, "e" + step);
+				entries.put(e.getId(), e);
+				ids.add(e.getId());
+				ledger.upsert(e);
+			}
+			else if (op < 8)
+			{
+				// Settle part or all of an entry in place
+				LendingEntry e = entries.get(ids.get(random.nextInt(ids.size())));
+				e.setLentOutstanding(random.nextInt(e.outstandingLentQty() + 1));
+				if (random.nextBoolean())
+				{
+					e.setCollateralOutstandingIds("");
+				}
+				if (random.nextInt(4) == 0)
+				{
+					e.setReturnedAt(step + 1);
+				}
+				ledger.upsert(e);
+			}
+			else
+			{
+				String id = ids.remove(random.nextInt(ids.size()));
+				entries.remove(id);
+				ledger.remove(id);
+			}
+
+			if (step % 50 == 0)
+			{
+				assertMatchesScan(ledger, entries.values());
+			}
+		}
+		assertMatchesScan(ledger, entries.values());
+
+		ledger.rebuild(entries.values());
+		assertMatchesScan(ledger, entries.values());
+	}
+
+	// --- The scan the ledger replaced ---
+
+	private static Map<Integer, Integer> scanOwed(Iterable<LendingEntry> entries, String me)
+	{
+		Map<Integer, Integer> owed = new HashMap<>();
+		for (LendingEntry e : entries)
+		{
+			if (e.isReturned())
+			{
+				continue;
+			}
+			if (me.equalsIgnoreCase(e.getBorrower()))
+			{
+				int q = e.outstandingLentQty();
+				if (q > 0)
+				{
+					owed.merge(ItemBases.base(e.getItemId()), q, Integer::sum);
+				}
+			}
+			if (me.equalsIgnoreCase(e.getLender()))
+			{
+				String raw = e.outstandingCollateralIds();
+				if (raw == null || raw.isEmpty())
+				{
+					continue;
+				}
+				for (String pair : raw.split(","))
+				{
+					String[] parts = pair.split(":");
+					owed.merge(ItemBases.base(Integer.parseInt(parts[0])),
+						Math.max(1, Integer.parseInt(parts[1])), Integer::sum);
+				}
+			}
+		}
+		return owed;
+	}
+
+	private static Set<Integer> scanBorrowedFrom(Iterable<LendingEntry> entries, String me, String lender)
+	{
+		Set<Integer> bases = new HashSet<>();
+		for (LendingEntry e : entries)
+		{
+			if (!e.isReturned() && e.outstandingLentQty() > 0
+				&& me.equalsIgnoreCase(e.getBorrower())
+				&& lender.equalsIgnoreCase(e.getLender()))
+			{
+				bases.add(ItemBases.base(e.getItemId()));
+			}
+		}
+		return bases;
+	}
+
+	private static void assertMatchesScan(ObligationsLedger ledger, Iterable<LendingEntry> entries)
+	{
+		for (String player : PLAYERS)
+		{
+			Map<Integer, Integer> expected = scanOwed(entries, player);
+			Map<Integer, Integer> actual = new HashMap<>();
+			ledger.forEachOwed(player, actual::put);
+			assertEquals("owed by " + player, expected, actual);
+
+			for (String lender : PLAYERS)
+			{
+				Set<Integer> actualBases = new HashSet<>();
+				IntSet bases = ledger.borrowedBasesFrom(player, lender);
+				bases.forEach(actualBases::add);
+				assertEquals(player + " borrowed from " + lender,
+					scanBorrowedFrom(entries, player, lender), actualBases);
+			}
+		}
+	}
+
+	// --- Fixtures ---
+
+	private static LendingEntry randomEntry(Random random, String id)
+	{
+		String lender = PLAYERS[random.nextInt(PLAYERS.length)];
+		String borrower = PLAYERS[random.nextInt(PLAYERS.length)];
+		StringBuilder collateral = new StringBuilder();
+		int pieces = random.nextInt(3);
+		for (int i = 0; i < pieces; i++)
+		{
+			if (i > 0)
+			{
+				collateral.append(',');
+			}
+			collateral.append(1000 + random.nextInt(ITEM_RANGE)).append(':').append(1 + random.nextInt(5));
+		}
+		return entry(id, lender, borrower, 1000 + random.nextInt(ITEM_RANGE), 1 + random.nextInt(4), collateral.toString());
+	}
+
+	private static LendingEntry entry(String id, String lender, String borrower, int itemId, int qty, String collateralIds)
+	{
+		LendingEntry e = new LendingEntry();
+		e.setId(id);
+		e.setLender(lender);
+		e.setBorrower(borrower);
+		e.setItemId(itemId);
+		e.setQuantity(qty);
+		e.setLentOutstanding(qty);
+		e.setCollateralItemIds(collateralIds);
+		e.setCollateralOutstandingIds(collateralIds);
+		return e;
+	}
+}
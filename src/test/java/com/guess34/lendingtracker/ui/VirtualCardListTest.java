@@ -0,0 +1,166 @@
+package com.guess34.lendingtracker.ui;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The virtual list at 1k and 10k rows: how many cards it materializes and how
+ * often it binds, on refresh and over a full scroll.
+ */
+public class VirtualCardListTest
+{
+	private static final int WIDTH = 225;
+	private static final int VIEW_HEIGHT = 600;
+	private static final int CARD_HEIGHT = 48;
+	// Rows in view plus the list's overscan either side, with slack for a partial row
+	private static final int MAX_LIVE = VIEW_HEIGHT / CARD_HEIGHT + 2 * 2 + 2;
+
+	/** A stand-in card, counting how it is used. */
+	private static final class Card extends JPanel
+	{
+		final JLabel label = new JLabel();
+
+		Card()
+		{
+			super(new BorderLayout());
+			add(label, BorderLayout.CENTER);
+			setPreferredSize(new Dimension(WIDTH, CARD_HEIGHT));
+		}
+	}
+
+	private int created;
+	private int binds;
+	// Row models are reused across refreshes, as the dashboard's are when nothing changed
+	private String[] models = new String[0];
+
+	private final VirtualCardList.Kind<String> kind = VirtualCardList.kind(
+		() ->
+		{
+			created++;
+			return new Card();
+		},
+		(Card card, String model) ->
+		{
+			binds++;
+			card.label.setText(model);
+		});
+
+	@Test
+	public void thousandRows() throws Exception
+	{
+		onEdt(() -> checkSize(1_000));
+	}
+
+	@Test
+	public void tenThousandRows() throws Exception
+	{
+		onEdt(() -> checkSize(10_000));
+	}
+
+	@Test
+	public void unchangedKeyedRefreshBindsNothing() throws Exception
+	{
+		onEdt(() ->
+		{
+			JViewport viewport = new JViewport();
+			VirtualCardList list = mount(viewport);
+			list.setRows(rows(10_000, 1));
+			// Once the first cards are measured, more rows fit; let that settle
+			list.setRows(rows(10_000, 1));
+			int before = binds;
+			list.setRows(rows(10_000, 1));
+			assertEquals("nothing changed, nothing re-bound", before, binds);
+
+			list.setRows(rows(10_000, 2));
+			assertTrue("a new version re-binds only the cards on screen", binds - before <= MAX_LIVE);
+		});
+	}
+
+	private void checkSize(int rowCount)
+	{
+		JViewport viewport = new JViewport();
+		VirtualCardList list = mount(viewport);
+
+		list.setRows(rows(rowCount, 1));
+		assertEquals(rowCount, list.getRowCount());
+		assertTrue("only the rows in view get cards: " + created, created <= MAX_LIVE);
+		assertTrue("only the rows in view get bound: " + binds, binds <= MAX_LIVE);
+		// Let the list take its full height, as the viewport's layout would
+		list.setSize(WIDTH, list.getPreferredSize().height);
+
+		// Scroll from top to bottom a screen at a time, the way the viewport's
+		// change listener drives it
+		int total = list.getPreferredSize().height;
+		for (int y = 0; y + VIEW_HEIGHT <= total; y += VIEW_HEIGHT)
+		{
+			viewport.setViewPosition(new Point(0, y));
+			list.doLayout();
+		}
+		assertTrue("scrolled cards come from the pool: " + created, created <= MAX_LIVE);
+		assertTrue("every row was bound on the way down", binds >= rowCount);
+		assertEquals("every row measured", rowCount * CARD_HEIGHT, list.getPreferredSize().height);
+	}
+
+	private VirtualCardList mount(JViewport viewport)
+	{
+		VirtualCardList list = new VirtualCardList();
+		viewport.setView(list);
+		viewport.setBounds(0, 0, WIDTH, VIEW_HEIGHT);
+		// The view's size is normally set by the viewport's layout; no peer here
+		list.setBounds(0, 0, WIDTH, VIEW_HEIGHT);
+		return list;
+	}
+
+	private List<VirtualCardList.Row> rows(int count, long version)
+	{
+		if (models.length != count)
+		{
+			models = new String[count];
+			for (int i = 0; i < count; i++)
+			{
+				models[i] = "row " + i;
+			}
+		}
+		List<VirtualCardList.Row> rows = new ArrayList<>(count);
+		for (String model : models)
+		{
+			rows.add(VirtualCardList.row(kind, model, version, model));
+		}
+		return rows;
+	}
+
+	private static void onEdt(Runnable test) throws Exception
+	{
+		Throwable[] failure = new Throwable[1];
+		SwingUtilities.invokeAndWait(() ->
+		{
+			try
+			{
+				test.run();
+			}
+			catch (Throwable t)
+			{
+				failure[0] = t;
+			}
+		});
+		if (failure[0] instanceof Error)
+		{
+			throw (Error) failure[0];
+		}
+		if (failure[0] != null)
+		{
+			throw new AssertionError(failure[0]);
+		}
+	}
+}
@@ -0,0 +1,224 @@
+package com.guess34.lendingtracker.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntIntMapTest
+{
+	// A fresh map has 8 slots and grows at 6 entries, so up to 5 keys stay put
+	private static final int INITIAL_MASK = 7;
+
+	@Test
+	public void putGetRemove()
+	{
+		IntIntMap map = new IntIntMap();
+		assertTrue(map.isEmpty());
+		map.put(4151, 2);
+		map.put(11802, 1);
+		assertEquals(2, map.get(4151));
+		assertEquals(1, map.get(11802));
+		assertEquals(0, map.get(995));
+		assertEquals(-1, map.getOrDefault(995, -1));
+		assertEquals(2, map.size());
+
+		map.put(4151, 7);
+		assertEquals(7, map.get(4151));
+		assertEquals(2, map.size());
+
+		assertEquals(7, map.remove(4151));
+		assertFalse(map.containsKey(4151));
+		assertEquals(0, map.remove(4151));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	public void addToZeroRemovesTheKey()
+	{
+		IntIntMap map = new IntIntMap();
+		assertEquals(3, map.add(1, 3));
+		assertEquals(1, map.add(1, -2));
+		assertEquals(0, map.add(1, -1));
+		assertFalse(map.containsKey(1));
+		assertEquals(0, map.add(2, 0));
+		assertTrue(map.isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void reservedKeyIsRejected()
+	{
+		new IntIntMap().put(Integer.MIN_VALUE, 1);
+	}
+
+	@Test
+	public void removeKeepsCollisionChainReachableAcrossWraparound()
+	{
+		// Four keys that all hash to the last slot fill slots 7, 0, 1, 2; a key
+		// whose home is slot 0 lands after them in slot 3. Deleting any of them
+		// must shift the rest back without stranding one behind a free slot.
+		int[] last = keysWithHome(INITIAL_MASK, 4);
+		int[] zero = keysWithHome(0, 1);
+		int[] keys = { last[0], last[1], last[2], last[3], zero[0] };
+
+		for (int[] order : permutations(keys.length))
+		{
+			IntIntMap map = new IntIntMap();
+			for (int i = 0; i < keys.length; i++)
+			{
+				map.put(keys[i], i + 1);
+			}
+			boolean[] removed = new boolean[keys.length];
+			for (int victim : order)
+			{
+				assertEquals(victim + 1, map.remove(keys[victim]));
+				removed[victim] = true;
+				for (int i = 0; i < keys.length; i++)
+				{
+					assertEquals("key " + i + " after removing " + Arrays.toString(order),
+						removed[i] ? 0 : i + 1, map.get(keys[i]));
+				}
+			}
+			assertTrue(map.isEmpty());
+		}
+	}
+
+	@Test
+	public void reinsertAfterRemoveReusesChain()
+	{
+		int[] keys = keysWithHome(3, 4);
+		IntIntMap map = new IntIntMap();
+		for (int k : keys)
+		{
+			map.put(k, k);
+		}
+		map.remove(keys[1]);
+		map.put(keys[1], 42);
+		assertEquals(4, map.size());
+		assertEquals(42, map.get(keys[1]));
+		for (int k : new int[] { keys[0], keys[2], keys[3] })
+		{
+			assertEquals(k, map.get(k));
+		}
+	}
+
+	@Test
+	public void matchesHashMapUnderRandomOperations()
+	{
+		Random random = new Random(33);
+		IntIntMap map = new IntIntMap();
+		Map<Integer, Integer> expected = new HashMap<>();
+
+		for (int step = 0; step < 200_000; step++)
+		{
+			// A narrow key range keeps the table dense with long chains and frequent deletes
+			int key = random.nextInt(300);
+			switch (random.nextInt(4))
+			{
+				case 0:
+					int value = random.nextInt(5) + 1;
+					map.put(key, value);
+					expected.put(key, value);
+					break;
+				case 1:
+					int delta = random.nextInt(7) - 3;
+					int sum = expected.getOrDefault(key, 0) + delta;
+					assertEquals(sum, map.add(key, delta));
+					if (sum == 0)
+					{
+						expected.remove(key);
+					}
+					else
+					{
+						expected.put(key, sum);
+					}
+					break;
+				case 2:
+					Integer old = expected.remove(key);
+					assertEquals(old != null ? (int) old : 0, map.remove(key));
+					break;
+				default:
+					assertEquals(expected.getOrDefault(key, 0).intValue(), map.get(key));
+					break;
+			}
+			if (step % 10_000 == 0)
+			{
+				assertSameContents(expected, map);
+			}
+		}
+		assertSameContents(expected, map);
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertEquals(0, map.keys().length);
+	}
+
+	private static void assertSameContents(Map<Integer, Integer> expected, IntIntMap map)
+	{
+		assertEquals(expected.size(), map.size());
+		Map<Integer, Integer> actual = new HashMap<>();
+		map.forEach(actual::put);
+		assertEquals(expected, actual);
+		int[] keys = map.keys();
+		assertEquals(expected.size(), keys.length);
+		for (int k : keys)
+		{
+			assertTrue(expected.containsKey(k));
+		}
+	}
+
+	/** Non-negative keys whose home slot in a fresh map is the given one. */
+	static int[] keysWithHome(int home, int count)
+	{
+		int[] out = new int[count];
+		int n = 0;
+		for (int k = 0; n < count; k++)
+		{
+			if ((mix(k) & INITIAL_MASK) == home)
+			{
+				out[n++] = k;
+			}
+		}
+		return out;
+	}
+
+	// Same mixing as IntIntMap and IntSet
+	private static int mix(int key)
+	{
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	static List<int[]> permutations(int n)
+	{
+		List<int[]> out = new ArrayList<>();
+		permute(new int[n], new boolean[n], 0, out);
+		return out;
+	}
+
+	private static void permute(int[] current, boolean[] used, int depth, List<int[]> out)
+	{
+		if (depth == current.length)
+		{
+			out.add(current.clone());
+			return;
+		}
+		for (int i = 0; i < current.length; i++)
+		{
+			if (!used[i])
+			{
+				used[i] = true;
+				current[depth] = i;
+				permute(current, used, depth + 1, out);
+				used[i] = false;
+			}
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.guess34.lendingtracker.util;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntSetTest
+{
+	@Test
+	public void addContainsRemove()
+	{
+		IntSet set = new IntSet();
+		assertTrue(set.add(4151));
+		assertFalse(set.add(4151));
+		assertTrue(set.add(0));
+		assertTrue(set.contains(4151));
+		assertTrue(set.contains(0));
+		assertFalse(set.contains(995));
+		assertEquals(2, set.size());
+
+		assertTrue(set.remove(4151));
+		assertFalse(set.remove(4151));
+		assertFalse(set.contains(4151));
+		assertEquals(1, set.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void reservedKeyIsRejected()
+	{
+		new IntSet().add(Integer.MIN_VALUE);
+	}
+
+	@Test
+	public void removeKeepsCollisionChainReachableAcrossWraparound()
+	{
+		// Same layout as the IntIntMap case: a chain homed on the last slot wraps
+		// to the front, with a key homed on slot 0 pushed in behind it
+		int[] last = IntIntMapTest.keysWithHome(7, 4);
+		int[] zero = IntIntMapTest.keysWithHome(0, 1);
+		int[] keys = { last[0], last[1], last[2], last[3], zero[0] };
+
+		for (int[] order : IntIntMapTest.permutations(keys.length))
+		{
+			IntSet set = new IntSet();
+			for (int k : keys)
+			{
+				set.add(k);
+			}
+			boolean[] removed = new boolean[keys.length];
+			for (int victim : order)
+			{
+				assertTrue(set.remove(keys[victim]));
+				removed[victim] = true;
+				for (int i = 0; i < keys.length; i++)
+				{
+					assertEquals("key " + i + " after removing " + Arrays.toString(order),
+						!removed[i], set.contains(keys[i]));
+				}
+			}
+			assertTrue(set.isEmpty());
+		}
+	}
+
+	@Test
+	public void removeIfAndAddAll()
+	{
+		IntSet set = new IntSet();
+		for (int i = 0; i < 100; i++)
+		{
+			set.add(i);
+		}
+		set.removeIf(k -> k % 3 == 0);
+		assertEquals(66, set.size());
+		for (int i = 0; i < 100; i++)
+		{
+			assertEquals(i % 3 != 0, set.contains(i));
+		}
+
+		IntSet copy = new IntSet();
+		copy.addAll(set);
+		copy.add(300);
+		assertEquals(67, copy.size());
+		assertFalse(set.contains(300));
+	}
+
+	@Test
+	public void matchesHashSetUnderRandomOperations()
+	{
+		Random random = new Random(34);
+		IntSet set = new IntSet();
+		Set<Integer> expected = new HashSet<>();
+
+		for (int step = 0; step < 200_000; step++)
+		{
+			int key = random.nextInt(300);
+			switch (random.nextInt(3))
+			{
+				case 0:
+					assertEquals(expected.add(key), set.add(key));
+					break;
+				case 1:
+					assertEquals(expected.remove(key), set.remove(key));
+					break;
+				default:
+					assertEquals(expected.contains(key), set.contains(key));
+					break;
+			}
+			if (step % 10_000 == 0)
+			{
+				assertSameContents(expected, set);
+			}
+		}
+		assertSameContents(expected, set);
+	}
+
+	private static void assertSameContents(Set<Integer> expected, IntSet set)
+	{
+		assertEquals(expected.size(), set.size());
+		Set<Integer> actual = new HashSet<>();
+		set.forEach(actual::add);
+		assertEquals(expected, actual);
+		assertEquals(expected.size(), set.toArray().length);
+	}
+}
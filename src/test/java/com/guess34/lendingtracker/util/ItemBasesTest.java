@@ -0,0 +1,25 @@
+package com.guess34.lendingtracker.util;
+
+import net.runelite.client.game.ItemVariationMapping;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ItemBasesTest
+{
+	private static final int ITEM_COUNT = 30_000;
+
+	@Test
+	public void tableAgreesWithVariationMapping()
+	{
+		ItemBases.build(ITEM_COUNT);
+		assertTrue(ItemBases.isBuilt(ITEM_COUNT));
+		for (int id = 0; id < ITEM_COUNT + 100; id++)
+		{
+			// Ids past the table fall back to the mapping itself
+			assertEquals("item " + id, ItemVariationMapping.map(id), ItemBases.base(id));
+		}
+		assertEquals(ItemVariationMapping.map(-1), ItemBases.base(-1));
+	}
+}